@@ -198,23 +198,24 @@ function Historical()
         setError(null);
         try
         {
+            const points = Math.min(1000, Math.max(50, Math.round(window.innerWidth / 2)));
             const response = await axios.get(
-                `http://localhost:8080/api/v1/rates/${baseCurrency.toLowerCase()}/${targetCurrency.toLowerCase()}/range?start=${formatDate(startDate)}&end=${formatDate(endDate)}`
+                `http://localhost:8080/api/v1/rates/${baseCurrency.toLowerCase()}/${targetCurrency.toLowerCase()}/analytics?start=${formatDate(startDate)}&end=${formatDate(endDate)}&points=${points}`
             );
             if (response.data.success)
             {
                 const data = response.data.data;
-                if (!Array.isArray(data) || data.length === 0)
+                if (!data || !data.series || data.series.dates.length === 0)
                 {
                     setError('No historical data available for the selected period');
                     return;
                 }
                 const chartData = {
-                    labels: data.map(item => dayjs(item.date).format('YYYY-MM-DD')),
+                    labels: data.series.dates.map(date => dayjs(date).format('YYYY-MM-DD')),
                     datasets: [
                         {
                             label: `${baseCurrency}/${targetCurrency} Exchange Rate`,
-                            data: data.map(item => parseFloat(item.rate)),
+                            data: data.series.values,
                             fill: true,
                             borderColor: '#4caf50',
                             backgroundColor: 'rgba(76, 175, 80, 0.1)',
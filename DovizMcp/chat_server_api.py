@@ -4,42 +4,30 @@ import requests
 import json
 import requests
 from mcp import Tool
-from difflib import get_close_matches
 
 mcp = FastMCP("BMI Server")
 
 logger.info(f"Starting server {mcp.name}")
 
-CURRENCY_LIST = {}
+SEARCH_URL = "http://localhost:8080/api/v1/currencies/search"
 
 def find_closest_currency(input_str: str) -> str:
     """
-    LLM veya kullanıcıdan gelen input'u CURRENCY_LIST ile eşleştirir.
-    Dönen değer dizideki geçerli currency key (örn: "eur")
+    LLM veya kullanıcıdan gelen input'u sunucudaki para birimi arama indeksiyle eşleştirir.
+    Dönen değer geçerli currency key (örn: "eur"); eşleşme yoksa input aynen döner.
     """
-    input_str = input_str.lower()
+    try:
+        response = requests.get(SEARCH_URL, params={"q": input_str, "limit": 1}, timeout=5)
+        response.raise_for_status()
+        matches = response.json().get("data") or []
+    except requests.RequestException as e:
+        logger.warning(f"Currency search failed for '{input_str}': {e}")
+        return input_str.lower()
 
-    key_matches = get_close_matches(input_str, [k.lower() for k in CURRENCY_LIST.keys()], n=1, cutoff=0.6)
-    if key_matches:
-        # Küçük harfi orijinal key ile eşleştir
-        return next(k for k in CURRENCY_LIST.keys() if k.lower() == key_matches[0])
+    if matches:
+        return matches[0]["code"]
 
-    value_matches = get_close_matches(input_str, [v.lower() for v in CURRENCY_LIST.values()], n=1, cutoff=0.6)
-    if value_matches:
-        return next(k for k, v in CURRENCY_LIST.items() if v.lower() == value_matches[0])
-
-    return input_str
-
-def load_currencies():
-    global CURRENCY_LIST
-    url = "http://localhost:8080/api/v1/currencies"
-    response = requests.get(url)
-    response.raise_for_status()
-    
-    json_data = response.json()  
-    CURRENCY_LIST = json_data.get("data", {})  
-    
-    print(f"{len(CURRENCY_LIST)} currencies loaded")
+    return input_str.lower()
 
 @mcp.tool()
 def get_currency_rates(base: str = "eur", targets: list[str] = None) -> dict:
@@ -228,5 +216,4 @@ def get_crypto_rates(base: str = "BTC", targets: list[str] = None) -> dict:
     }
 
 if __name__ == "__main__":
-    load_currencies()
     mcp.run(transport="stdio")
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.doviz.api.benchmark;
+
+import com.doviz.api.model.ApiResponse;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.ExchangeRate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ApiResponse} gövdelerinin JSON'a yazılması: tam kur tablosu ve bir yıllık aralık.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({ "300", "1000" })
+    private int entries;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<CurrencyRates> ratesResponse;
+    private ApiResponse<List<ExchangeRate>> rangeResponse;
+
+    @Setup
+    public void setup() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        ratesResponse = ApiResponse.success(BenchmarkFixtures.rates(entries));
+
+        List<ExchangeRate> history = new ArrayList<>(365);
+        for (int day = 0; day < 365; day++) {
+            history.add(new ExchangeRate("EUR", "USD", BigDecimal.valueOf(1.08 + day * 1e-4),
+                    BenchmarkFixtures.DATE.minusDays(day), System.currentTimeMillis()));
+        }
+        rangeResponse = ApiResponse.success(history);
+    }
+
+    @Benchmark
+    public byte[] serializeRates() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ratesResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeRange() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(rangeResponse);
+    }
+}
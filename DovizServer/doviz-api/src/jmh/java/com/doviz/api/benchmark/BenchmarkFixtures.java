@@ -0,0 +1,156 @@
+package com.doviz.api.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.doviz.api.client.ExternalApiClient;
+import com.doviz.api.client.LastKnownGoodSnapshots;
+import com.doviz.api.client.UpstreamCircuitBreaker;
+import com.doviz.api.client.UpstreamMetrics;
+import com.doviz.api.config.UpstreamProperties;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateTable;
+import com.doviz.api.service.CrossRateEngine;
+import com.doviz.api.service.CurrencyService;
+import com.doviz.api.store.HistoricalRateStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmark'ların ortak verileri: upstream'e benzeyen kur payload'ları ve Spring
+ * context'i olmadan, sabit snapshot dönen bir istemciyle kurulmuş {@link CurrencyService}.
+ */
+final class BenchmarkFixtures {
+
+    static final String BASE = "eur";
+    static final LocalDate DATE = LocalDate.of(2025, 1, 15);
+
+    private static final String[] MAJOR_CODES = {
+            "usd", "try", "gbp", "jpy", "chf", "cad", "aud", "nzd", "sek", "nok", "dkk", "pln",
+            "czk", "huf", "ron", "bgn", "rub", "cny", "inr", "brl", "mxn", "zar", "krw", "sgd",
+            "hkd", "aed", "sar", "btc", "eth", "1inch" };
+
+    static {
+        // Spring Boot olmadan logback varsayılan olarak DEBUG açar; ölçümü log bozmasın
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Baz para birimi hariç {@code count} adet kod; ilkleri gerçek kodlar, kalanı
+     * upstream'deki kripto/token kodlarına benzeyen sentetik kodlardır.
+     */
+    static List<String> codes(int count) {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count && i < MAJOR_CODES.length; i++) {
+            codes.add(MAJOR_CODES[i]);
+        }
+        for (int i = codes.size(); i < count; i++) {
+            codes.add(String.format(Locale.ROOT, "x%03d%c", i, (char) ('a' + i % 26)));
+        }
+        return codes;
+    }
+
+    static CurrencyRates rates(int entries) {
+        SplittableRandom random = new SplittableRandom(entries);
+        RateTable.Builder table = RateTable.builder();
+        for (String code : codes(entries)) {
+            table.put(code, rate(random));
+        }
+        return new CurrencyRates(BASE, DATE, table.build());
+    }
+
+    /**
+     * Upstream'in döndürdüğü şekilde {@code {"date": ..., "eur": {...}}} gövdesi.
+     */
+    static byte[] ratesPayload(int entries) {
+        SplittableRandom random = new SplittableRandom(entries);
+        StringBuilder json = new StringBuilder(entries * 32);
+        json.append("{\"date\":\"").append(DATE).append("\",\"").append(BASE).append("\":{");
+        List<String> codes = codes(entries);
+        for (int i = 0; i < codes.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(codes.get(i)).append("\":").append(rate(random));
+        }
+        return json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * Her çağrıda aynı snapshot'ı dönen istemciyle kurulmuş servis; ölçülen süre
+     * ağ ve cache yerine sadece servis içindeki işi gösterir.
+     */
+    static CurrencyService currencyService(CurrencyRates snapshot, boolean crossRate) {
+        FixedSnapshotClient client = new FixedSnapshotClient(snapshot);
+
+        CrossRateEngine crossRateEngine = new CrossRateEngine(client);
+        ReflectionTestUtils.setField(crossRateEngine, "enabled", crossRate);
+        ReflectionTestUtils.setField(crossRateEngine, "pivot", BASE);
+        ReflectionTestUtils.setField(crossRateEngine, "significantDigits", 10);
+
+        CurrencyService service = new CurrencyService(client, crossRateEngine, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "rangeConcurrency", 8);
+        return service;
+    }
+
+    private static double rate(SplittableRandom random) {
+        // 1e-6 ile 1e5 arası, upstream'deki gibi uzun ondalıklı değerler
+        return Math.pow(10, random.nextDouble(-6, 5));
+    }
+
+    private static final class FixedSnapshotClient extends ExternalApiClient {
+
+        private final Mono<CurrencyRates> snapshot;
+
+        FixedSnapshotClient(CurrencyRates snapshot) {
+            this(snapshot, new UpstreamCircuitBreaker(5, 30_000, 5_000));
+        }
+
+        private FixedSnapshotClient(CurrencyRates snapshot, UpstreamCircuitBreaker circuitBreaker) {
+            super(localUpstream(), ConnectionProvider.newConnection(), new HistoricalRateStore(false, "unused"),
+                    circuitBreaker,
+                    new LastKnownGoodSnapshots(), new UpstreamMetrics(new SimpleMeterRegistry(), circuitBreaker),
+                    Schedulers.immediate());
+            this.snapshot = Mono.just(snapshot);
+        }
+
+        private static UpstreamProperties localUpstream() {
+            UpstreamProperties properties = new UpstreamProperties();
+            properties.setBaseUrl("http://localhost");
+            return properties;
+        }
+
+        @Override
+        public Mono<CurrencyRates> getCurrencyRates(String baseCurrency) {
+            return snapshot;
+        }
+
+        @Override
+        public Mono<CurrencyRates> getHistoricalRates(String baseCurrency, LocalDate date) {
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.doviz.api.benchmark;
+
+import com.doviz.api.model.ApiResponse;
+import com.doviz.api.model.ExchangeRate;
+import com.doviz.api.service.CurrencyService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tarih aralığı cevabının kurulması; her gün için aynı snapshot döndüğünden ölçülen
+ * süre upstream'i değil aralığın birleştirilmesini gösterir.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeAssemblyBenchmark {
+
+    @Param({ "30", "365", "1825" })
+    private int days;
+
+    private CurrencyService currencyService;
+    private String start;
+    private String end;
+
+    @Setup
+    public void setup() {
+        currencyService = BenchmarkFixtures.currencyService(BenchmarkFixtures.rates(300), false);
+        end = BenchmarkFixtures.DATE.toString();
+        start = BenchmarkFixtures.DATE.minusDays(days - 1L).toString();
+    }
+
+    @Benchmark
+    public ApiResponse<List<ExchangeRate>> assembleRange() {
+        return currencyService.getRateRange(BenchmarkFixtures.BASE, "usd", start, end).block();
+    }
+}
@@ -0,0 +1,59 @@
+package com.doviz.api.benchmark;
+
+import com.doviz.api.model.ApiResponse;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.ExchangeRate;
+import com.doviz.api.service.CurrencyService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedef filtreleme ({@code CurrencyService.filterRatesByTargets} yolu), tek çift sorgusu
+ * ve {@link ExchangeRate} oluşturma. {@code crossRate=true} aynı istekleri çapraz kur
+ * motoru üzerinden ölçer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLookupBenchmark {
+
+    @Param({ "1", "10", "50", "200" })
+    private int targetCount;
+
+    @Param({ "false", "true" })
+    private boolean crossRate;
+
+    private CurrencyService currencyService;
+    private List<String> targets;
+    private CurrencyRates snapshot;
+
+    @Setup
+    public void setup() {
+        snapshot = BenchmarkFixtures.rates(300);
+        currencyService = BenchmarkFixtures.currencyService(snapshot, crossRate);
+        targets = BenchmarkFixtures.codes(targetCount);
+    }
+
+    @Benchmark
+    public ApiResponse<CurrencyRates> filterByTargets() {
+        return currencyService.getCurrencyRatesWithTargets(BenchmarkFixtures.BASE, targets).block();
+    }
+
+    @Benchmark
+    public ApiResponse<ExchangeRate> singlePair() {
+        return currencyService.getSingleRate(BenchmarkFixtures.BASE, "try").block();
+    }
+
+    @Benchmark
+    public ExchangeRate exchangeRateConstruction() {
+        double rate = snapshot.getRates().get("try");
+        return new ExchangeRate("EUR", "TRY", BigDecimal.valueOf(rate), snapshot.getDate(),
+                System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,37 @@
+package com.doviz.api.benchmark;
+
+import com.doviz.api.model.CurrencyRates;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upstream kur gövdesinin {@link CurrencyRates}'e çözülmesi.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RatesParsingBenchmark {
+
+    @Param({ "300", "1000" })
+    private int entries;
+
+    private ObjectMapper objectMapper;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        payload = BenchmarkFixtures.ratesPayload(entries);
+    }
+
+    @Benchmark
+    public CurrencyRates deserialize() throws IOException {
+        return objectMapper.readValue(payload, CurrencyRates.class);
+    }
+}
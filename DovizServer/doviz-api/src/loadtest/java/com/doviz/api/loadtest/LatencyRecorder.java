@@ -0,0 +1,60 @@
+package com.doviz.api.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tek bir rota için gecikme örnekleri. Örnekler önceden ayrılan bir dizide tutulur;
+ * kapasite dolarsa sonraki örnekler sayılır ama yüzdeliklere girmez.
+ */
+final class LatencyRecorder {
+
+    private final long[] samples;
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    LatencyRecorder(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * @param shed sunucunun kabul kontrolüyle reddettiği (429) istek; hata sayılmaz
+     */
+    void record(long latencyNanos, boolean success, boolean shed) {
+        if (shed) {
+            this.shed.increment();
+        } else if (!success) {
+            errors.increment();
+        }
+        int index = size.getAndIncrement();
+        if (index < samples.length) {
+            samples[index] = latencyNanos;
+        } else {
+            dropped.increment();
+        }
+    }
+
+    Summary summarize(double seconds) {
+        int count = Math.min(size.get(), samples.length);
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        long total = size.get();
+        return new Summary(total, errors.sum(), shed.sum(), total / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                count == 0 ? 0 : sorted[count - 1]);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    record Summary(long count, long errors, long shed, double throughput, long p50, long p99, long p999, long max) {
+    }
+}
@@ -0,0 +1,245 @@
+package com.doviz.api.loadtest;
+
+import com.doviz.api.DovizApiApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * CurrencyController rotalarına sabit varış hızıyla (açık model) karışık trafik gönderir.
+ *
+ * Varsayılan olarak {@link UpstreamStub} ve sunucu aynı JVM'de başlatılır; sunucu stub'a
+ * {@code app.external-api.base-url} ile bağlanır. {@code --target=http://host:port/api}
+ * verilirse zaten çalışan bir sunucu ölçülür (stub yine de başlatılır, sunucunun ona
+ * yönlendirilmesi çağırana kalır).
+ *
+ * {@code mirror-latency-ms} verilirse ikinci bir stub yedek adres olarak başlatılır ve
+ * sunucu ona {@code app.external-api.mirror-base-url} ile bağlanır; birincil stub'ın
+ * gecikmesi/jitter'ı yükseltilerek hedge davranışı ölçülebilir.
+ *
+ * İstekler {@code clients} farklı istemci kimliğiyle ({@code X-Client-Id}) gönderilir ki
+ * gömülü sunucunun istemci başına sınırı tek bir istemcinin sınırı gibi davranmasın;
+ * kabul kontrolünün reddettiği istekler hata yerine "429" sütununda sayılır.
+ *
+ * Gecikme isteğin planlanan gönderim anından ölçülür, böylece yavaşlayan bir sunucu
+ * sonraki isteklerin de bekleme süresine yansır (coordinated omission yok).
+ *
+ * Seçenekler ({@code --anahtar=değer}): rate, duration, warmup, mode (platform|virtual),
+ * stub-port, stub-latency-ms, stub-jitter-ms, stub-error-rate, stub-payloads, mirror-latency-ms,
+ * mirror-jitter-ms, clients, target. {@code app.}, {@code spring.},
+ * {@code server.} ve {@code management.} ile başlayanlar gömülü sunucuya aktarılır.
+ */
+public final class LoadDriver {
+
+    private record Route(String name, int weight, Function<SplittableRandom, String> path) {
+    }
+
+    private static final String[] BASES = { "eur", "usd", "try", "gbp", "jpy" };
+    private static final String[] TARGETS = { "usd", "try", "gbp", "chf", "jpy", "cad", "aud" };
+    private static final String[] CRYPTO = { "btc", "eth", "sol" };
+
+    private static final List<Route> MIX = List.of(
+            new Route("rates", 35, random -> "/v1/rates/" + pick(random, BASES)),
+            new Route("rates-targets", 10, random -> "/v1/rates/" + pick(random, BASES)
+                    + "?targets=" + pick(random, TARGETS) + "," + pick(random, TARGETS)),
+            new Route("rate", 25, random -> "/v1/rate?from=" + pick(random, BASES) + "&to=" + pick(random, TARGETS)),
+            new Route("range", 10, LoadDriver::rangePath),
+            new Route("crypto", 10, random -> "/v1/crypto/" + pick(random, CRYPTO) + "?targets=usd,eur"),
+            new Route("currencies", 10, random -> "/v1/currencies"));
+
+    private LoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                continue;
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            if (key.startsWith("app.") || key.startsWith("spring.") || key.startsWith("server.")
+                    || key.startsWith("management.")) {
+                springArgs.add(arg);
+            } else {
+                options.put(key, arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        String payloads = options.get("stub-payloads");
+        String mode = options.getOrDefault("mode", "platform");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "50"));
+        if (!mode.equals("platform") && !mode.equals("virtual")) {
+            throw new IllegalArgumentException("mode must be 'platform' or 'virtual': " + mode);
+        }
+
+        UpstreamStub stub = new UpstreamStub(new UpstreamStub.Settings(
+                Long.parseLong(options.getOrDefault("stub-latency-ms", "40")),
+                Long.parseLong(options.getOrDefault("stub-jitter-ms", "20")),
+                Double.parseDouble(options.getOrDefault("stub-error-rate", "0")),
+                payloads == null ? null : Path.of(payloads)))
+                .start(Integer.parseInt(options.getOrDefault("stub-port", "0")));
+        UpstreamStub mirror = !options.containsKey("mirror-latency-ms") ? null
+                : new UpstreamStub(new UpstreamStub.Settings(
+                        Long.parseLong(options.get("mirror-latency-ms")),
+                        Long.parseLong(options.getOrDefault("mirror-jitter-ms", "0")),
+                        0,
+                        payloads == null ? null : Path.of(payloads)))
+                        .start(0);
+
+        ConfigurableApplicationContext context = null;
+        String target = options.get("target");
+        try {
+            if (target == null) {
+                springArgs.add(0, "--server.port=0");
+                springArgs.add(1, "--app.external-api.base-url=" + stub.baseUrl());
+                springArgs.add(2, "--app.history-store.enabled=false");
+                springArgs.add(3, "--logging.level.com.doviz.api=WARN");
+                springArgs.add(4, "--spring.threads.virtual.enabled=" + mode.equals("virtual"));
+                springArgs.add(5, "--app.admission.client-header=X-Client-Id");
+                if (mirror != null) {
+                    springArgs.add(6, "--app.external-api.mirror-base-url=" + mirror.baseUrl());
+                }
+                context = SpringApplication.run(DovizApiApplication.class, springArgs.toArray(String[]::new));
+                target = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port")
+                        + context.getEnvironment().getProperty("server.servlet.context-path", "");
+            }
+
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            System.out.printf(Locale.ROOT, "Upstream stub: %s%nTarget: %s%nMode: %s%n", stub.baseUrl(), target,
+                    options.containsKey("target") ? "external" : mode);
+            if (warmup > 0) {
+                System.out.printf(Locale.ROOT, "Warm-up: %d s at %d req/s%n", warmup, rate);
+                run(client, target, rate, warmup, clients, null);
+            }
+
+            stub.resetCounts();
+            if (mirror != null) {
+                mirror.resetCounts();
+            }
+            Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+            for (Route route : MIX) {
+                recorders.put(route.name(), new LatencyRecorder(rate * duration + 1));
+            }
+            System.out.printf(Locale.ROOT, "Measuring: %d s at %d req/s%n", duration, rate);
+            double elapsed = run(client, target, rate, duration, clients, recorders);
+
+            report(recorders, elapsed, stub, mirror);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            stub.stop();
+            if (mirror != null) {
+                mirror.stop();
+            }
+        }
+    }
+
+    /**
+     * İstekleri planlanan anlarda gönderir ve hepsinin bitmesini bekler; geçen süreyi
+     * saniye olarak döner.
+     */
+    private static double run(HttpClient client, String target, int rate, int seconds, int clients,
+            Map<String, LatencyRecorder> recorders) {
+        SplittableRandom random = new SplittableRandom(7);
+        int totalWeight = MIX.stream().mapToInt(Route::weight).sum();
+        long interval = 1_000_000_000L / rate;
+        long requests = (long) rate * seconds;
+        List<CompletableFuture<?>> inFlight = new ArrayList<>((int) requests);
+
+        long start = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long scheduled = start + i * interval;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Route route = choose(random, totalWeight);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + route.path().apply(random)))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("X-Client-Id", "load-" + random.nextInt(clients))
+                    .GET()
+                    .build();
+            LatencyRecorder recorder = recorders == null ? null : recorders.get(route.name());
+
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        if (recorder != null) {
+                            boolean success = error == null && response.statusCode() < 400;
+                            boolean shed = error == null && response.statusCode() == 429;
+                            recorder.record(System.nanoTime() - scheduled, success, shed);
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static void report(Map<String, LatencyRecorder> recorders, double elapsed, UpstreamStub stub,
+            UpstreamStub mirror) {
+        System.out.printf(Locale.ROOT, "%n%-14s %8s %7s %7s %9s %9s %9s %9s %9s%n",
+                "route", "count", "errors", "429", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        recorders.forEach((name, recorder) -> {
+            LatencyRecorder.Summary summary = recorder.summarize(elapsed);
+            System.out.printf(Locale.ROOT, "%-14s %8d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    name, summary.count(), summary.errors(), summary.shed(), summary.throughput(),
+                    summary.p50() / 1e6, summary.p99() / 1e6, summary.p999() / 1e6, summary.max() / 1e6);
+        });
+
+        System.out.printf(Locale.ROOT, "%nUpstream calls: %s (injected errors: %d)%n",
+                stub.callCounts(), stub.injectedErrors());
+        if (mirror != null) {
+            System.out.printf(Locale.ROOT, "Mirror calls: %s%n", mirror.callCounts());
+        }
+    }
+
+    private static Route choose(SplittableRandom random, int totalWeight) {
+        int point = random.nextInt(totalWeight);
+        for (Route route : MIX) {
+            point -= route.weight();
+            if (point < 0) {
+                return route;
+            }
+        }
+        return MIX.get(MIX.size() - 1);
+    }
+
+    private static String rangePath(SplittableRandom random) {
+        // Son iki yıl içinde 7-90 günlük rastgele pencereler; geçmiş cache'inin isabet oranını da ölçer
+        LocalDate end = LocalDate.now().minusDays(1 + random.nextInt(730));
+        LocalDate start = end.minusDays(6 + random.nextInt(84));
+        return "/v1/rates/" + pick(random, BASES) + "/" + pick(random, TARGETS)
+                + "/range?start=" + start + "&end=" + end;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
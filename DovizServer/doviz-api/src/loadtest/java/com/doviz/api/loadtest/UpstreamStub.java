@@ -0,0 +1,243 @@
+package com.doviz.api.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * currency-api CDN'inin yerel taklidi. Sunucu {@code app.external-api.base-url} ile
+ * {@link #baseUrl()} adresine yönlendirilir; {@code @latest} ve {@code @yyyy-MM-dd}
+ * sürümlü adreslerin ikisi de cevaplanır.
+ *
+ * Kayıtlı payload dizini verilirse dosyalar {@code <dir>/<sürüm>/<yol>}, yoksa
+ * {@code <dir>/<yol>} altından aynen servis edilir (örn. {@code currencies/eur.json}).
+ * Bulunamayan gövdeler sabit tohumlu, pivot tutarlı sentetik kurlarla üretilir.
+ */
+public class UpstreamStub {
+
+    private static final Pattern PATH = Pattern.compile(
+            ".*@([^/]+)/v1/(currencies\\.json|currencies/([a-z0-9]+)(\\.min)?\\.json)$");
+
+    private static final String[] FIAT = {
+            "eur", "usd", "try", "gbp", "jpy", "chf", "cad", "aud", "nzd", "sek", "nok", "dkk",
+            "pln", "czk", "huf", "ron", "bgn", "rub", "cny", "inr", "brl", "mxn", "zar", "krw",
+            "sgd", "hkd", "aed", "sar", "ils", "thb" };
+    private static final String[] CRYPTO = {
+            "btc", "eth", "usdt", "bnb", "sol", "xrp", "ada", "doge", "dot", "ltc", "trx", "1inch" };
+    private static final int SYNTHETIC_CODES = 300;
+
+    private final Settings settings;
+    private final Map<String, Double> pivotValues = new LinkedHashMap<>();
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param latencyMs  her cevaba eklenen sabit gecikme
+     * @param jitterMs   gecikmeye eklenen 0..jitterMs arası rastgele süre
+     * @param errorRate  503 ile cevaplanacak isteklerin oranı (0..1)
+     * @param payloadDir kayıtlı payload dizini, yoksa {@code null}
+     */
+    public record Settings(long latencyMs, long jitterMs, double errorRate, Path payloadDir) {
+    }
+
+    public UpstreamStub(Settings settings) {
+        this.settings = settings;
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (String code : FIAT) {
+            pivotValues.put(code, code.equals("eur") ? 1.0 : Math.pow(10, random.nextDouble(-1, 3)));
+        }
+        for (String code : CRYPTO) {
+            pivotValues.put(code, Math.pow(10, random.nextDouble(-6, 1)));
+        }
+        for (int i = pivotValues.size(); i < SYNTHETIC_CODES; i++) {
+            pivotValues.put("x" + i, Math.pow(10, random.nextDouble(-6, 5)));
+        }
+    }
+
+    public UpstreamStub start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 512);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Gerçek CDN adresiyle aynı biçimde, {@code @latest} içeren taban adres.
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/npm/@fawazahmed0/currency-api@latest/v1";
+    }
+
+    /**
+     * Uç nokta türüne göre alınan istek sayıları: currencies, rates, minified, historical.
+     */
+    public Map<String, Long> callCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        calls.forEach((endpoint, count) -> counts.put(endpoint, count.sum()));
+        return counts;
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    public void resetCounts() {
+        calls.clear();
+        injectedErrors.reset();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Matcher matcher = PATH.matcher(exchange.getRequestURI().getPath());
+            if (!matcher.matches()) {
+                respond(exchange, 404, "{}");
+                return;
+            }
+
+            String version = matcher.group(1);
+            String relative = matcher.group(2);
+            String base = matcher.group(3);
+            boolean historical = !version.equals("latest");
+            calls.computeIfAbsent(endpointOf(base, matcher.group(4) != null, historical), key -> new LongAdder())
+                    .increment();
+
+            delay();
+            if (settings.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                injectedErrors.increment();
+                respond(exchange, 503, "{}");
+                return;
+            }
+
+            LocalDate date;
+            try {
+                date = historical ? LocalDate.parse(version) : LocalDate.now();
+            } catch (DateTimeParseException e) {
+                respond(exchange, 404, "{}");
+                return;
+            }
+
+            String recorded = recorded(version, relative);
+            if (recorded != null) {
+                respond(exchange, 200, recorded);
+            } else if (base == null) {
+                respond(exchange, 200, currenciesBody());
+            } else if (pivotValues.containsKey(base)) {
+                respond(exchange, 200, ratesBody(base, date));
+            } else {
+                respond(exchange, 404, "{}");
+            }
+        }
+    }
+
+    private static String endpointOf(String base, boolean minified, boolean historical) {
+        if (base == null) {
+            return "currencies";
+        }
+        if (historical) {
+            return "historical";
+        }
+        return minified ? "minified" : "rates";
+    }
+
+    private void delay() {
+        long millis = settings.latencyMs();
+        if (settings.jitterMs() > 0) {
+            millis += ThreadLocalRandom.current().nextLong(settings.jitterMs() + 1);
+        }
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private String recorded(String version, String relative) throws IOException {
+        if (settings.payloadDir() == null) {
+            return null;
+        }
+        for (Path candidate : new Path[] {
+                settings.payloadDir().resolve(version).resolve(relative),
+                settings.payloadDir().resolve(relative) }) {
+            if (Files.isRegularFile(candidate)) {
+                return Files.readString(candidate);
+            }
+        }
+        return null;
+    }
+
+    private String currenciesBody() {
+        StringBuilder json = new StringBuilder(pivotValues.size() * 24).append('{');
+        for (String code : pivotValues.keySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(code).append("\":\"").append(code.toUpperCase()).append(" currency\"");
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Kurlar pivot değerlerinin oranıdır, böylece çapraz kurlar tutarlı kalır; her gün
+     * için tarihe bağlı küçük bir sapma uygulanır.
+     */
+    private String ratesBody(String base, LocalDate date) {
+        SplittableRandom drift = new SplittableRandom(date.toEpochDay());
+        double baseValue = pivotValues.get(base);
+
+        StringBuilder json = new StringBuilder(pivotValues.size() * 32);
+        json.append("{\"date\":\"").append(date).append("\",\"").append(base).append("\":{");
+        boolean first = true;
+        for (Map.Entry<String, Double> entry : pivotValues.entrySet()) {
+            double factor = 1 + drift.nextDouble(-0.01, 0.01);
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append('"').append(entry.getKey()).append("\":")
+                    .append(entry.getKey().equals(base) ? 1.0 : entry.getValue() * factor / baseValue);
+        }
+        return json.append("}}").toString();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
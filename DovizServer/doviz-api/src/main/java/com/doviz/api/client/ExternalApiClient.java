@@ -1,87 +1,253 @@
-package com.doviz.api.client;
-
-import com.doviz.api.model.CurrencyRates;
-
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
-
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-
-@Slf4j
-@Component
-public class ExternalApiClient {
-
-        private final WebClient webClient;
-        private final String baseUrl;
-
-        public ExternalApiClient(@Value("${app.external-api.base-url}") String baseUrl) {
-                this.baseUrl = baseUrl;
-                this.webClient = WebClient.builder()
-                                .baseUrl(baseUrl)
-                                .build();
-        }
-
-        @Cacheable("currencies")
-        public Mono<Object> getAllCurrencies() {
-                log.info("Fetching all currencies from external API");
-                return webClient.get()
-                                .uri("/currencies.json")
-                                .retrieve()
-                                .bodyToMono(Object.class)
-                                .doOnSuccess(result -> log.info("Successfully fetched currencies"))
-                                .doOnError(error -> log.error("Error fetching currencies: {}", error.getMessage()));
-        }
-
-        @Cacheable("rates")
-        public Mono<CurrencyRates> getCurrencyRates(String baseCurrency) {
-                return webClient.get()
-                                .uri("/currencies/{base}.json", baseCurrency.toLowerCase())
-                                .retrieve()
-                                .bodyToMono(CurrencyRates.class)
-                                .doOnSuccess(result -> {
-                                        log.info("Fetched base: {}", result.getBase());
-                                        log.info("Date: {}", result.getDate());
-                                        log.info("Rates map size: {}", result.getRates().size());
-                                        result.getRates().forEach((k, v) -> log.info("{} = {}", k, v));
-                                })
-                                .doOnError(error -> log.error("Error fetching rates for {}: {}", baseCurrency,
-                                                error.getMessage()));
-        }
-
-        @Cacheable("historical-rates")
-        public Mono<CurrencyRates> getHistoricalRates(String baseCurrency, LocalDate date) {
-                String dateStr = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                log.info("Fetching historical rates for {} on {}", baseCurrency, dateStr);
-
-                String url = String.format("/v1/currencies/%s.json", baseCurrency.toLowerCase());
-                String versionedBaseUrl = baseUrl.replace("@latest", "@" + dateStr);
-
-                var response = webClient.mutate()
-                                .baseUrl(versionedBaseUrl)
-                                .build()
-                                .get()
-                                .uri("/currencies/{base}.json", baseCurrency.toLowerCase())
-                                .retrieve()
-                                .bodyToMono(CurrencyRates.class);
-
-                return response;
-        }
-
-        @Cacheable("rates")
-        public Mono<CurrencyRates> getMinifiedRates(String baseCurrency) {
-                log.info("Fetching minified rates for base currency: {}", baseCurrency);
-                return webClient.get()
-                                .uri("/currencies/{base}.min.json", baseCurrency.toLowerCase())
-                                .retrieve()
-                                .bodyToMono(CurrencyRates.class)
-                                .doOnSuccess(result -> log.info("Successfully fetched minified rates for {}",
-                                                baseCurrency))
-                                .doOnError(error -> log.error("Error fetching minified rates for {}: {}", baseCurrency,
-                                                error.getMessage()));
-        }
+package com.doviz.api.client;
+
+import com.doviz.api.config.UpstreamProperties;
+import com.doviz.api.model.CurrencyCatalog;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.Snapshot;
+import com.doviz.api.store.HistoricalRateStore;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+@Slf4j
+@Component
+public class ExternalApiClient {
+
+        private final UpstreamTransport primary;
+        private final UpstreamTransport mirror;
+        private final UpstreamProperties.Hedge hedge;
+        private final Map<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+        private final HistoricalRateStore historicalRateStore;
+        private final UpstreamCircuitBreaker circuitBreaker;
+        private final LastKnownGoodSnapshots lastKnownGood;
+        private final UpstreamMetrics upstreamMetrics;
+        private final Scheduler blockingIoScheduler;
+
+        public ExternalApiClient(UpstreamProperties properties,
+                        ConnectionProvider upstreamConnectionProvider,
+                        HistoricalRateStore historicalRateStore,
+                        UpstreamCircuitBreaker circuitBreaker,
+                        LastKnownGoodSnapshots lastKnownGood,
+                        UpstreamMetrics upstreamMetrics,
+                        Scheduler blockingIoScheduler) {
+                this.primary = UpstreamTransport.create("primary", properties.getBaseUrl(),
+                                upstreamConnectionProvider, properties);
+                this.mirror = StringUtils.hasText(properties.getMirrorBaseUrl())
+                                ? UpstreamTransport.create("mirror", properties.getMirrorBaseUrl(),
+                                                upstreamConnectionProvider, properties)
+                                : null;
+                this.hedge = properties.getHedge();
+                this.historicalRateStore = historicalRateStore;
+                this.circuitBreaker = circuitBreaker;
+                this.lastKnownGood = lastKnownGood;
+                this.upstreamMetrics = upstreamMetrics;
+                this.blockingIoScheduler = blockingIoScheduler;
+                circuitBreaker.registerProbe(() -> primary.probe("/currencies.json"));
+                if (mirror != null) {
+                        log.info("Upstream hedging to mirror {} is {}", properties.getMirrorBaseUrl(),
+                                        hedge.isEnabled() ? "enabled" : "disabled");
+                }
+        }
+
+        /*
+         * Cache'li metodlar sync modda çalışır: aynı anahtar için cache'i kaçıran tüm
+         * istekler Caffeine'in tek bir yüklemesini paylaşır. fetch* metodları cache'siz
+         * upstream çağrılarıdır ve CacheConfig'teki refresh-ahead yükleyicileri tarafından
+         * da kullanılır.
+         */
+        @Cacheable(cacheNames = "currencies", sync = true)
+        public Mono<CurrencyCatalog> getAllCurrencies() {
+                return fetchAllCurrencies();
+        }
+
+        public Mono<CurrencyCatalog> fetchAllCurrencies() {
+                log.info("Fetching all currencies from external API");
+                return fetch("currencies", null, "/currencies.json", CurrencyCatalog.class)
+                                .transform(circuitBreaker::protect)
+                                .doOnSuccess(result -> log.info("Successfully fetched currencies"))
+                                .doOnError(error -> log.error("Error fetching currencies: {}", error.getMessage()))
+                                .transform(call -> withStaleFallback("currencies", call, CurrencyCatalog.class,
+                                                CurrencyCatalog::asStale));
+        }
+
+        @Cacheable(cacheNames = "rates", key = "#baseCurrency.toLowerCase()", sync = true)
+        public Mono<CurrencyRates> getCurrencyRates(String baseCurrency) {
+                return fetchCurrencyRates(baseCurrency);
+        }
+
+        public Mono<CurrencyRates> fetchCurrencyRates(String baseCurrency) {
+                return fetch("rates", null, "/currencies/{base}.json", CurrencyRates.class,
+                                baseCurrency.toLowerCase())
+                                .transform(circuitBreaker::protect)
+                                .doOnSuccess(result -> {
+                                        log.info("Fetched base: {}", result.getBase());
+                                        log.info("Date: {}", result.getDate());
+                                        log.info("Rates table size: {}", result.getRates().size());
+                                        if (log.isTraceEnabled()) {
+                                                result.getRates().forEach((k, v) -> log.trace("{} = {}", k, v));
+                                        }
+                                })
+                                .doOnError(error -> log.error("Error fetching rates for {}: {}", baseCurrency,
+                                                error.getMessage()))
+                                .transform(call -> withStaleFallback(ratesKey(baseCurrency), call, CurrencyRates.class,
+                                                CurrencyRates::asStale));
+        }
+
+        /*
+         * Yerel depo diske dokunduğu için okuma ve yazmalar blockingIoScheduler üzerinde
+         * yapılır; Tomcat ve Netty event loop thread'leri dosya I/O'su beklemez.
+         */
+        @Cacheable(cacheNames = "historical-rates", key = "#baseCurrency.toLowerCase() + ':' + #date", sync = true)
+        public Mono<CurrencyRates> getHistoricalRates(String baseCurrency, LocalDate date) {
+                return Mono.fromCallable(() -> historicalRateStore.find(baseCurrency, date).orElse(null))
+                                .subscribeOn(blockingIoScheduler)
+                                .doOnNext(result -> log.debug("Historical rates for {} on {} served from local store",
+                                                baseCurrency, date))
+                                .switchIfEmpty(Mono.defer(() -> fetchHistoricalRates(baseCurrency, date)));
+        }
+
+        /*
+         * Geçmiş günler yerel depoda kalıcı olduğu için son bilinen iyi kopyası depodur. Henüz
+         * depolanmayan güncel gün için yedek, aynı tarihli son güncel kur snapshot'ıdır.
+         */
+        private Mono<CurrencyRates> fetchHistoricalRates(String baseCurrency, LocalDate date) {
+                String dateStr = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+                log.info("Fetching historical rates for {} on {}", baseCurrency, dateStr);
+
+                return fetch("historical", dateStr, "/currencies/{base}.json", CurrencyRates.class,
+                                baseCurrency.toLowerCase())
+                                .transform(circuitBreaker::protect)
+                                .doOnNext(result -> blockingIoScheduler.schedule(
+                                                () -> historicalRateStore.append(baseCurrency, date, result)))
+                                .onErrorResume(error -> lastKnownGood.recall(ratesKey(baseCurrency), CurrencyRates.class)
+                                                .filter(rates -> date.equals(rates.getDate()))
+                                                .map(rates -> {
+                                                        log.warn("Serving stale snapshot for {} on {}: {}", baseCurrency,
+                                                                        dateStr, error.getMessage());
+                                                        return Mono.just(rates.asStale());
+                                                })
+                                                .orElseGet(() -> Mono.error(error)));
+        }
+
+        @Cacheable(cacheNames = "rates", key = "#baseCurrency.toLowerCase()", sync = true)
+        public Mono<CurrencyRates> getMinifiedRates(String baseCurrency) {
+                log.info("Fetching minified rates for base currency: {}", baseCurrency);
+                return fetch("minified", null, "/currencies/{base}.min.json", CurrencyRates.class,
+                                baseCurrency.toLowerCase())
+                                .transform(circuitBreaker::protect)
+                                .doOnSuccess(result -> log.info("Successfully fetched minified rates for {}",
+                                                baseCurrency))
+                                .doOnError(error -> log.error("Error fetching minified rates for {}: {}", baseCurrency,
+                                                error.getMessage()))
+                                .transform(call -> withStaleFallback(ratesKey(baseCurrency), call, CurrencyRates.class,
+                                                CurrencyRates::asStale));
+        }
+
+        /**
+         * Diskten yüklenen snapshot'ları son bilinen iyi kopya olarak kaydeder; upstream'e hiç
+         * ulaşılamazsa bu kopyalar stale olarak servis edilir.
+         */
+        public void seedLastKnownGood(CurrencyCatalog catalog) {
+                lastKnownGood.remember("currencies", catalog);
+        }
+
+        public void seedLastKnownGood(CurrencyRates rates) {
+                lastKnownGood.remember(ratesKey(rates.getBase()), rates);
+        }
+
+        /**
+         * Upstream çağrısı; yedek adres tanımlıysa hedge edilir. Birincil deneme uç noktanın son
+         * gecikmelerinin yüzdeliği (varsayılan p95) kadar sürede cevap vermezse aynı istek yedek
+         * adrese de gönderilir ve ilk gelen değer alınır, diğeri iptal edilir. Birincil deneme
+         * upstream hatasıyla (5xx, 429, zaman aşımı, bağlantı hatası) biterse yedek deneme
+         * gecikmeyi beklemeden hemen başlar; ikisi de başarısız olursa birincilin hatası döner.
+         * Birincil 4xx ile biterse istek hatalıdır, yedek beklenmeden (başlamışsa iptal edilerek)
+         * hata hemen döner.
+         */
+        private <T> Mono<T> fetch(String endpoint, String version, String path, Class<T> type,
+                        Object... uriVariables) {
+                LatencyTracker tracker = latencies.computeIfAbsent(endpoint, name -> new LatencyTracker(
+                                hedge.getPercentile(), hedge.getMinSamples(), hedge.getMinDelay(), hedge.getMaxDelay()));
+                Mono<T> primaryCall = Mono.defer(() -> {
+                        long started = System.nanoTime();
+                        return primary.get(version, path, type, uriVariables)
+                                        .doOnSuccess(result -> tracker.record(System.nanoTime() - started))
+                                        .doOnCancel(() -> tracker.record(System.nanoTime() - started));
+                }).transform(call -> upstreamMetrics.record(endpoint, primary.name(), call));
+
+                if (mirror == null || !hedge.isEnabled()) {
+                        return primaryCall;
+                }
+
+                return Mono.defer(() -> {
+                        Sinks.One<Throwable> primaryFailure = Sinks.one();
+                        Mono<T> primaryAttempt = primaryCall.doOnError(primaryFailure::tryEmitValue);
+                        Mono<Long> failover = primaryFailure.asMono()
+                                        .flatMap(error -> UpstreamCircuitBreaker.countsAsFailure(error)
+                                                        ? Mono.just(0L)
+                                                        : Mono.never());
+                        Mono<T> clientError = primaryFailure.asMono()
+                                        .flatMap(error -> UpstreamCircuitBreaker.countsAsFailure(error)
+                                                        ? Mono.<T>never()
+                                                        : Mono.<T>error(error));
+
+                        Mono<T> mirrorAttempt = Mono.firstWithSignal(
+                                        Mono.delay(tracker.hedgeDelay())
+                                                        .doOnNext(tick -> upstreamMetrics.hedged(endpoint)),
+                                        failover)
+                                        .then(mirror.get(version, path, type, uriVariables)
+                                                        .transform(call -> upstreamMetrics.record(endpoint,
+                                                                        mirror.name(), call)));
+                        Mono<T> firstValue = Mono.firstWithValue(primaryAttempt, mirrorAttempt)
+                                        .onErrorMap(NoSuchElementException.class, ExternalApiClient::primaryError);
+                        return Mono.firstWithSignal(firstValue, clientError);
+                });
+        }
+
+        /**
+         * firstWithValue tüm kaynaklar başarısız olunca hataları tek bir NoSuchElementException
+         * altında toplar; 404 gibi durumların doğru eşlenmesi için birincilin hatası çıkarılır.
+         */
+        private static Throwable primaryError(NoSuchElementException error) {
+                List<Throwable> errors = error.getCause() != null
+                                ? Exceptions.unwrapMultiple(error.getCause())
+                                : List.of(error.getSuppressed());
+                return errors.isEmpty() ? error : errors.get(0);
+        }
+
+        /**
+         * Başarılı cevapları son bilinen iyi kopya olarak saklar; upstream hata verdiğinde
+         * (devre açıkken dahil) varsa o kopyayı stale işaretleyerek döner.
+         */
+        private <T extends Snapshot> Mono<T> withStaleFallback(String key, Mono<T> call, Class<T> type,
+                        UnaryOperator<T> markStale) {
+                return call
+                                .doOnNext(result -> lastKnownGood.remember(key, result))
+                                .onErrorResume(error -> lastKnownGood.recall(key, type)
+                                                .map(snapshot -> {
+                                                        log.warn("Serving stale snapshot for {}: {}", key,
+                                                                        error.getMessage());
+                                                        return Mono.just(markStale.apply(snapshot));
+                                                })
+                                                .orElseGet(() -> Mono.error(error)));
+        }
+
+        private static String ratesKey(String baseCurrency) {
+                return "rates:" + baseCurrency.toLowerCase();
+        }
 }
\ No newline at end of file
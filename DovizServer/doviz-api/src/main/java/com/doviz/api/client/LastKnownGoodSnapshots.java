@@ -0,0 +1,30 @@
+package com.doviz.api.client;
+
+import com.doviz.api.model.Snapshot;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Her anahtar için upstream'den alınan son başarılı snapshot. Cache TTL'inden bağımsızdır;
+ * upstream erişilemezken yedek olarak kullanılır.
+ */
+@Component
+public class LastKnownGoodSnapshots {
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public void remember(String key, Snapshot snapshot) {
+        if (snapshot != null && !snapshot.isStale()) {
+            snapshots.put(key, snapshot);
+        }
+    }
+
+    public <T extends Snapshot> Optional<T> recall(String key, Class<T> type) {
+        Snapshot snapshot = snapshots.get(key);
+        return type.isInstance(snapshot) ? Optional.of(type.cast(snapshot)) : Optional.empty();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.doviz.api.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Bir uç noktanın son {@code WINDOW} gecikmesini halka tamponda tutar ve hedge gecikmesi
+ * için yüzdelik hesaplar.
+ *
+ * Yüzdelik her {@code RECOMPUTE_EVERY} örnekte bir yeniden sıralanarak hesaplanır; aradaki
+ * çağrılar son değeri okur. Hedge kazandığı için iptal edilen birincil denemeler de geçen
+ * süreyle kaydedilir, aksi halde yavaş denemeler pencereden düşer ve gecikme gitgide kısalır.
+ */
+final class LatencyTracker {
+
+    private static final int WINDOW = 256;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples = new long[WINDOW];
+    private final double percentile;
+    private final int minSamples;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+
+    private long count;
+    private volatile long delayNanos;
+
+    LatencyTracker(double percentile, int minSamples, Duration minDelay, Duration maxDelay) {
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, WINDOW);
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.delayNanos = maxDelayNanos;
+    }
+
+    synchronized void record(long nanos) {
+        samples[(int) (count % WINDOW)] = nanos;
+        count++;
+        if (count >= minSamples && count % RECOMPUTE_EVERY == 0) {
+            int size = (int) Math.min(count, WINDOW);
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            long value = sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+            delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+        }
+    }
+
+    Duration hedgeDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+}
\ No newline at end of file
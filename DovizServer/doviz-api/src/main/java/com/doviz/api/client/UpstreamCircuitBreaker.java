@@ -0,0 +1,128 @@
+package com.doviz.api.client;
+
+import com.doviz.api.exception.UpstreamUnavailableException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Upstream çağrıları için devre kesici.
+ *
+ * Art arda {@code failure-threshold} hata (5xx, 429, zaman aşımı, bağlantı hatası) devreyi
+ * açar. Diğer 4xx cevaplar isteğin kendisiyle ilgilidir (bilinmeyen baz, tarih); sayacı ne
+ * artırır ne de sıfırlar. Devre açıkken çağrılar upstream'e gitmeden
+ * {@link UpstreamUnavailableException} ile sonuçlanır. {@code open-duration} dolduktan sonra
+ * arka planda bir deneme isteği atılır; başarılı olursa devre kapanır, olmazsa tekrar açılır.
+ * Yarı açık durumda da istekler bekletilmez, sadece deneme isteği karar verir.
+ */
+@Slf4j
+@Component
+public class UpstreamCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Duration probeTimeout;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+    private volatile Supplier<Mono<?>> probe;
+
+    public UpstreamCircuitBreaker(@Value("${app.resilience.failure-threshold:5}") int failureThreshold,
+            @Value("${app.resilience.open-duration-ms:30000}") long openDurationMs,
+            @Value("${app.resilience.probe-timeout-ms:5000}") long probeTimeoutMs) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = Duration.ofMillis(openDurationMs);
+        this.probeTimeout = Duration.ofMillis(probeTimeoutMs);
+    }
+
+    public void registerProbe(Supplier<Mono<?>> probe) {
+        this.probe = probe;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public <T> Mono<T> protect(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (state.get() != State.CLOSED) {
+                return Mono.error(new UpstreamUnavailableException("External API is temporarily unavailable",
+                        retryAfterSeconds()));
+            }
+            return call
+                    .doOnSuccess(result -> consecutiveFailures.set(0))
+                    .doOnError(this::onError);
+        });
+    }
+
+    public long retryAfterSeconds() {
+        long remaining = openDuration.toMillis() - (System.currentTimeMillis() - openedAt);
+        return Math.max(1, remaining / 1000);
+    }
+
+    @Scheduled(fixedDelayString = "${app.resilience.probe-interval-ms:5000}")
+    public void probeIfDue() {
+        Supplier<Mono<?>> currentProbe = probe;
+        if (currentProbe == null || state.get() != State.OPEN
+                || System.currentTimeMillis() - openedAt < openDuration.toMillis()) {
+            return;
+        }
+        if (!state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            return;
+        }
+
+        log.info("Probing external API after circuit was open for {}", openDuration);
+        currentProbe.get()
+                .timeout(probeTimeout)
+                .subscribe(
+                        result -> {
+                        },
+                        error -> open("probe failed: " + error.getMessage()),
+                        this::close);
+    }
+
+    private void onError(Throwable error) {
+        if (!countsAsFailure(error)) {
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && state.get() == State.CLOSED) {
+            open(consecutiveFailures.get() + " consecutive failures, last: " + error.getMessage());
+        }
+    }
+
+    private void open(String reason) {
+        openedAt = System.currentTimeMillis();
+        state.set(State.OPEN);
+        log.warn("External API circuit opened: {}", reason);
+    }
+
+    private void close() {
+        consecutiveFailures.set(0);
+        state.set(State.CLOSED);
+        log.info("External API circuit closed, probe succeeded");
+    }
+
+    /**
+     * Upstream'in kendisinden kaynaklanan hata mı; değilse (4xx) aynı istek başka adreste de
+     * aynı cevabı alır.
+     */
+    static boolean countsAsFailure(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return true;
+    }
+}
\ No newline at end of file
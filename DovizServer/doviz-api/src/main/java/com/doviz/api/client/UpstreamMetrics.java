@@ -0,0 +1,113 @@
+package com.doviz.api.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Upstream çağrılarının süresini uç nokta ve durum koduna göre ölçer
+ * ({@code doviz.upstream.requests}) ve o anda uçuşta olan çağrı sayısını tutar
+ * ({@code doviz.upstream.inflight}).
+ */
+@Component
+public class UpstreamMetrics {
+
+    private final MeterRegistry registry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<LatencyListener> listeners = new CopyOnWriteArrayList<>();
+
+    public UpstreamMetrics(MeterRegistry registry, UpstreamCircuitBreaker circuitBreaker) {
+        this.registry = registry;
+        Gauge.builder("doviz.upstream.inflight", inFlight, AtomicInteger::get)
+                .description("Upstream calls currently in flight")
+                .register(registry);
+        Gauge.builder("doviz.upstream.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Upstream circuit breaker state (0=closed, 1=open, 2=half-open)")
+                .register(registry);
+    }
+
+    /**
+     * Başarıyla veya hatayla biten her upstream çağrısının süresi bildirilir. İptal edilen
+     * çağrılar (örn. hedge'de kaybeden deneme) sadece {@code status=cancelled} etiketiyle
+     * ölçülür; süreleri upstream'in cevap süresi olmadığı için dinleyicilere gitmez.
+     */
+    public void addLatencyListener(LatencyListener listener) {
+        listeners.add(listener);
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * {@code upstream}: çağrının gittiği host ("primary" veya "mirror").
+     */
+    public <T> Mono<T> record(String endpoint, String upstream, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            AtomicBoolean finished = new AtomicBoolean();
+            inFlight.incrementAndGet();
+
+            return call
+                    .doOnSuccess(result -> stop(sample, finished, endpoint, upstream, "200"))
+                    .doOnError(error -> stop(sample, finished, endpoint, upstream, statusOf(error)))
+                    .doOnCancel(() -> stop(sample, finished, endpoint, upstream, "cancelled"));
+        });
+    }
+
+    /**
+     * Birincil deneme gecikme eşiğini aştığı için yedek adrese ikinci deneme gönderildi.
+     */
+    public void hedged(String endpoint) {
+        registry.counter("doviz.upstream.hedges", "endpoint", endpoint).increment();
+    }
+
+    private void stop(Timer.Sample sample, AtomicBoolean finished, String endpoint, String upstream,
+            String status) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        inFlight.decrementAndGet();
+        long nanos = sample.stop(Timer.builder("doviz.upstream.requests")
+                .description("Upstream (currency-api CDN) call latency")
+                .tag("endpoint", endpoint)
+                .tag("upstream", upstream)
+                .tag("status", status)
+                .register(registry));
+        if (status.equals("cancelled")) {
+            return;
+        }
+        boolean failed = status.equals("timeout") || status.equals("io_error") || status.equals("429")
+                || status.startsWith("5");
+        listeners.forEach(listener -> listener.completed(endpoint, nanos, failed));
+    }
+
+    @FunctionalInterface
+    public interface LatencyListener {
+        /**
+         * @param failed zaman aşımı, bağlantı hatası, 429 veya 5xx
+         */
+        void completed(String endpoint, long nanos, boolean failed);
+    }
+
+    private static String statusOf(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return String.valueOf(response.getStatusCode().value());
+        }
+        if (error instanceof TimeoutException
+                || error.getCause() instanceof ReadTimeoutException) {
+            return "timeout";
+        }
+        return "io_error";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.doviz.api.client;
+
+import com.doviz.api.config.UpstreamProperties;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Tek bir upstream host'u (birincil CDN veya yedek) için yapılandırılmış WebClient.
+ *
+ * Adresler her çağrıda mutlak olarak kurulur; tarihli istekler için yeni bir WebClient
+ * üretilmez, sadece sürüm etiketi değiştirilir: jsDelivr adreslerinde {@code @latest} →
+ * {@code @yyyy-MM-dd}, Cloudflare Pages kopyasında {@code //latest.} → {@code //yyyy-MM-dd.}.
+ * HTTP/2 sadece TLS adreslerinde önerilir; yerel test sunucuları gibi düz HTTP adresleri
+ * HTTP/1.1 ile konuşulur.
+ */
+final class UpstreamTransport {
+
+    private static final String LATEST_TAG = "@latest";
+    private static final String LATEST_HOST = "//latest.";
+
+    private final String name;
+    private final String baseUrl;
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    private UpstreamTransport(String name, String baseUrl, WebClient webClient, Duration timeout) {
+        this.name = name;
+        this.baseUrl = baseUrl;
+        this.webClient = webClient;
+        this.timeout = timeout;
+    }
+
+    static UpstreamTransport create(String name, String baseUrl, ConnectionProvider connectionProvider,
+            UpstreamProperties properties) {
+        String normalized = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        boolean secure = normalized.regionMatches(true, 0, "https:", 0, 6);
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getTimeout())
+                .compress(true);
+        if (secure && properties.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+
+        WebClient webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        return new UpstreamTransport(name, normalized, webClient, properties.getTimeout());
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * {@code path} için mutlak adres; {@code version} null ise en güncel sürüm.
+     */
+    String uri(String version, String path) {
+        if (version == null) {
+            return baseUrl + path;
+        }
+        return baseUrl.replace(LATEST_TAG, "@" + version).replace(LATEST_HOST, "//" + version + ".") + path;
+    }
+
+    /**
+     * Tek deneme; bağlantı, cevap ve gövde okuma birlikte {@code timeout} ile sınırlıdır.
+     */
+    <T> Mono<T> get(String version, String path, Class<T> type, Object... uriVariables) {
+        return webClient.get()
+                .uri(uri(version, path), uriVariables)
+                .retrieve()
+                .bodyToMono(type)
+                .timeout(timeout);
+    }
+
+    /**
+     * Devre kesicinin sağlık yoklaması; gövde okunmaz.
+     */
+    Mono<Void> probe(String path) {
+        return webClient.get()
+                .uri(uri(null, path))
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(timeout)
+                .then();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.doviz.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * API önündeki kabul kontrolü: {@code app.admission.*}. Sınırı aşan istekler işlenmeden
+ * 429 ve {@code Retry-After} ile reddedilir.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * İstemciyi tanımlayan başlık (örn. proxy arkasında {@code X-Forwarded-For}); boşsa
+     * bağlantının uzak adresi kullanılır. Başlıkta birden fazla değer varsa ilki alınır.
+     */
+    private String clientHeader;
+
+    /** İstemci başına kova; hafif rotalar 1, ağır rotalar {@code heavyCost} jeton harcar */
+    private Rate client = new Rate(50, 100);
+
+    private int heavyCost = 5;
+
+    /** Takip edilen en fazla istemci; en uzun süredir görülmeyenler önce unutulur */
+    private long maxClients = 100_000;
+
+    /** Rota başına (tüm istemciler için ortak) kova: {@code app.admission.routes.<rota>.*} */
+    private Map<String, Rate> routes = new LinkedHashMap<>();
+
+    /** Cache'ten servis edilen rotalarda aynı anda işlenen en fazla istek */
+    private int cheapConcurrency = 256;
+
+    private Heavy heavy = new Heavy();
+
+    @Data
+    public static class Rate {
+
+        /** Saniyede eklenen jeton */
+        private double permitsPerSecond;
+
+        /** Kovanın kapasitesi; anlık patlamaya izin verilen miktar */
+        private int burst;
+
+        public Rate() {
+        }
+
+        public Rate(double permitsPerSecond, int burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+    }
+
+    /**
+     * Upstream'e inebilen rotaların eşzamanlılık sınırı upstream gecikmesine göre ayarlanır:
+     * gecikme {@code latencyTarget} altındaysa sınır yavaşça artar, üstüne çıkınca veya çağrı
+     * başarısız olunca {@code backoff} oranında düşer (AIMD).
+     */
+    @Data
+    public static class Heavy {
+
+        private int initialLimit = 16;
+
+        private int minLimit = 2;
+
+        private int maxLimit = 64;
+
+        private Duration latencyTarget = Duration.ofMillis(800);
+
+        private double backoff = 0.75;
+    }
+}
\ No newline at end of file
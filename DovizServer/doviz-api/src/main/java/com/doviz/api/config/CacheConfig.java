@@ -1,27 +1,171 @@
-package com.doviz.api.config;
-
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-import com.github.benmanes.caffeine.cache.Caffeine;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
-
-import java.util.concurrent.TimeUnit;
-
-@Configuration
-@EnableCaching
-public class CacheConfig {
-    @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("currencies", "rates", "historical-rates");
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(10, TimeUnit.MINUTES)
-                .maximumSize(1000));
-
-        cacheManager.setAsyncCacheMode(true);
-
-        return cacheManager;
-    }
+package com.doviz.api.config;
+
+import com.doviz.api.client.ExternalApiClient;
+import com.doviz.api.model.CurrencyCatalog;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.store.L2Cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CachePolicyProperties.class)
+public class CacheConfig {
+
+    @Value("${app.cache.refresh-ahead.enabled:true}")
+    private boolean refreshAheadEnabled;
+
+    @Value("${app.cache.refresh-ahead.after:8m}")
+    private Duration refreshAfter;
+
+    @Value("${app.resilience.stale-ttl:30s}")
+    private Duration staleTtl;
+
+    private final Clock clock = Clock.systemUTC();
+
+    /** L2'de tutulabilen cache'lerin değer tipleri */
+    private static final Map<String, Class<?>> L2_VALUE_TYPES = Map.of(
+            "currencies", CurrencyCatalog.class,
+            "rates", CurrencyRates.class,
+            "historical-rates", CurrencyRates.class);
+
+    @Bean
+    public CacheManager cacheManager(@Lazy ExternalApiClient externalApiClient, CachePolicyProperties cachePolicies,
+            ObjectProvider<L2Cache> l2Cache, ResponseFormats responseFormats, MeterRegistry meterRegistry,
+            Scheduler blockingIoScheduler) {
+        L2Cache l2 = l2Cache.getIfAvailable();
+        Map<String, L2Tier> tiers = l2 == null ? Map.of()
+                : buildTiers(l2, cachePolicies, responseFormats, meterRegistry, blockingIoScheduler);
+
+        // L2 açıksa listelenen cache'ler Caffeine'i L1 olarak kullanan iki seviyeli cache'lere sarılır
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, AsyncCache<Object, Object> cache) {
+                L2Tier tier = tiers.get(name);
+                return tier != null ? new TwoLevelCache(name, cache, tier, l2) : super.adaptCaffeineCache(name, cache);
+            }
+        };
+        cacheManager.setCaffeine(defaultSpec());
+        cacheManager.setAsyncCacheMode(true);
+
+        // "Latest" cache'leri erişilen girdileri süreleri dolmadan arka planda yeniler,
+        // yenileme sürerken eski değer servis edilmeye devam eder
+        cacheManager.registerCustomCache("currencies", buildCache("currencies", cachePolicies, tiers.get("currencies"),
+                key -> externalApiClient.fetchAllCurrencies().toFuture()));
+        cacheManager.registerCustomCache("rates", buildCache("rates", cachePolicies, tiers.get("rates"),
+                key -> externalApiClient.fetchCurrencyRates((String) key).toFuture()));
+        cacheManager.registerCustomCache("historical-rates", buildCache("historical-rates", cachePolicies, null, null));
+
+        return cacheManager;
+    }
+
+    private Map<String, L2Tier> buildTiers(L2Cache l2, CachePolicyProperties cachePolicies,
+            ResponseFormats responseFormats, MeterRegistry meterRegistry, Scheduler blockingIoScheduler) {
+        CachePolicyProperties.L2 settings = cachePolicies.getL2();
+        Map<String, L2Tier> tiers = new HashMap<>();
+        for (String name : settings.getCaches()) {
+            Class<?> type = L2_VALUE_TYPES.get(name);
+            if (type == null) {
+                throw new IllegalStateException("Cache '" + name + "' cannot be stored in L2");
+            }
+            tiers.put(name, new L2Tier(name, type, l2, responseFormats.mapper(ResponseFormats.Format.SMILE),
+                    new SnapshotExpiry(cachePolicies, cachePolicies.policyFor(name), staleTtl, clock), refreshAfter,
+                    settings.getNodeId(), blockingIoScheduler::schedule, meterRegistry, clock));
+        }
+        return tiers;
+    }
+
+    /**
+     * Politikaya göre cache: ağırlık sınırı varsa girdiler kur sayılarıyla tartılır, süre
+     * değerden {@link SnapshotExpiry} ile hesaplanır. {@code fetch} verilirse refresh-ahead açılır;
+     * {@code tier} verilirse yükleyici upstream'den önce L2'ye bakar.
+     */
+    private AsyncCache<Object, Object> buildCache(String name, CachePolicyProperties cachePolicies, L2Tier tier,
+            Function<Object, CompletableFuture<?>> fetch) {
+        CachePolicyProperties.Policy policy = cachePolicies.policyFor(name);
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (policy.getMaxWeight() > 0) {
+            builder.maximumWeight(policy.getMaxWeight()).weigher((key, value) -> rateCount(value));
+        } else {
+            builder.maximumSize(policy.getMaxSize());
+        }
+        // NONE politikasında da kurulur: taze değerler süresiz kalır, stale kopyalar staleTtl sonra düşer
+        builder.expireAfter(new SnapshotExpiry(cachePolicies, policy, staleTtl, clock));
+
+        if (fetch == null) {
+            return builder.buildAsync();
+        }
+        if (refreshAheadEnabled) {
+            builder.refreshAfterWrite(refreshAfter);
+        }
+        return builder.buildAsync(publishAwareLoader(cachePolicies, policy, tier, fetch));
+    }
+
+    /**
+     * Yenileme, upstream'in bir sonraki yayını gelmeden yapılırsa aynı snapshot'ı tekrar
+     * indirmekten başka bir şey yapmaz; bu durumda eski değer aynen geri verilir.
+     */
+    private AsyncCacheLoader<Object, Object> publishAwareLoader(CachePolicyProperties cachePolicies,
+            CachePolicyProperties.Policy policy, L2Tier tier, Function<Object, CompletableFuture<?>> fetch) {
+        return new AsyncCacheLoader<>() {
+            @Override
+            public CompletableFuture<?> asyncLoad(Object key, Executor executor) {
+                return tier != null ? tier.load(key, () -> fetch.apply(key)) : fetch.apply(key);
+            }
+
+            @Override
+            public CompletableFuture<?> asyncReload(Object key, Object oldValue, Executor executor) {
+                if (policy.getExpiry() == CachePolicyProperties.ExpiryMode.PUBLISH
+                        && oldValue instanceof CurrencyRates rates
+                        && !rates.isStale()
+                        && rates.getDate() != null
+                        && clock.instant().isBefore(SnapshotExpiry.nextPublish(cachePolicies, rates.getDate()))) {
+                    return CompletableFuture.completedFuture(oldValue);
+                }
+                return tier != null ? tier.reload(key, oldValue, () -> fetch.apply(key)) : fetch.apply(key);
+            }
+        };
+    }
+
+    private static int rateCount(Object value) {
+        if (value instanceof CurrencyRates rates && rates.getRates() != null) {
+            return Math.max(1, rates.getRates().size());
+        }
+        if (value instanceof CurrencyCatalog catalog) {
+            return Math.max(1, catalog.size());
+        }
+        return 1;
+    }
+
+    private static Caffeine<Object, Object> defaultSpec() {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .maximumSize(1000)
+                .recordStats();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.doviz.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cache başına politika: {@code app.cache.policies.<cache-adı>.*}. Tanımlanmamış cache'ler
+ * varsayılan politikayı (sabit 10 dakika, 1000 girdi) kullanır.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CachePolicyProperties {
+
+    /**
+     * Upstream'in yeni günün kurlarını yayınladığı saat; snapshot tarihinin ertesi günü bu
+     * saatte "latest" girdileri geçersiz sayılır.
+     */
+    private LocalTime publishTime = LocalTime.of(0, 15);
+
+    private ZoneId publishZone = ZoneOffset.UTC;
+
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    private L2 l2 = new L2();
+
+    public Policy policyFor(String cacheName) {
+        return policies.getOrDefault(cacheName, new Policy());
+    }
+
+    public enum ExpiryMode {
+        /** Yazmadan {@code ttl} sonra */
+        FIXED,
+        /** Snapshot tarihinden hesaplanan bir sonraki yayın anında */
+        PUBLISH,
+        /** Taze değerler zamanla hiç, sadece boyut sınırıyla çıkarılır; stale kopyalar yine kısa süre tutulur */
+        NONE
+    }
+
+    public enum L2Type {
+        /** Sadece süreç içi Caffeine */
+        NONE,
+        /** Aynı JVM'deki düğümlerin paylaştığı bellek; testler için */
+        IN_PROCESS,
+        /** Düğümlerin ortak eriştiği bir dizin */
+        FILE
+    }
+
+    /**
+     * Düğümler arasında paylaşılan ikinci seviye: {@code app.cache.l2.*}.
+     */
+    @Data
+    public static class L2 {
+
+        private L2Type type = L2Type.NONE;
+
+        /** L2'ye yazılan ve L2'den okunan cache'ler */
+        private List<String> caches = List.of("currencies", "rates", "historical-rates");
+
+        /** FILE tipinde paylaşılan dizin */
+        private Path path = Path.of("./data/l2-cache");
+
+        /** FILE tipinde diğer düğümlerin yazmalarının ne sıklıkla kontrol edileceği */
+        private Duration pollInterval = Duration.ofSeconds(2);
+
+        /** Kendi yazmalarını ayırt etmek için düğüm kimliği; verilmezse her açılışta rastgele */
+        private String nodeId = UUID.randomUUID().toString();
+    }
+
+    @Data
+    public static class Policy {
+
+        private ExpiryMode expiry = ExpiryMode.FIXED;
+
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /**
+         * PUBLISH modunda süre bu aralığa sıkıştırılır; yayın anı geçmiş ama upstream henüz
+         * yeni günü vermemişse {@code minTtl} sonra tekrar denenir.
+         */
+        private Duration minTtl = Duration.ofMinutes(5);
+
+        private Duration maxTtl = Duration.ofHours(24);
+
+        /**
+         * Kur sayısı cinsinden toplam ağırlık sınırı; 0 ise {@code maxSize} girdi sınırı uygulanır.
+         */
+        private long maxWeight;
+
+        private long maxSize = 1000;
+    }
+}
\ No newline at end of file
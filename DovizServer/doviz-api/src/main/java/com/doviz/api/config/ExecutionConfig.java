@@ -0,0 +1,31 @@
+package com.doviz.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Çalışma modu {@code spring.threads.virtual.enabled} ile seçilir. Açıkken Tomcat istekleri
+ * sanal thread'lerde karşılar ve bloklayan işler (yerel depo I/O'su) her biri kendi sanal
+ * thread'inde çalışır; kapalıyken bu işler sınırlı bir elastic havuzda yürür. Her iki modda
+ * da upstream çağrıları Netty event loop'unda bloklamadan beklenir.
+ */
+@Slf4j
+@Configuration
+public class ExecutionConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingIoScheduler(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            log.info("Blocking I/O runs on virtual threads");
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "doviz-io");
+        }
+        return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "doviz-io");
+    }
+}
\ No newline at end of file
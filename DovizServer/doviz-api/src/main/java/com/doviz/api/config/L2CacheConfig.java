@@ -0,0 +1,36 @@
+package com.doviz.api.config;
+
+import com.doviz.api.store.FileL2Cache;
+import com.doviz.api.store.InProcessL2Cache;
+import com.doviz.api.store.L2Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@code app.cache.l2.type} ile seçilen L2 uygulaması. Seçim bağlanmış
+ * {@link CachePolicyProperties.L2Type} üzerinden yapılır; {@code in-process} ve {@code IN_PROCESS}
+ * gibi yazımlar aynı sonucu verir. {@code none} (varsayılan) iken bean {@code null}'dır ve
+ * cache'ler sadece Caffeine ile çalışır.
+ */
+@Slf4j
+@Configuration
+public class L2CacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public L2Cache l2Cache(CachePolicyProperties cachePolicies) {
+        CachePolicyProperties.L2 l2 = cachePolicies.getL2();
+        return switch (l2.getType()) {
+            case NONE -> null;
+            case IN_PROCESS -> {
+                log.info("Shared L2 cache: in-process");
+                yield InProcessL2Cache.joinShared();
+            }
+            case FILE -> {
+                log.info("Shared L2 cache: {} (poll every {})", l2.getPath().toAbsolutePath(),
+                        l2.getPollInterval());
+                yield new FileL2Cache(l2.getPath(), l2.getPollInterval());
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,211 @@
+package com.doviz.api.config;
+
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.Snapshot;
+import com.doviz.api.store.L2Cache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Bir cache'in L2 tarafı: L1'i kaçıran yüklemeler önce L2'ye bakar, upstream'den gelen
+ * değerler L2'ye yazılır (write-through). L2 hataları yüklemeyi bozmaz; loglanır ve upstream
+ * ile devam edilir.
+ *
+ * Sürüm damgası tarihli kurlar için üst 32 bitte snapshot gününün epoch günü, alt 32 bitte
+ * yazma anının epoch saniyesidir; böylece upstream'in aynı gün için düzelttiği bir snapshot da
+ * eskisinin yerine geçer. L2'de aynı günün birebir aynı içeriği duruyorsa yazılmaz, yani aynı
+ * gün için gelen bildirim içeriğin değiştiği anlamına gelir. Tarihi olmayan değerler (katalog)
+ * için damga yazma anıdır. Stale değerler L2'ye hiç yazılmaz.
+ */
+@Slf4j
+final class L2Tier {
+
+    private final String cacheName;
+    private final Class<?> type;
+    private final L2Cache l2;
+    private final ObjectMapper mapper;
+    private final SnapshotExpiry expiry;
+    private final Duration refreshAfter;
+    private final String nodeId;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    L2Tier(String cacheName, Class<?> type, L2Cache l2, ObjectMapper mapper, SnapshotExpiry expiry,
+            Duration refreshAfter, String nodeId, Executor executor, MeterRegistry meterRegistry, Clock clock) {
+        this.cacheName = cacheName;
+        this.type = type;
+        this.l2 = l2;
+        this.mapper = mapper;
+        this.expiry = expiry;
+        this.refreshAfter = refreshAfter;
+        this.nodeId = nodeId;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * L2'de geçerli bir girdi varsa onu, yoksa upstream'in değerini (L2'ye yazıldıktan sonra) verir.
+     */
+    CompletableFuture<Object> load(Object key, Supplier<? extends CompletableFuture<?>> upstream) {
+        return CompletableFuture.supplyAsync(() -> read(key), executor)
+                .thenCompose(cached -> cached != null
+                        ? CompletableFuture.completedFuture(cached)
+                        : upstream.get().thenApplyAsync(value -> write(key, value), executor));
+    }
+
+    /**
+     * Refresh-ahead: başka bir düğüm bu değerden daha yeni bir sürüm yazmışsa upstream'e
+     * gidilmez. Tarihsiz değerlerde yenileme L1 girdisi {@code refreshAfter} yaşına gelince
+     * tetiklendiği için bu pencere içinde yazılmış her girdi eldekinden yenidir.
+     */
+    CompletableFuture<Object> reload(Object key, Object oldValue, Supplier<? extends CompletableFuture<?>> upstream) {
+        return CompletableFuture.supplyAsync(() -> {
+                    L2Cache.Entry entry = entry(key);
+                    return entry != null && isNewer(entry.version(), oldValue) ? decode(entry) : null;
+                }, executor)
+                .thenCompose(cached -> cached != null
+                        ? CompletableFuture.completedFuture(cached)
+                        : upstream.get().thenApplyAsync(value -> write(key, value), executor));
+    }
+
+    /**
+     * Senkron yükleme yolu; çağıran zaten bloklayabilir bir thread'dedir.
+     */
+    Object load(Object key, Callable<?> upstream) throws Exception {
+        Object cached = read(key);
+        return cached != null ? cached : write(key, upstream.call());
+    }
+
+    /**
+     * L1'de {@code value} duran bir girdi için başka düğümden gelen {@code version} bildirimi
+     * girdiyi geçersiz kılıyor mu.
+     */
+    boolean isOutdated(Object value, long version) {
+        if (value == null || (value instanceof Snapshot snapshot && snapshot.isStale())) {
+            return true;
+        }
+        // Aynı içerik yeniden yazılmadığı için aynı güne ait bildirim düzeltilmiş snapshot'tır
+        if (value instanceof CurrencyRates rates) {
+            return rates.getDate() == null || (version >>> 32) >= rates.getDate().toEpochDay();
+        }
+        return isNewer(version, value);
+    }
+
+    Object read(Object key) {
+        L2Cache.Entry entry = entry(key);
+        if (entry == null) {
+            count("miss");
+            return null;
+        }
+        Object value = decode(entry);
+        count(value != null ? "hit" : "miss");
+        return value;
+    }
+
+    /**
+     * Değeri L2'ye yazar. L2'de zaten daha yeni bir sürüm varsa (başka bir düğüm araya
+     * girmişse) o sürüm döner ki bu düğümün L1'i de onu tutsun.
+     */
+    Object write(Object key, Object value) {
+        if (value == null || (value instanceof Snapshot snapshot && snapshot.isStale())) {
+            return value;
+        }
+        try {
+            byte[] payload = mapper.writeValueAsBytes(value);
+            long version = version(value);
+            L2Cache.Entry current = value instanceof CurrencyRates ? entry(key) : null;
+            if (current != null && current.version() >>> 32 == version >>> 32
+                    && Arrays.equals(current.payload(), payload)) {
+                return value;
+            }
+            L2Cache.Entry entry = new L2Cache.Entry(version, expiresAt(key, value), nodeId, payload);
+            L2Cache.Entry stored = l2.putIfNewer(cacheName, String.valueOf(key), entry);
+            if (stored == entry) {
+                count("write");
+                return value;
+            }
+            if (stored.version() > entry.version()) {
+                Object newer = decode(stored);
+                if (newer != null) {
+                    count("newer");
+                    return newer;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("L2 write failed for {}/{}: {}", cacheName, key, e.getMessage());
+        }
+        return value;
+    }
+
+    void writeAsync(Object key, Object value) {
+        CompletableFuture.runAsync(() -> write(key, value), executor);
+    }
+
+    void evict(Object key) {
+        l2.evict(cacheName, String.valueOf(key));
+    }
+
+    void clear() {
+        l2.clear(cacheName);
+    }
+
+    private L2Cache.Entry entry(Object key) {
+        try {
+            return l2.get(cacheName, String.valueOf(key))
+                    .filter(entry -> !entry.isExpired(clock.millis()))
+                    .orElse(null);
+        } catch (RuntimeException e) {
+            log.warn("L2 read failed for {}/{}: {}", cacheName, key, e.getMessage());
+            return null;
+        }
+    }
+
+    private Object decode(L2Cache.Entry entry) {
+        try {
+            return mapper.readValue(entry.payload(), type);
+        } catch (IOException e) {
+            log.warn("Unreadable L2 entry in {}: {}", cacheName, e.getMessage());
+            return null;
+        }
+    }
+
+    private long version(Object value) {
+        if (value instanceof CurrencyRates rates) {
+            long day = rates.getDate() != null ? Math.max(0, rates.getDate().toEpochDay()) : 0;
+            return day << 32 | (clock.millis() / 1000 & 0xFFFF_FFFFL);
+        }
+        return clock.millis();
+    }
+
+    private boolean isNewer(long version, Object value) {
+        if (value instanceof CurrencyRates rates) {
+            return rates.getDate() == null || (version >>> 32) > rates.getDate().toEpochDay();
+        }
+        return version > clock.millis() - refreshAfter.toMillis();
+    }
+
+    private long expiresAt(Object key, Object value) {
+        long nanos = expiry.expireAfterCreate(key, value, 0);
+        return nanos == Long.MAX_VALUE ? Long.MAX_VALUE : clock.millis() + Duration.ofNanos(nanos).toMillis();
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("doviz.cache.l2", "cache", cacheName, "result", result).increment();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.doviz.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * API'nin sunduğu gövde biçimleri. İkili biçimler JSON ile aynı veri modelini (aynı alan
+ * adları ve tipler) taşır; mapper'lar uygulamanın JSON mapper'ından kopyalandığı için
+ * modüller ve özel serializer'lar ortaktır. Varsayılan biçim JSON'dur.
+ *
+ * Mapper'lar bean olarak yayınlanmaz; aksi hâlde Spring Boot'un JSON ObjectMapper'ı
+ * oluşturulmazdı.
+ */
+@Component
+public class ResponseFormats {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        CBOR(MediaType.APPLICATION_CBOR),
+        SMILE(APPLICATION_SMILE);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+    }
+
+    private final Map<Format, ObjectMapper> mappers = new EnumMap<>(Format.class);
+
+    public ResponseFormats(ObjectMapper objectMapper) {
+        mappers.put(Format.JSON, objectMapper);
+        mappers.put(Format.CBOR, objectMapper.copyWith(new CBORFactory()));
+        mappers.put(Format.SMILE, objectMapper.copyWith(new SmileFactory()));
+    }
+
+    public ObjectMapper mapper(Format format) {
+        return mappers.get(format);
+    }
+
+    /**
+     * Accept başlığında en yüksek kaliteli ve desteklenen ilk biçim; aynı kalitede olanlardan
+     * en belirgini seçilir (örn. {@code application/cbor} joker karakterli türlerden önce gelir).
+     * Sadece joker karakter içeren ve çözülemeyen başlıklar JSON'a düşer.
+     */
+    public static Format negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Format.JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+            accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+            MimeTypeUtils.sortBySpecificity(accepted);
+        } catch (InvalidMediaTypeException | InvalidMimeTypeException e) {
+            return Format.JSON;
+        }
+
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (Format format : Format.values()) {
+                if (mediaType.includes(format.mediaType())) {
+                    return format;
+                }
+            }
+        }
+        return Format.JSON;
+    }
+}
\ No newline at end of file
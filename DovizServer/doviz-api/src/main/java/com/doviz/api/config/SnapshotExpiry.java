@@ -0,0 +1,73 @@
+package com.doviz.api.config;
+
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.Snapshot;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Girdi süresini değerin kendisinden hesaplar: stale kopyalar kısa süre tutulur, PUBLISH
+ * politikasındaki kurlar upstream'in bir sonraki yayınına kadar geçerlidir.
+ */
+final class SnapshotExpiry implements Expiry<Object, Object> {
+
+    private final CachePolicyProperties properties;
+    private final CachePolicyProperties.Policy policy;
+    private final Duration staleTtl;
+    private final Clock clock;
+
+    SnapshotExpiry(CachePolicyProperties properties, CachePolicyProperties.Policy policy, Duration staleTtl,
+            Clock clock) {
+        this.properties = properties;
+        this.policy = policy;
+        this.staleTtl = staleTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * Snapshot tarihinden sonraki ilk yayın anı.
+     */
+    static Instant nextPublish(CachePolicyProperties properties, LocalDate snapshotDate) {
+        return snapshotDate.plusDays(1)
+                .atTime(properties.getPublishTime())
+                .atZone(properties.getPublishZone())
+                .toInstant();
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        if (value instanceof Snapshot snapshot && snapshot.isStale()) {
+            return staleTtl.toNanos();
+        }
+        return switch (policy.getExpiry()) {
+            case NONE -> Long.MAX_VALUE;
+            case FIXED -> policy.getTtl().toNanos();
+            case PUBLISH -> untilNextPublish(value).toNanos();
+        };
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    private Duration untilNextPublish(Object value) {
+        if (!(value instanceof CurrencyRates rates) || rates.getDate() == null) {
+            return policy.getTtl();
+        }
+        Duration remaining = Duration.between(clock.instant(), nextPublish(properties, rates.getDate()));
+        if (remaining.compareTo(policy.getMinTtl()) < 0) {
+            return policy.getMinTtl();
+        }
+        return remaining.compareTo(policy.getMaxTtl()) > 0 ? policy.getMaxTtl() : remaining;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.doviz.api.config;
+
+import com.doviz.api.store.L2Cache;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Caffeine L1 ve paylaşılan L2'den oluşan cache. Okumalar L1'den yapılır; L1'i kaçıran
+ * yüklemeler {@link L2Tier} üzerinden önce L2'ye, sonra upstream'e gider ve sonuç her iki
+ * seviyeye yazılır. Başka bir düğüm bir anahtara daha yeni sürüm yazdığında bu düğümdeki
+ * L1 girdisi düşürülür (near-cache invalidation); bir sonraki okuma yeni sürümü L2'den alır.
+ *
+ * L1'in aynı anahtar için eşzamanlı yüklemeleri birleştirmesi düğüm içindedir; farklı
+ * düğümler aynı anda kaçırırsa her biri upstream'e gidebilir, L2'de yeni olan kazanır.
+ */
+final class TwoLevelCache implements Cache {
+
+    private static final String EMPTY_KEY = String.valueOf(SimpleKey.EMPTY);
+
+    private final CaffeineCache l1;
+    private final AsyncCache<Object, Object> asyncCache;
+    private final L2Tier tier;
+
+    TwoLevelCache(String name, AsyncCache<Object, Object> asyncCache, L2Tier tier, L2Cache l2) {
+        this.l1 = new CaffeineCache(name, asyncCache, false);
+        this.asyncCache = asyncCache;
+        this.tier = tier;
+        l2.subscribe(this::onRemoteWrite);
+    }
+
+    @Override
+    public String getName() {
+        return l1.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l1.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return l1.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return l1.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return l1.get(key, () -> (T) tier.load(key, valueLoader));
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return l1.retrieve(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return l1.retrieve(key, () -> (CompletableFuture<T>) tier.load(key, valueLoader));
+    }
+
+    /**
+     * L1'e hemen, L2'ye arka planda yazar.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        l1.put(key, value);
+        tier.writeAsync(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        l1.evict(key);
+        tier.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        l1.clear();
+        tier.clear();
+    }
+
+    /**
+     * Sadece tamamlanmış ve bildirilen sürümden eski kalan L1 girdisi düşürülür; süren bir
+     * yükleme zaten L2'yi okuyacağı için ona dokunulmaz.
+     */
+    private void onRemoteWrite(String cache, String key, long version, String origin) {
+        if (!getName().equals(cache) || tier.nodeId().equals(origin)) {
+            return;
+        }
+        Object typedKey = l1Key(key);
+        CompletableFuture<Object> current = asyncCache.getIfPresent(typedKey);
+        if (current != null && current.isDone()
+                && (current.isCompletedExceptionally() || tier.isOutdated(current.join(), version))) {
+            asyncCache.synchronous().invalidate(typedKey);
+        }
+    }
+
+    /**
+     * L2 anahtarı L1 anahtarının {@code String.valueOf} hâlidir. Cache anahtarları ya SpEL ile
+     * üretilmiş string'lerdir ya da parametresiz metodlar için {@link SimpleKey#EMPTY}.
+     */
+    private static Object l1Key(String key) {
+        return EMPTY_KEY.equals(key) ? SimpleKey.EMPTY : key;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.doviz.api.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Upstream çağrılarının paylaştığı bağlantı havuzu. Reactor Netty havuzu uzak adres başına
+ * ayrı tutar; birincil ve yedek host'lar aynı sağlayıcıyı kullanırken birbirinin
+ * bağlantılarını tüketmez.
+ */
+@Configuration
+@EnableConfigurationProperties(UpstreamProperties.class)
+public class UpstreamHttpConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(UpstreamProperties properties) {
+        UpstreamProperties.Pool pool = properties.getPool();
+        return ConnectionProvider.builder("doviz-upstream")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(true)
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.doviz.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Upstream (currency-api CDN) taşıma ayarları: {@code app.external-api.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.external-api")
+public class UpstreamProperties {
+
+    private String baseUrl;
+
+    /**
+     * Aynı dosya düzenini sunan yedek adres (örn. Cloudflare Pages kopyası); boşsa hedge
+     * yapılmaz.
+     */
+    private String mirrorBaseUrl;
+
+    /**
+     * Tek bir denemenin toplam süresi; hem cevap bekleme hem gövde okuma bu süreyle sınırlıdır.
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    private Duration connectTimeout = Duration.ofSeconds(3);
+
+    /**
+     * TLS üzerinde ALPN ile HTTP/2 önerilir, sunucu desteklemiyorsa HTTP/1.1'e düşülür.
+     */
+    private boolean http2 = true;
+
+    private Pool pool = new Pool();
+
+    private Hedge hedge = new Hedge();
+
+    @Data
+    public static class Pool {
+
+        /** Host başına en fazla bağlantı */
+        private int maxConnections = 64;
+
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        private Duration evictInBackground = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Hedge {
+
+        private boolean enabled = true;
+
+        /**
+         * İkinci deneme, uç noktanın son gecikmelerinin bu yüzdeliği kadar beklendikten sonra
+         * yedek adrese gönderilir.
+         */
+        private double percentile = 0.95;
+
+        /** Yüzdelik bu kadar örnek birikmeden güvenilmez; o zamana kadar {@code maxDelay} kullanılır. */
+        private int minSamples = 20;
+
+        private Duration minDelay = Duration.ofMillis(50);
+
+        private Duration maxDelay = Duration.ofSeconds(2);
+    }
+}
\ No newline at end of file
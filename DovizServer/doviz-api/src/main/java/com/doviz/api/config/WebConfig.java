@@ -0,0 +1,33 @@
+package com.doviz.api.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * CBOR ve Smile converter'larını uygulamanın mapper ayarlarıyla kaydeder. JSON listede önde
+ * kaldığı için Accept belirtmeyen istemciler JSON almaya devam eder.
+ */
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ResponseFormats responseFormats;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                responseFormats.mapper(ResponseFormats.Format.CBOR)));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                responseFormats.mapper(ResponseFormats.Format.SMILE)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,263 @@
+package com.doviz.api.controller;
+
+import com.doviz.api.client.UpstreamMetrics;
+import com.doviz.api.config.AdmissionProperties;
+import com.doviz.api.model.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * {@code /v1} isteklerini controller'a ulaşmadan önce kabul eder veya 429 ile reddeder.
+ * Sırasıyla:
+ *
+ * <ol>
+ * <li>İstemci başına jeton kovası; ağır rotalar daha fazla jeton harcar.</li>
+ * <li>Rota başına, tüm istemcilerin paylaştığı jeton kovası (tanımlıysa).</li>
+ * <li>Eşzamanlılık: cache'ten servis edilen rotalar ile upstream'e inebilen ağır rotalar ayrı
+ * sınırlara sahiptir; ağır rotaların sınırı upstream gecikmesine göre {@link AimdLimit} ile
+ * ayarlanır. Böylece yavaşlayan upstream sadece ağır rotaları kısar, hafif okumaların
+ * kapasitesi korunur.</li>
+ * </ol>
+ *
+ * Controller'lar asenkron çalıştığı için eşzamanlılık hakkı filtre dönünce değil, asenkron
+ * istek tamamlanınca bırakılır. SSE akışları uzun ömürlü olduğundan eşzamanlılık sınırına
+ * girmez; süreleri {@code app.stream.max-duration-ms} ile zaten sınırlıdır.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    enum Kind {
+        CHEAP, HEAVY, LONG_LIVED
+    }
+
+    enum Route {
+        RANGE("range", Kind.HEAVY, "/v1/rates/[^/]+/[^/]+/range"),
+        MULTI_RANGE("multi-range", Kind.HEAVY, "/v1/rates/[^/]+/range"),
+        ANALYTICS("analytics", Kind.HEAVY, "/v1/rates/[^/]+/[^/]+/analytics"),
+        HISTORICAL("historical", Kind.HEAVY, "/v1/rates/[^/]+/\\d{4}-\\d{2}-\\d{2}"),
+        BATCH("batch", Kind.HEAVY, "/v1/batch"),
+        CONVERT_STREAM("convert-stream", Kind.HEAVY, "/v1/convert/stream"),
+        STREAM("stream", Kind.LONG_LIVED, "/v1/stream/.+"),
+        DEFAULT("default", Kind.CHEAP, ".*");
+
+        private final String key;
+        private final Kind kind;
+        private final Pattern pattern;
+
+        Route(String key, Kind kind, String pattern) {
+            this.key = key;
+            this.kind = kind;
+            this.pattern = Pattern.compile(pattern);
+        }
+
+        static Route of(String path) {
+            for (Route route : values()) {
+                if (route.pattern.matcher(path).matches()) {
+                    return route;
+                }
+            }
+            return DEFAULT;
+        }
+    }
+
+    private static final long FALLBACK_RETRY_AFTER_SECONDS = 60;
+
+    private final AdmissionProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final Map<Route, TokenBucket> routeBuckets = new EnumMap<>(Route.class);
+    private final ConcurrencyLimit cheapLimit;
+    private final ConcurrencyLimit heavyLimit;
+
+    public AdmissionControlFilter(AdmissionProperties properties, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry, UpstreamMetrics upstreamMetrics) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+
+        long now = System.nanoTime();
+        for (Route route : Route.values()) {
+            AdmissionProperties.Rate rate = properties.getRoutes().get(route.key);
+            if (rate != null) {
+                routeBuckets.put(route, new TokenBucket(rate.getPermitsPerSecond(), rate.getBurst(), now));
+            }
+        }
+
+        this.cheapLimit = new ConcurrencyLimit(properties.getCheapConcurrency());
+        this.heavyLimit = new ConcurrencyLimit(properties.getHeavy().getInitialLimit());
+        AimdLimit aimd = new AimdLimit(heavyLimit, properties.getHeavy());
+        upstreamMetrics.addLatencyListener((endpoint, nanos, failed) ->
+                aimd.onSample(nanos, failed, System.nanoTime()));
+
+        registerGauges("cheap", cheapLimit);
+        registerGauges("heavy", heavyLimit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !path(request).startsWith("/v1/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Route route = Route.of(path(request));
+        long now = System.nanoTime();
+
+        int cost = route.kind == Kind.HEAVY ? properties.getHeavyCost() : 1;
+        AdmissionProperties.Rate clientRate = properties.getClient();
+        TokenBucket clientBucket = clientBuckets.get(clientId(request),
+                id -> new TokenBucket(clientRate.getPermitsPerSecond(), clientRate.getBurst(), now));
+        long wait = clientBucket.tryAcquire(cost, now);
+        if (wait > 0) {
+            reject(response, route, "client-rate", wait);
+            return;
+        }
+
+        TokenBucket routeBucket = routeBuckets.get(route);
+        if (routeBucket != null && (wait = routeBucket.tryAcquire(1, now)) > 0) {
+            clientBucket.refund(cost);
+            reject(response, route, "route-rate", wait);
+            return;
+        }
+
+        ConcurrencyLimit limit = switch (route.kind) {
+            case CHEAP -> cheapLimit;
+            case HEAVY -> heavyLimit;
+            case LONG_LIVED -> null;
+        };
+        if (limit != null && !limit.tryAcquire()) {
+            clientBucket.refund(cost);
+            if (routeBucket != null) {
+                routeBucket.refund(1);
+            }
+            reject(response, route, "concurrency", TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+
+        Release release = new Release(limit);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(release);
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response, Route route, String reason, long waitNanos)
+            throws IOException {
+        long retryAfter = waitNanos == Long.MAX_VALUE
+                ? FALLBACK_RETRY_AFTER_SECONDS
+                : Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+        meterRegistry.counter("doviz.admission.rejected", "route", route.key, "reason", reason).increment();
+        log.debug("Rejected {} request ({}), retry after {}s", route.key, reason, retryAfter);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Too many requests, please retry after " + retryAfter + " seconds"));
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String header = properties.getClientHeader();
+        if (header != null && !header.isBlank()) {
+            String value = request.getHeader(header);
+            if (value != null && !value.isBlank()) {
+                int comma = value.indexOf(',');
+                return (comma < 0 ? value : value.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void registerGauges(String kind, ConcurrencyLimit limit) {
+        Gauge.builder("doviz.admission.limit", limit, ConcurrencyLimit::limit)
+                .description("Concurrent requests admitted per route kind")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        Gauge.builder("doviz.admission.inflight", limit, ConcurrencyLimit::inFlight)
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Eşzamanlılık hakkını bir kez bırakır; asenkron isteklerde tamamlanma, zaman aşımı veya
+     * hatadan hangisi önce gelirse.
+     */
+    private static final class Release implements Runnable, AsyncListener {
+
+        private final ConcurrencyLimit limit;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Release(ConcurrencyLimit limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void run() {
+            if (limit != null && released.compareAndSet(false, true)) {
+                limit.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
\ No newline at end of file
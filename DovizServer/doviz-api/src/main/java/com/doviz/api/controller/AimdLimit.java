@@ -0,0 +1,46 @@
+package com.doviz.api.controller;
+
+import com.doviz.api.config.AdmissionProperties;
+
+/**
+ * Upstream gecikmesinden beslenen toplamsal artış / çarpımsal azalış. Hedefin altındaki her
+ * çağrı sınırı {@code 1/limit} kadar artırır (tam dolu bir pencere başına ~1); hedefi aşan ya
+ * da başarısız olan çağrı sınırı {@code backoff} ile çarpar. Aynı yavaşlığı gören eşzamanlı
+ * çağrılar sınırı art arda ezmesin diye bir hedef süresi içinde tek düşüş yapılır.
+ */
+final class AimdLimit {
+
+    private final ConcurrencyLimit target;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoff;
+
+    private double limit;
+    private long lastDecrease;
+
+    AimdLimit(ConcurrencyLimit target, AdmissionProperties.Heavy settings) {
+        this.target = target;
+        this.minLimit = Math.max(1, settings.getMinLimit());
+        this.maxLimit = Math.max(minLimit, settings.getMaxLimit());
+        this.latencyTargetNanos = settings.getLatencyTarget().toNanos();
+        this.backoff = settings.getBackoff();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, settings.getInitialLimit()));
+        this.lastDecrease = System.nanoTime() - latencyTargetNanos;
+        target.setLimit((int) limit);
+    }
+
+    synchronized void onSample(long nanos, boolean failed, long now) {
+        if (failed || nanos > latencyTargetNanos) {
+            if (now - lastDecrease < latencyTargetNanos) {
+                return;
+            }
+            lastDecrease = now;
+            limit = Math.max(minLimit, limit * backoff);
+        } else if (target.inFlight() * 2 >= target.limit()) {
+            // Sınır kullanılmıyorsa büyütmek sadece bir sonraki patlamada fazla kabul demektir
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        target.setLimit((int) limit);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.doviz.api.controller;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Aynı anda işlenen istek sayısı sınırı. Sınır çalışırken değiştirilebilir; düşürüldüğünde
+ * uçuştaki istekler kesilmez, yenileri sayı sınırın altına inene kadar reddedilir.
+ */
+final class ConcurrencyLimit {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    ConcurrencyLimit(int limit) {
+        this.limit = limit;
+    }
+
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
\ No newline at end of file
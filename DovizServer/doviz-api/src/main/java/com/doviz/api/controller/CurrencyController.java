@@ -1,160 +1,321 @@
-package com.doviz.api.controller;
-
-import com.doviz.api.model.*;
-import com.doviz.api.service.CurrencyService;
-
-import io.swagger.v3.oas.annotations.tags.Tag;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.*;
-import reactor.core.publisher.Mono;
-
-import java.time.LocalDate;
-import java.util.List;
-
-@Slf4j
-@RestController
-@RequestMapping("/v1")
-@RequiredArgsConstructor
-@CrossOrigin(origins = "*")
-@Tag(name = "Döviz API", description = "Döviz kuru operasyonları")
-public class CurrencyController {
-
-        private final CurrencyService currencyService;
-
-        /**
-         * Tüm para birimlerini getir
-         */
-        @GetMapping("/currencies")
-        public Mono<ResponseEntity<ApiResponse<Object>>> getAllCurrencies() {
-                log.info("GET /v1/currencies - Tüm para birimleri istendi");
-                return currencyService.getAllCurrencies()
-                                .map(response -> ResponseEntity.ok(response))
-                                .doOnSuccess(result -> log.info("Tüm para birimleri başdarıyla getirildi"))
-                                .doOnError(error -> log.error("Para birimleri getirilirken hata: {}",
-                                                error.getMessage()));
-        }
-
-        /**
-         * Baz para birimine göre tüm döviz kurlarını getir
-         */
-        @GetMapping("/rates/{base}")
-        public Mono<ResponseEntity<ApiResponse<CurrencyRates>>> getCurrencyRates(
-                        @PathVariable String base,
-                        @RequestParam(required = false) List<String> targets) {
-
-                log.info("GET /v1/rates/{} - {} bazlı kurlar istendi, targets: {}", base, base, targets);
-
-                if (targets != null && !targets.isEmpty()) {
-                        return currencyService.getCurrencyRatesWithTargets(base, targets)
-                                        .map(response -> ResponseEntity.ok(response));
-                }
-
-                return currencyService.getCurrencyRates(base)
-                                .map(response -> ResponseEntity.ok(response))
-                                .doOnSuccess(result -> log.info("{} bazlı kurlar başarıyla getirildi", base))
-                                .doOnError(error -> log.error("{} bazlı kurlar getirilirken hata: {}", base,
-                                                error.getMessage()));
-        }
-
-        /**
-         * Tek bir para birimi çifti için dönüşüm
-         */
-        @GetMapping("/rate")
-        public Mono<ResponseEntity<ApiResponse<ExchangeRate>>> getSingleRate(
-                        @RequestParam String from,
-                        @RequestParam String to) {
-
-                log.info("GET /v1/rate - {} → {} dönüşüm oranı istendi", from, to);
-
-                return currencyService.getSingleRate(from, to)
-                                .map(response -> ResponseEntity.ok(response))
-                                .doOnSuccess(result -> log.info("{} → {} dönüşüm oranı başarıyla getirildi", from, to))
-                                .doOnError(error -> log.error("{} → {} dönüşüm oranı getirilirken hata: {}", from, to,
-                                                error.getMessage()));
-        }
-
-        /**
-         * Tarih bazlı kurlar
-         */
-        @GetMapping("/rates/{base}/{date}")
-        public Mono<ResponseEntity<ApiResponse<CurrencyRates>>> getHistoricalRates(
-                        @PathVariable String base,
-                        @PathVariable @DateTimeFormat(pattern = "yyyy-MM-dd") String date) {
-
-                log.info("GET /v1/rates/{}/{} - {} bazlı {} tarihli kurlar istendi", base, date, base, date);
-
-                return currencyService.getHistoricalRates(base, date)
-                                .map(response -> ResponseEntity.ok(response))
-                                .doOnSuccess(result -> log.info("{} bazlı {} tarihli kurlar başarıyla getirildi", base,
-                                                date))
-                                .doOnError(error -> log.error("{} bazlı {} tarihli kurlar getirilirken hata: {}", base,
-                                                date,
-                                                error.getMessage()));
-        }
-
-        /**
-         * Tarih aralığı ve grafik desteği
-         */
-        @GetMapping("/rates/{base}/{target}/range")
-        public Mono<ResponseEntity<ApiResponse<List<ExchangeRate>>>> getRateRange(
-                        @PathVariable String base,
-                        @PathVariable String target,
-                        @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") String start,
-                        @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") String end) {
-
-                log.info("GET /v1/rates/{}/{}/range - {} → {} aralık: {} - {}", base, target, base, target, start, end);
-
-                return currencyService.getRateRange(base, target, start, end)
-                                .map(response -> ResponseEntity.ok(response))
-                                .doOnSuccess(result -> log.info("{} → {} aralık kurları başarıyla getirildi: {} - {}",
-                                                base, target,
-                                                start, end))
-                                .doOnError(error -> log.error("{} → {} aralık kurları getirilirken hata: {}", base,
-                                                target,
-                                                error.getMessage()));
-        }
-
-        /**
-         * Kripto bazlı kurlar
-         */
-        @GetMapping("/crypto/{base}")
-        public Mono<ResponseEntity<ApiResponse<CurrencyRates>>> getCryptoRates(
-                        @PathVariable String base,
-                        @RequestParam(required = false) List<String> targets) {
-
-                log.info("GET /v1/crypto/{} - {} kripto kurları istendi, targets: {}", base, base, targets);
-
-                return currencyService.getCryptoRates(base, targets)
-                                .map(response -> ResponseEntity.ok(response))
-                                .doOnSuccess(result -> log.info("{} kripto kurları başarıyla getirildi", base))
-                                .doOnError(error -> log.error("{} kripto kurları getirilirken hata: {}", base,
-                                                error.getMessage()));
-        }
-
-        /**
-         * Minified JSON versiyonu
-         */
-        @GetMapping("/rates/{base}/min")
-        public Mono<ResponseEntity<ApiResponse<CurrencyRates>>> getMinifiedRates(@PathVariable String base) {
-                log.info("GET /v1/rates/{}/min - {} bazlı minified kurlar istendi", base, base);
-
-                return currencyService.getMinifiedRates(base)
-                                .map(response -> ResponseEntity.ok(response))
-                                .doOnSuccess(result -> log.info("{} bazlı minified kurlar başarıyla getirildi", base))
-                                .doOnError(
-                                                error -> log.error("{} bazlı minified kurlar getirilirken hata: {}",
-                                                                base, error.getMessage()));
-        }
-
-        /**
-         * Health check endpoint
-         */
-        @GetMapping("/health")
-        public Mono<ResponseEntity<ApiResponse<String>>> healthCheck() {
-                log.info("GET /v1/health - Health check istendi");
-                return Mono.just(ResponseEntity.ok(ApiResponse.success("Doviz API is running!", "API is healthy")));
-        }
+package com.doviz.api.controller;
+
+import com.doviz.api.model.*;
+import com.doviz.api.service.BatchService;
+import com.doviz.api.service.BulkConversionService;
+import com.doviz.api.service.CurrencySearchService;
+import com.doviz.api.service.CurrencyService;
+import com.doviz.api.service.RateDeltaService;
+import com.doviz.api.service.RateStreamService;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/v1")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@Tag(name = "Döviz API", description = "Döviz kuru operasyonları")
+public class CurrencyController {
+
+        private final CurrencyService currencyService;
+        private final CurrencySearchService currencySearchService;
+        private final BatchService batchService;
+        private final BulkConversionService bulkConversionService;
+        private final RateStreamService rateStreamService;
+        private final RateDeltaService rateDeltaService;
+        private final EncodedResponseCache encodedResponseCache;
+
+        /**
+         * Tüm para birimlerini getir
+         */
+        @GetMapping("/currencies")
+        public Mono<ResponseEntity<byte[]>> getAllCurrencies(
+                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+                log.info("GET /v1/currencies - Tüm para birimleri istendi");
+                return currencyService.getAllCurrencies()
+                                .map(response -> encodedResponseCache.render("currencies", response.getData(), response,
+                                                ifNoneMatch, acceptEncoding, accept))
+                                .doOnSuccess(result -> log.info("Tüm para birimleri başdarıyla getirildi"))
+                                .doOnError(error -> log.error("Para birimleri getirilirken hata: {}",
+                                                error.getMessage()));
+        }
+
+        /**
+         * Kod veya isimle para birimi ara (önek, yazım hatası ve aksan toleranslı)
+         */
+        @GetMapping("/currencies/search")
+        public Mono<ResponseEntity<ApiResponse<List<CurrencyMatch>>>> searchCurrencies(
+                        @RequestParam String q,
+                        @RequestParam(defaultValue = "10") int limit) {
+                log.info("GET /v1/currencies/search - '{}' arandı", q);
+
+                return currencySearchService.search(q, limit)
+                                .map(response -> ResponseEntity.ok(response))
+                                .doOnError(error -> log.error("Para birimi aranırken hata: {}", error.getMessage()));
+        }
+
+        /**
+         * Baz para birimine göre tüm döviz kurlarını getir
+         */
+        @GetMapping("/rates/{base}")
+        public Mono<ResponseEntity<?>> getCurrencyRates(
+                        @PathVariable String base,
+                        @RequestParam(required = false) List<String> targets,
+                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+                log.info("GET /v1/rates/{} - {} bazlı kurlar istendi, targets: {}", base, base, targets);
+
+                if (targets != null && !targets.isEmpty()) {
+                        return currencyService.getCurrencyRatesWithTargets(base, targets)
+                                        .<ResponseEntity<?>>map(response -> ResponseEntity.ok(response));
+                }
+
+                return currencyService.getCurrencyRates(base)
+                                .<ResponseEntity<?>>map(response -> encodedResponseCache.render(
+                                                "rates:" + base.toLowerCase(), response.getData(), response,
+                                                ifNoneMatch, acceptEncoding, accept))
+                                .doOnSuccess(result -> log.info("{} bazlı kurlar başarıyla getirildi", base))
+                                .doOnError(error -> log.error("{} bazlı kurlar getirilirken hata: {}", base,
+                                                error.getMessage()));
+        }
+
+        /**
+         * Tek bir para birimi çifti için dönüşüm
+         */
+        @GetMapping("/rate")
+        public Mono<ResponseEntity<ApiResponse<ExchangeRate>>> getSingleRate(
+                        @RequestParam String from,
+                        @RequestParam String to) {
+
+                log.info("GET /v1/rate - {} → {} dönüşüm oranı istendi", from, to);
+
+                return currencyService.getSingleRate(from, to)
+                                .map(response -> ResponseEntity.ok(response))
+                                .doOnSuccess(result -> log.info("{} → {} dönüşüm oranı başarıyla getirildi", from, to))
+                                .doOnError(error -> log.error("{} → {} dönüşüm oranı getirilirken hata: {}", from, to,
+                                                error.getMessage()));
+        }
+
+        /**
+         * Tarih bazlı kurlar
+         */
+        @GetMapping("/rates/{base}/{date}")
+        public Mono<ResponseEntity<ApiResponse<CurrencyRates>>> getHistoricalRates(
+                        @PathVariable String base,
+                        @PathVariable @DateTimeFormat(pattern = "yyyy-MM-dd") String date) {
+
+                log.info("GET /v1/rates/{}/{} - {} bazlı {} tarihli kurlar istendi", base, date, base, date);
+
+                return currencyService.getHistoricalRates(base, date)
+                                .map(response -> ResponseEntity.ok(response))
+                                .doOnSuccess(result -> log.info("{} bazlı {} tarihli kurlar başarıyla getirildi", base,
+                                                date))
+                                .doOnError(error -> log.error("{} bazlı {} tarihli kurlar getirilirken hata: {}", base,
+                                                date,
+                                                error.getMessage()));
+        }
+
+        /**
+         * Tarih aralığı ve grafik desteği
+         */
+        @GetMapping("/rates/{base}/{target}/range")
+        public Mono<ResponseEntity<ApiResponse<List<ExchangeRate>>>> getRateRange(
+                        @PathVariable String base,
+                        @PathVariable String target,
+                        @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") String start,
+                        @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") String end) {
+
+                log.info("GET /v1/rates/{}/{}/range - {} → {} aralık: {} - {}", base, target, base, target, start, end);
+
+                return currencyService.getRateRange(base, target, start, end)
+                                .map(response -> ResponseEntity.ok(response))
+                                .doOnSuccess(result -> log.info("{} → {} aralık kurları başarıyla getirildi: {} - {}",
+                                                base, target,
+                                                start, end))
+                                .doOnError(error -> log.error("{} → {} aralık kurları getirilirken hata: {}", base,
+                                                target,
+                                                error.getMessage()));
+        }
+
+        /**
+         * Birden çok hedefin tarih aralığı; tek tarih dizisi ve hedef başına kur dizisi
+         */
+        @GetMapping("/rates/{base}/range")
+        public Mono<ResponseEntity<ApiResponse<RangeColumns>>> getRateColumns(
+                        @PathVariable String base,
+                        @RequestParam List<String> targets,
+                        @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") String start,
+                        @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") String end) {
+
+                log.info("GET /v1/rates/{}/range - {} bazlı {} hedef için aralık istendi: {} - {}", base, base,
+                                targets.size(), start, end);
+
+                return currencyService.getRateColumns(base, targets, start, end)
+                                .map(response -> ResponseEntity.ok(response))
+                                .doOnError(error -> log.error("{} bazlı çoklu aralık getirilirken hata: {}", base,
+                                                error.getMessage()));
+        }
+
+        /**
+         * Aralık analizi: istatistikler, OHLC kovaları ve seyreltilmiş grafik serisi
+         */
+        @GetMapping("/rates/{base}/{target}/analytics")
+        public Mono<ResponseEntity<ApiResponse<RangeAnalytics>>> getRangeAnalytics(
+                        @PathVariable String base,
+                        @PathVariable String target,
+                        @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") String start,
+                        @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") String end,
+                        @RequestParam(required = false) String interval,
+                        @RequestParam(defaultValue = "300") int points) {
+
+                log.info("GET /v1/rates/{}/{}/analytics - {} → {} aralık analizi: {} - {}", base, target, base, target,
+                                start, end);
+
+                return currencyService.getRangeAnalytics(base, target, start, end, interval, points)
+                                .map(response -> ResponseEntity.ok(response))
+                                .doOnError(error -> log.error("{} → {} aralık analizi yapılırken hata: {}", base,
+                                                target,
+                                                error.getMessage()));
+        }
+
+        /**
+         * Kripto bazlı kurlar
+         */
+        @GetMapping("/crypto/{base}")
+        public Mono<ResponseEntity<ApiResponse<CurrencyRates>>> getCryptoRates(
+                        @PathVariable String base,
+                        @RequestParam(required = false) List<String> targets) {
+
+                log.info("GET /v1/crypto/{} - {} kripto kurları istendi, targets: {}", base, base, targets);
+
+                return currencyService.getCryptoRates(base, targets)
+                                .map(response -> ResponseEntity.ok(response))
+                                .doOnSuccess(result -> log.info("{} kripto kurları başarıyla getirildi", base))
+                                .doOnError(error -> log.error("{} kripto kurları getirilirken hata: {}", base,
+                                                error.getMessage()));
+        }
+
+        /**
+         * Minified JSON versiyonu
+         */
+        @GetMapping("/rates/{base}/min")
+        public Mono<ResponseEntity<ApiResponse<CurrencyRates>>> getMinifiedRates(@PathVariable String base) {
+                log.info("GET /v1/rates/{}/min - {} bazlı minified kurlar istendi", base, base);
+
+                return currencyService.getMinifiedRates(base)
+                                .map(response -> ResponseEntity.ok(response))
+                                .doOnSuccess(result -> log.info("{} bazlı minified kurlar başarıyla getirildi", base))
+                                .doOnError(
+                                                error -> log.error("{} bazlı minified kurlar getirilirken hata: {}",
+                                                                base, error.getMessage()));
+        }
+
+        /**
+         * {@code since} sürümünden bu yana eklenen, değişen ve kaldırılan kurlar; sürüm
+         * verilmezse veya artık tutulmuyorsa tam snapshot ({@code full: true})
+         */
+        @GetMapping("/rates/{base}/delta")
+        public Mono<ResponseEntity<ApiResponse<RateDelta>>> getRateDelta(
+                        @PathVariable String base,
+                        @RequestParam(required = false) Long since,
+                        @RequestParam(required = false) List<String> targets) {
+
+                log.info("GET /v1/rates/{}/delta - {} bazlı kur farkı istendi, since: {}", base, base, since);
+
+                return rateDeltaService.delta(base, since, targets)
+                                .map(response -> ResponseEntity.ok(response))
+                                .doOnError(error -> log.error("{} bazlı kur farkı getirilirken hata: {}", base,
+                                                error.getMessage()));
+        }
+
+        /**
+         * Birden çok kur sorgusunu tek istekte çalıştır
+         */
+        @PostMapping("/batch")
+        public Mono<ResponseEntity<ApiResponse<List<BatchItemResult>>>> batch(@RequestBody BatchRequest request) {
+                int size = request.getQueries() == null ? 0 : request.getQueries().size();
+                log.info("POST /v1/batch - {} sorgu istendi", size);
+
+                return batchService.execute(request.getQueries())
+                                .map(response -> ResponseEntity.ok(response))
+                                .doOnSuccess(result -> log.info("{} sorguluk batch başarıyla çalıştırıldı", size))
+                                .doOnError(error -> log.error("Batch çalıştırılırken hata: {}", error.getMessage()));
+        }
+
+        /**
+         * Toplu tutar dönüşümü (NDJSON veya CSV): satırlar okundukça dönüştürülüp geri yazılır
+         */
+        @PostMapping(value = "/convert/stream", consumes = { MediaType.APPLICATION_NDJSON_VALUE, "text/csv" })
+        public ResponseEntity<StreamingResponseBody> convertStream(
+                        HttpServletRequest request,
+                        @RequestParam(defaultValue = "2") int scale) throws IOException {
+                BulkConversionService.Format format = BulkConversionService.Format
+                                .of(MediaType.parseMediaType(request.getContentType()));
+                log.info("POST /v1/convert/stream - {} toplu dönüşüm istendi, scale: {}", format, scale);
+
+                return ResponseEntity.ok()
+                                .contentType(format.mediaType())
+                                .body(bulkConversionService.stream(format, request.getInputStream(), scale));
+        }
+
+        /**
+         * Canlı kur akışı (Server-Sent Events): önce tam snapshot, sonra sadece değişen kurlar.
+         * Baz alınamazsa tek bir "error" olayı gönderilip akış kapatılır.
+         */
+        @GetMapping(value = "/stream/rates/{base}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public Flux<ServerSentEvent<?>> streamRates(
+                        @PathVariable String base,
+                        @RequestParam(required = false) List<String> targets) {
+
+                log.info("GET /v1/stream/rates/{} - {} bazlı canlı kur akışı istendi, targets: {}", base, base,
+                                targets);
+
+                return rateStreamService.subscribe(base, targets)
+                                .<ServerSentEvent<?>>map(delta -> ServerSentEvent.builder(delta)
+                                                .event(delta.isFull() ? "snapshot" : "delta")
+                                                .build())
+                                .doOnCancel(() -> log.info("{} bazlı canlı kur akışı istemci tarafından kapatıldı", base))
+                                .onErrorResume(error -> {
+                                        log.error("{} bazlı canlı kur akışında hata: {}", base, error.getMessage());
+                                        String message = error instanceof WebClientResponseException response
+                                                        && response.getStatusCode() == HttpStatus.NOT_FOUND
+                                                        ? "Currency not found: " + base
+                                                        : error.getMessage();
+                                        return Mono.just(ServerSentEvent.builder(ApiResponse.error(message))
+                                                        .event("error")
+                                                        .build());
+                                });
+        }
+
+        /**
+         * Health check endpoint
+         */
+        @GetMapping("/health")
+        public Mono<ResponseEntity<ApiResponse<String>>> healthCheck() {
+                log.info("GET /v1/health - Health check istendi");
+                return Mono.just(ResponseEntity.ok(ApiResponse.success("Doviz API is running!", "API is healthy")));
+        }
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.doviz.api.controller;
+
+import com.doviz.api.config.ResponseFormats;
+import com.doviz.api.model.ApiResponse;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.Snapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Herkese aynı snapshot'ı dönen uç noktalar için cevabın kodlanmış ve gzip halini bir kez
+ * üretip saklar. Her biçim (JSON, CBOR, Smile) ayrı girdi olarak tutulur. Girdi, cevabın
+ * dayandığı cache nesnesi (snapshot) değişene kadar yeniden kullanılır; böylece cache
+ * isabetlerinde Jackson hiç çalışmaz.
+ *
+ * ETag sadece snapshot'ın kendisinden türetilir (tarih ve verinin hash'i), cevabın
+ * {@code timestamp} alanından değil; böylece aynı verinin refresh-ahead ile yeniden yüklenmesi
+ * veya başka bir sunucudan gelmesi aynı ETag'i verir. Gzip gösterimi {@code -gz} ekli ayrı bir
+ * güçlü ETag taşır. If-None-Match eşleşirse gövdesiz 304 döner.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EncodedResponseCache {
+
+    private final ResponseFormats responseFormats;
+    private final Cache<String, Encoded> entries = Caffeine.newBuilder()
+            .maximumSize(1024)
+            .build();
+
+    public ResponseEntity<byte[]> render(String key, Object snapshot, ApiResponse<?> response,
+            String ifNoneMatch, String acceptEncoding, String accept) {
+        ResponseFormats.Format format = ResponseFormats.negotiate(accept);
+        String entryKey = format == ResponseFormats.Format.JSON ? key : key + ":" + format.name().toLowerCase();
+
+        Encoded encoded = entries.getIfPresent(entryKey);
+        if (encoded == null || encoded.snapshot() != snapshot) {
+            encoded = encode(entryKey, snapshot, response, format);
+            entries.put(entryKey, encoded);
+        }
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? encoded.gzipEtag() : encoded.etag();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setVary(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+        headers.setCacheControl(CacheControl.noCache());
+
+        if (matches(ifNoneMatch, etag)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        headers.setContentType(format.mediaType());
+        byte[] body = encoded.identity();
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = encoded.gzip();
+        }
+        headers.setContentLength(body.length);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private Encoded encode(String key, Object snapshot, ApiResponse<?> response, ResponseFormats.Format format) {
+        try {
+            byte[] identity = responseFormats.mapper(format).writeValueAsBytes(response);
+
+            String version = snapshot instanceof CurrencyRates rates && rates.getDate() != null
+                    ? rates.getDate().toString() + "-"
+                    : "";
+            String stale = snapshot instanceof Snapshot value && value.isStale() ? "-stale" : "";
+            String tag = key.replace(':', '-') + "-" + version + Long.toHexString(contentHash(snapshot)) + stale;
+
+            log.debug("Encoded response for {} ({} bytes) with ETag \"{}\"", key, identity.length, tag);
+            return new Encoded(snapshot, "\"" + tag + "\"", "\"" + tag + "-gz\"", identity, gzip(identity));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode response for " + key, e);
+        }
+    }
+
+    /**
+     * Verinin sunucudan bağımsız hash'i. Kur tablosunun serileştirme sırası kodların bu süreçte
+     * aldığı numaralara bağlı olduğundan kurlar sıradan bağımsız toplanır; diğer değerler için
+     * JSON biçiminin CRC'si kullanılır.
+     */
+    private long contentHash(Object snapshot) throws JsonProcessingException {
+        if (snapshot instanceof CurrencyRates rates) {
+            long[] hash = { rates.getBase() != null ? rates.getBase().hashCode() : 0 };
+            rates.getRates().forEach((code, rate) ->
+                    hash[0] += mix(code.hashCode() * 0x9E3779B97F4A7C15L ^ Double.doubleToLongBits(rate)));
+            return hash[0];
+        }
+        CRC32 crc = new CRC32();
+        crc.update(responseFormats.mapper(ResponseFormats.Format.JSON).writeValueAsBytes(snapshot));
+        return crc.getValue();
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * gzip açıkça listelenmişse onun, listelenmemişse {@code *} kodlamasının q değeri karar
+     * verir; q sıfırsa ({@code q=0.0} dahil) veya okunamıyorsa gzip reddedilmiş sayılır.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double wildcard = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (coding.equalsIgnoreCase("gzip")) {
+                return quality(tokens) > 0;
+            }
+            if (coding.equals("*")) {
+                wildcard = quality(tokens);
+            }
+        }
+        return wildcard > 0;
+    }
+
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private record Encoded(Object snapshot, String etag, String gzipEtag, byte[] identity, byte[] gzip) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.doviz.api.controller;
+
+/**
+ * Sürekli dolan jeton kovası. Jetonlar ilk erişimde geçen süreye göre eklenir; ayrı bir
+ * zamanlayıcı yoktur.
+ */
+final class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double permitsPerSecond, int burst, long now) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * @return jetonlar alındıysa 0, yoksa {@code cost} jetonun birikmesi için gereken nanosaniye
+     */
+    synchronized long tryAcquire(int cost, long now) {
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        if (tokens >= cost) {
+            tokens -= cost;
+            return 0;
+        }
+        if (cost > capacity || permitsPerNano <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) Math.ceil((cost - tokens) / permitsPerNano);
+    }
+
+    /**
+     * Sonraki sınırda reddedilen isteğin harcadığı jetonları geri verir.
+     */
+    synchronized void refund(int cost) {
+        tokens = Math.min(capacity, tokens + cost);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.doviz.api.exception;
+
+import lombok.Getter;
+
+/**
+ * Upstream devre kesicisi açıkken ve servis edilecek eski bir kopya yokken fırlatılır.
+ */
+@Getter
+public class UpstreamUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public UpstreamUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.doviz.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+    private int index;
+    private String id;
+    private int status;
+    private Object data;
+    private String error;
+    private Boolean stale;
+
+    public BatchItemResult forQuery(int index, String id) {
+        return new BatchItemResult(index, id, status, data, error, stale);
+    }
+}
\ No newline at end of file
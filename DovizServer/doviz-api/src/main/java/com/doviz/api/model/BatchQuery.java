@@ -0,0 +1,45 @@
+package com.doviz.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchQuery {
+
+    public enum Type {
+        @JsonProperty("rates")
+        RATES,
+        @JsonProperty("rate")
+        RATE,
+        @JsonProperty("historical")
+        HISTORICAL
+    }
+
+    private String id; // İstemcinin cevabı eşlemek için verdiği opsiyonel kimlik
+    private Type type;
+    private String base;
+    private String from;
+    private String to;
+    private String date;
+    private List<String> targets;
+
+    /**
+     * Aynı soruyu soran sorguların tek bir çağrıyı paylaşması için anahtar.
+     */
+    public String dedupKey() {
+        return String.join("|",
+                String.valueOf(type),
+                lower(base), lower(from), lower(to), String.valueOf(date),
+                targets == null ? "" : String.join(",", targets.stream().map(BatchQuery::lower).sorted().toList()));
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.doviz.api.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequest {
+    private List<BatchQuery> queries;
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.doviz.api.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Grafik için sütun biçiminde seri: {@code dates[i]} ve {@code values[i]} aynı noktadır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChartSeries {
+    private List<LocalDate> dates;
+    private double[] values;
+}
\ No newline at end of file
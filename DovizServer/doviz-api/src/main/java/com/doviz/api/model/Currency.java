@@ -1,15 +1,15 @@
-package com.doviz.api.model;
-
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
-
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class Currency {
-    private String code;
-    private String name;
-    private String symbol;
-    private String flag;
+package com.doviz.api.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Currency {
+    private String code;
+    private String name;
+    private String symbol;
+    private String flag;
 } 
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.doviz.api.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Upstream {@code currencies.json} kataloğu: kod → isim. Sıra korunarak iki paralel dizide
+ * tutulur ve JSON'a yine {@code {"usd": "US Dollar", ...}} nesnesi olarak yazılır.
+ */
+@JsonSerialize(using = CurrencyCatalog.Serializer.class)
+@JsonDeserialize(using = CurrencyCatalog.Deserializer.class)
+public final class CurrencyCatalog implements Snapshot {
+
+    private final String[] codes;
+    private final String[] names;
+    private final boolean stale;
+
+    public CurrencyCatalog(String[] codes, String[] names) {
+        this(codes, names, false);
+    }
+
+    private CurrencyCatalog(String[] codes, String[] names, boolean stale) {
+        this.codes = codes;
+        this.names = names;
+        this.stale = stale;
+    }
+
+    public CurrencyCatalog asStale() {
+        return new CurrencyCatalog(codes, names, true);
+    }
+
+    @Override
+    public boolean isStale() {
+        return stale;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public String getCode(int i) {
+        return codes[i];
+    }
+
+    public String getName(int i) {
+        return names[i];
+    }
+
+    public void forEach(BiConsumer<String, String> consumer) {
+        for (int i = 0; i < codes.length; i++) {
+            consumer.accept(codes[i], names[i]);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CurrencyCatalog other
+                && Arrays.equals(codes, other.codes)
+                && Arrays.equals(names, other.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(codes) + Arrays.hashCode(names);
+    }
+
+    public static class Serializer extends StdSerializer<CurrencyCatalog> {
+
+        public Serializer() {
+            super(CurrencyCatalog.class);
+        }
+
+        @Override
+        public void serialize(CurrencyCatalog catalog, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(catalog, catalog.size());
+            for (int i = 0; i < catalog.codes.length; i++) {
+                gen.writeStringField(catalog.codes[i], catalog.names[i]);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<CurrencyCatalog> {
+
+        public Deserializer() {
+            super(CurrencyCatalog.class);
+        }
+
+        @Override
+        public CurrencyCatalog deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                return (CurrencyCatalog) context.handleUnexpectedToken(CurrencyCatalog.class, parser);
+            }
+
+            String[] codes = new String[512];
+            String[] names = new String[512];
+            int size = 0;
+            String code;
+            while ((code = parser.nextFieldName()) != null) {
+                JsonToken token = parser.nextToken();
+                if (token != JsonToken.VALUE_STRING) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (size == codes.length) {
+                    codes = Arrays.copyOf(codes, size * 2);
+                    names = Arrays.copyOf(names, size * 2);
+                }
+                codes[size] = code;
+                names[size++] = parser.getText();
+            }
+            return new CurrencyCatalog(Arrays.copyOf(codes, size), Arrays.copyOf(names, size));
+        }
+    }
+}
\ No newline at end of file
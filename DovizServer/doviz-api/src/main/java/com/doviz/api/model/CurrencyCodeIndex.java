@@ -0,0 +1,65 @@
+package com.doviz.api.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uygulama genelinde paylaşılan, para birimi kodlarını sabit bir sıra numarasına eşleyen
+ * intern tablosu. Kodlar küçük harfe çevrilerek saklanır; bir kez atanan numara değişmez.
+ */
+public final class CurrencyCodeIndex {
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>(512);
+    private static volatile String[] codes = new String[512];
+    private static volatile int size;
+
+    private CurrencyCodeIndex() {
+    }
+
+    /**
+     * Kodun numarasını döner, daha önce görülmemişse yeni numara atar.
+     */
+    public static int idOf(String code) {
+        Integer id = IDS.get(code);
+        if (id != null) {
+            return id;
+        }
+        return intern(code.toLowerCase());
+    }
+
+    /**
+     * Kodun numarasını döner; bilinmeyen kodlar için -1. Yeni numara atamaz.
+     */
+    public static int find(String code) {
+        Integer id = IDS.get(code);
+        if (id == null) {
+            String lower = code.toLowerCase();
+            id = lower.equals(code) ? null : IDS.get(lower);
+        }
+        return id != null ? id : -1;
+    }
+
+    public static String codeOf(int id) {
+        return codes[id];
+    }
+
+    public static int size() {
+        return size;
+    }
+
+    private static synchronized int intern(String code) {
+        Integer existing = IDS.get(code);
+        if (existing != null) {
+            return existing;
+        }
+        int id = size;
+        if (id == codes.length) {
+            codes = Arrays.copyOf(codes, codes.length * 2);
+        }
+        codes[id] = code;
+        size = id + 1;
+        IDS.put(code, id);
+        return id;
+    }
+}
\ No newline at end of file
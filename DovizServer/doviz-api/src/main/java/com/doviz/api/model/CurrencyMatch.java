@@ -0,0 +1,16 @@
+package com.doviz.api.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrencyMatch {
+    private String code;
+    private String name;
+    private double score;
+    /** code, name, prefix veya fuzzy */
+    private String matchType;
+}
\ No newline at end of file
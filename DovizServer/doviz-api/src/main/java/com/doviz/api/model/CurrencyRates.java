@@ -1,37 +1,37 @@
-package com.doviz.api.model;
-
-import com.fasterxml.jackson.annotation.JsonAnySetter;
-import com.fasterxml.jackson.annotation.JsonFormat;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
-
-import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.Map;
-
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class CurrencyRates {
-
-    private String base; // Örn: "eur"
-
-    @JsonFormat(pattern = "yyyy-MM-dd")
-    private LocalDate date;
-
-    private Map<String, Double> rates = new HashMap<>();
-
-    @JsonAnySetter
-    public void handleDynamic(String key, Object value) {
-        if ("date".equals(key)) {
-            this.date = LocalDate.parse(value.toString());
-        } else {
-            // JSON altındaki base currency (örneğin "eur") içindeki tüm kurları map'e koy
-            if (value instanceof Map<?, ?> map) {
-                map.forEach((k, v) -> rates.put(k.toString(), Double.parseDouble(v.toString())));
-                this.base = key; // Dinamik base currency olarak key'i kaydet
-            }
-        }
-    }
-}
+package com.doviz.api.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@JsonDeserialize(using = CurrencyRatesDeserializer.class)
+public class CurrencyRates implements Snapshot {
+
+    private String base; // Örn: "eur"
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+
+    private RateTable rates = RateTable.EMPTY;
+
+    @JsonIgnore
+    private boolean stale;
+
+    public CurrencyRates(String base, LocalDate date, RateTable rates) {
+        this.base = base;
+        this.date = date;
+        this.rates = rates;
+    }
+
+    public CurrencyRates asStale() {
+        CurrencyRates copy = new CurrencyRates(base, date, rates);
+        copy.setStale(true);
+        return copy;
+    }
+}
@@ -0,0 +1,49 @@
+package com.doviz.api.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Upstream kur cevabını ({@code {"date": "...", "eur": {"usd": 1.08, ...}}}) ara bir Map
+ * kurmadan, token akışı üzerinden tek geçişte {@link CurrencyRates}'e okur. Aynı biçim
+ * {@code .min.json} cevapları için de geçerlidir. Uygulamanın kendi yazdığı
+ * {@code {"base": "eur", "date": "...", "rates": {...}}} biçimi de okunabilir.
+ */
+public class CurrencyRatesDeserializer extends StdDeserializer<CurrencyRates> {
+
+    public CurrencyRatesDeserializer() {
+        super(CurrencyRates.class);
+    }
+
+    @Override
+    public CurrencyRates deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return (CurrencyRates) context.handleUnexpectedToken(CurrencyRates.class, parser);
+        }
+
+        CurrencyRates result = new CurrencyRates();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            if ("date".equals(field)) {
+                result.setDate(token == JsonToken.VALUE_NULL ? null : LocalDate.parse(parser.getText()));
+            } else if ("base".equals(field) && token == JsonToken.VALUE_STRING) {
+                result.setBase(parser.getText());
+            } else if (token == JsonToken.START_OBJECT) {
+                result.setRates(RateTable.read(parser));
+                // Upstream'de kur nesnesinin adı baz para biriminin kendisidir
+                if (!"rates".equals(field)) {
+                    result.setBase(field);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.doviz.api.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Haftalık veya aylık açılış/en yüksek/en düşük/kapanış kovası; {@code period} kovanın
+ * ilk günüdür (haftalar pazartesi başlar).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OhlcBucket {
+    private LocalDate period;
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private int days;
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.doviz.api.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tarih aralığının sunucuda hesaplanan özeti: istatistikler, OHLC kovaları ve grafik için
+ * seyreltilmiş seri. Boyutu gün sayısına değil istenen nokta ve kova sayısına bağlıdır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangeAnalytics {
+    private String base;
+    private String target;
+    private LocalDate start;
+    private LocalDate end;
+    private String interval;
+    private int days;
+    private int missingDays;
+    private RangeStatistics statistics;
+    private List<OhlcBucket> buckets;
+    private ChartSeries series;
+}
\ No newline at end of file
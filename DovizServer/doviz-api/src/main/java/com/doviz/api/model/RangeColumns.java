@@ -0,0 +1,58 @@
+package com.doviz.api.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bir baz için birden çok hedefin tarih aralığı, sütun biçiminde: {@code dates[i]} günü için
+ * {@code rates.<hedef>[i]}. Aralıktaki her gün listededir; kuru bilinmeyen günler {@code null}
+ * olarak yazılır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangeColumns {
+    private String base;
+    private LocalDate start;
+    private LocalDate end;
+    /** Snapshot'ı hiç alınamayan gün sayısı */
+    private int missingDays;
+    private List<LocalDate> dates;
+
+    /** Hedef → günlük kurlar; sıra istekteki hedef sırasıdır */
+    @JsonSerialize(contentUsing = GapSerializer.class)
+    private Map<String, double[]> rates;
+
+    /**
+     * NaN değerleri JSON'da geçerli olmayan {@code NaN} yerine {@code null} olarak yazar.
+     */
+    public static class GapSerializer extends StdSerializer<double[]> {
+
+        public GapSerializer() {
+            super(double[].class);
+        }
+
+        @Override
+        public void serialize(double[] values, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartArray(values, values.length);
+            for (double value : values) {
+                if (Double.isNaN(value)) {
+                    gen.writeNull();
+                } else {
+                    gen.writeNumber(value);
+                }
+            }
+            gen.writeEndArray();
+        }
+    }
+}
\ No newline at end of file
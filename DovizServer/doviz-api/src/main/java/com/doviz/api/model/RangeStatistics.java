@@ -0,0 +1,23 @@
+package com.doviz.api.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangeStatistics {
+    private int count;
+    private double min;
+    private LocalDate minDate;
+    private double max;
+    private LocalDate maxDate;
+    private double mean;
+    private double stdDev;
+    private double first;
+    private double last;
+    private double changePercent;
+}
\ No newline at end of file
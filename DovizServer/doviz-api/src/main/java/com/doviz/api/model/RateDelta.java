@@ -0,0 +1,87 @@
+package com.doviz.api.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * İki snapshot arasındaki fark. {@code full} ise {@code added} tablonun tamamıdır.
+ * {@code version} sadece sürümlü geçmişten üretilen farklarda doludur.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class RateDelta {
+
+    private String base;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+
+    private boolean full;
+    private RateTable added = RateTable.EMPTY;
+    private RateTable changed = RateTable.EMPTY;
+    private List<String> removed = List.of();
+
+    /** Farkın götürdüğü snapshot sürümü; istemci bir sonraki istekte {@code since} olarak gönderir */
+    private Long version;
+
+    public static RateDelta full(CurrencyRates snapshot) {
+        return new RateDelta(snapshot.getBase(), snapshot.getDate(), true, snapshot.getRates(), RateTable.EMPTY,
+                List.of(), null);
+    }
+
+    public static RateDelta between(CurrencyRates previous, CurrencyRates current) {
+        RateTable before = previous.getRates();
+        RateTable after = current.getRates();
+
+        RateTable.Builder added = RateTable.builder();
+        RateTable.Builder changed = RateTable.builder();
+        after.forEach((code, rate) -> {
+            double old = before.get(code);
+            if (Double.isNaN(old)) {
+                added.put(code, rate);
+            } else if (Double.compare(old, rate) != 0) {
+                changed.put(code, rate);
+            }
+        });
+
+        List<String> removed = new ArrayList<>();
+        before.forEach((code, rate) -> {
+            if (!after.contains(code)) {
+                removed.add(code);
+            }
+        });
+
+        return new RateDelta(current.getBase(), current.getDate(), false, added.build(), changed.build(), removed,
+                null);
+    }
+
+    /**
+     * Sadece verilen hedefleri içeren fark; hedef yoksa farkın kendisi döner.
+     */
+    public RateDelta restrictTo(Collection<String> targets) {
+        if (targets == null || targets.isEmpty()) {
+            return this;
+        }
+        List<String> removedTargets = removed.stream()
+                .filter(code -> targets.stream().anyMatch(code::equalsIgnoreCase))
+                .toList();
+        return new RateDelta(base, date, full, added.select(targets), changed.select(targets), removedTargets,
+                version);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+}
\ No newline at end of file
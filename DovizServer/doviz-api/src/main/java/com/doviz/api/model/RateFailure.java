@@ -0,0 +1,15 @@
+package com.doviz.api.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateFailure {
+    private LocalDate date;
+    private String reason;
+}
\ No newline at end of file
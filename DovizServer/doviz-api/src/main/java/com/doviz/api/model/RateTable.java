@@ -0,0 +1,250 @@
+package com.doviz.api.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Kurları {@link CurrencyCodeIndex} numarasıyla indekslenmiş bir double[] içinde tutan,
+ * değiştirilemez tablo. Olmayan kurlar NaN olarak saklanır; kod ile erişim O(1)'dir.
+ * JSON'a {@code {"usd": 1.08, ...}} şeklinde, eski Map ile aynı biçimde yazılır.
+ */
+@JsonSerialize(using = RateTable.Serializer.class)
+@JsonDeserialize(using = RateTable.Deserializer.class)
+public final class RateTable {
+
+    public static final RateTable EMPTY = new RateTable(new double[0], 0);
+
+    private final double[] values;
+    private final int size;
+
+    private RateTable(double[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return new Builder(CurrencyCodeIndex.size());
+    }
+
+    public static RateTable of(Map<String, Double> rates) {
+        Builder builder = new Builder(CurrencyCodeIndex.size());
+        rates.forEach((code, rate) -> {
+            if (rate != null) {
+                builder.put(code, rate);
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * Kodun kuru; tabloda yoksa NaN.
+     */
+    public double get(String code) {
+        return getById(CurrencyCodeIndex.find(code));
+    }
+
+    public double getById(int id) {
+        return id >= 0 && id < values.length ? values[id] : Double.NaN;
+    }
+
+    public boolean contains(String code) {
+        return !Double.isNaN(get(code));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(RateConsumer consumer) {
+        for (int id = 0; id < values.length; id++) {
+            if (!Double.isNaN(values[id])) {
+                consumer.accept(CurrencyCodeIndex.codeOf(id), values[id]);
+            }
+        }
+    }
+
+    /**
+     * Sadece verilen kodlardan oluşan yeni tablo; bilinmeyen kodlar atlanır.
+     */
+    public RateTable select(Collection<String> codes) {
+        Builder builder = new Builder(values.length);
+        for (String code : codes) {
+            int id = CurrencyCodeIndex.find(code);
+            double rate = getById(id);
+            if (!Double.isNaN(rate)) {
+                builder.putById(id, rate);
+            }
+        }
+        return builder.build();
+    }
+
+    public Map<String, Double> toMap() {
+        Map<String, Double> map = new LinkedHashMap<>(size * 4 / 3 + 1);
+        forEach(map::put);
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RateTable other) || size != other.size) {
+            return false;
+        }
+        int length = Math.max(values.length, other.values.length);
+        for (int id = 0; id < length; id++) {
+            if (Double.compare(getById(id), other.getById(id)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = size;
+        for (int id = 0; id < values.length; id++) {
+            if (!Double.isNaN(values[id])) {
+                hash = 31 * hash + id;
+                hash = 31 * hash + Double.hashCode(values[id]);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    /**
+     * Parser START_OBJECT üzerindeyken {@code {"usd": 1.08, ...}} nesnesini tek geçişte
+     * okur; dönüşte parser END_OBJECT üzerindedir. Sayı dışı değerler atlanır.
+     */
+    public static RateTable read(JsonParser parser) throws IOException {
+        Builder builder = RateTable.builder();
+        String code;
+        while ((code = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+                builder.put(code, parser.getDoubleValue());
+            } else if (token == JsonToken.VALUE_STRING) {
+                builder.put(code, Double.parseDouble(parser.getText()));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return builder.build();
+    }
+
+    @FunctionalInterface
+    public interface RateConsumer {
+        void accept(String code, double rate);
+    }
+
+    public static final class Builder {
+
+        private double[] values;
+        private int size;
+
+        private Builder(int capacity) {
+            this.values = new double[Math.max(capacity, 16)];
+            Arrays.fill(values, Double.NaN);
+        }
+
+        public Builder put(String code, double rate) {
+            return putById(CurrencyCodeIndex.idOf(code), rate);
+        }
+
+        public Builder putById(int id, double rate) {
+            if (Double.isNaN(rate)) {
+                return this;
+            }
+            if (id >= values.length) {
+                int length = values.length;
+                values = Arrays.copyOf(values, Math.max(id + 1, length * 2));
+                Arrays.fill(values, length, values.length, Double.NaN);
+            }
+            if (Double.isNaN(values[id])) {
+                size++;
+            }
+            values[id] = rate;
+            return this;
+        }
+
+        public RateTable build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            // Sondaki boş alanlar kırpılır, tablo sadece son koda kadar yer kaplar
+            int length = values.length;
+            while (length > 0 && Double.isNaN(values[length - 1])) {
+                length--;
+            }
+            return new RateTable(length == values.length ? values : Arrays.copyOf(values, length), size);
+        }
+    }
+
+    public static class Serializer extends StdSerializer<RateTable> {
+
+        public Serializer() {
+            super(RateTable.class);
+        }
+
+        @Override
+        public void serialize(RateTable table, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(table, table.size);
+            double[] values = table.values;
+            for (int id = 0; id < values.length; id++) {
+                if (!Double.isNaN(values[id])) {
+                    gen.writeFieldName(CurrencyCodeIndex.codeOf(id));
+                    gen.writeNumber(values[id]);
+                }
+            }
+            gen.writeEndObject();
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, RateTable table) {
+            return table == null || table.isEmpty();
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<RateTable> {
+
+        public Deserializer() {
+            super(RateTable.class);
+        }
+
+        @Override
+        public RateTable deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                return (RateTable) context.handleUnexpectedToken(RateTable.class, parser);
+            }
+            return read(parser);
+        }
+
+        @Override
+        public RateTable getNullValue(DeserializationContext context) {
+            return EMPTY;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.doviz.api.model;
+
+/**
+ * Upstream'den gelen ve cache'lenen veriler. Upstream erişilemezken son bilinen iyi kopya
+ * servis edildiğinde {@code stale} işaretlenir.
+ */
+public interface Snapshot {
+    boolean isStale();
+}
\ No newline at end of file
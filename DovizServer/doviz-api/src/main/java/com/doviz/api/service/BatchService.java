@@ -0,0 +1,128 @@
+package com.doviz.api.service;
+
+import com.doviz.api.exception.UpstreamUnavailableException;
+import com.doviz.api.model.ApiResponse;
+import com.doviz.api.model.BatchItemResult;
+import com.doviz.api.model.BatchQuery;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Birden çok kur sorgusunu tek istekte çalıştırır. Aynı sorgular tek bir çağrıyı paylaşır;
+ * farklı sorgular aynı snapshot'a ihtiyaç duyduğunda cache'in tekil yüklemesi sayesinde
+ * upstream'e yine tek çağrı gider. Her sorgunun sonucu kendi durum koduyla döner, bir
+ * sorgunun hatası diğerlerini etkilemez.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchService {
+
+    private final CurrencyService currencyService;
+
+    @Value("${app.batch.max-queries:100}")
+    private int maxQueries;
+
+    @Value("${app.batch.concurrency:16}")
+    private int concurrency;
+
+    public Mono<ApiResponse<List<BatchItemResult>>> execute(List<BatchQuery> queries) {
+        if (queries == null || queries.isEmpty()) {
+            return Mono.just(ApiResponse.error("Batch request must contain at least one query"));
+        }
+        if (queries.size() > maxQueries) {
+            return Mono.just(ApiResponse.error("Batch request cannot contain more than " + maxQueries + " queries"));
+        }
+
+        Map<String, Mono<BatchItemResult>> shared = new HashMap<>();
+        List<Mono<BatchItemResult>> calls = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            BatchQuery query = queries.get(i);
+            int index = i;
+            Mono<BatchItemResult> call = query == null
+                    ? Mono.just(failure(HttpStatus.BAD_REQUEST.value(), "Query cannot be null"))
+                    : shared.computeIfAbsent(query.dedupKey(), key -> resolve(query).cache());
+            calls.add(call.map(result -> result.forQuery(index, query == null ? null : query.getId())));
+        }
+
+        return Flux.fromIterable(calls)
+                .flatMapSequential(call -> call, concurrency)
+                .collectList()
+                .map(results -> ApiResponse.success(results,
+                        String.format("Executed %d queries (%d distinct)", queries.size(), shared.size())))
+                .doOnError(error -> log.error("Error in batch execute: {}", error.getMessage()));
+    }
+
+    private Mono<BatchItemResult> resolve(BatchQuery query) {
+        String invalid = validate(query);
+        if (invalid != null) {
+            return Mono.just(failure(HttpStatus.BAD_REQUEST.value(), invalid));
+        }
+
+        Mono<? extends ApiResponse<?>> response = switch (query.getType()) {
+            case RATES -> query.getTargets() != null && !query.getTargets().isEmpty()
+                    ? currencyService.getCurrencyRatesWithTargets(query.getBase(), query.getTargets())
+                    : currencyService.getCurrencyRates(query.getBase());
+            case RATE -> currencyService.getSingleRate(query.getFrom(), query.getTo());
+            case HISTORICAL -> currencyService.getHistoricalRates(query.getBase(), query.getDate());
+        };
+
+        return response
+                .map(this::toResult)
+                .switchIfEmpty(Mono.fromSupplier(() -> failure(HttpStatus.NOT_FOUND.value(), "No data available")))
+                .onErrorResume(error -> Mono.just(toFailure(error)));
+    }
+
+    private String validate(BatchQuery query) {
+        if (query.getType() == null) {
+            return "Query type is required (rates, rate, historical)";
+        }
+        return switch (query.getType()) {
+            case RATES -> query.getBase() == null ? "base is required" : null;
+            case RATE -> query.getFrom() == null || query.getTo() == null ? "from and to are required" : null;
+            case HISTORICAL -> query.getBase() == null || query.getDate() == null ? "base and date are required" : null;
+        };
+    }
+
+    private BatchItemResult toResult(ApiResponse<?> response) {
+        if (!response.isSuccess()) {
+            return failure(HttpStatus.BAD_REQUEST.value(), response.getMessage());
+        }
+        boolean stale = response.getMetadata() != null && Boolean.TRUE.equals(response.getMetadata().get("stale"));
+        return new BatchItemResult(0, null, HttpStatus.OK.value(), response.getData(), null, stale ? Boolean.TRUE : null);
+    }
+
+    private BatchItemResult toFailure(Throwable error) {
+        // GlobalExceptionHandler ile aynı durum kodları
+        if (error instanceof WebClientResponseException response) {
+            String message = response.getStatusCode() == HttpStatus.NOT_FOUND
+                    ? "Currency or date not found"
+                    : "External API error: " + response.getStatusText();
+            return failure(response.getStatusCode().value(), message);
+        }
+        if (error instanceof UpstreamUnavailableException) {
+            return failure(HttpStatus.SERVICE_UNAVAILABLE.value(), error.getMessage());
+        }
+        if (error instanceof RuntimeException) {
+            return failure(HttpStatus.BAD_REQUEST.value(), error.getMessage());
+        }
+        log.error("Unexpected error in batch query: {}", error.getMessage(), error);
+        return failure(HttpStatus.INTERNAL_SERVER_ERROR.value(), "An unexpected error occurred");
+    }
+
+    private static BatchItemResult failure(int status, String message) {
+        return new BatchItemResult(0, null, status, null, message, null);
+    }
+}
\ No newline at end of file
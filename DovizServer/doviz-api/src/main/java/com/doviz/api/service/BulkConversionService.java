@@ -0,0 +1,582 @@
+package com.doviz.api.service;
+
+import com.doviz.api.model.CurrencyCodeIndex;
+import com.doviz.api.service.CrossRateEngine.PivotVector;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Büyük NDJSON/CSV dosyalarındaki tutarları akış halinde dönüştüren servis.
+ *
+ * İstek başında güncel pivot snapshot'ı sabitlenir; tarihsiz satırların hepsi bu snapshot'tan,
+ * tarihli satırlar o günün pivot snapshot'ından çözülür. Çapraz kur kapalıysa
+ * ({@code app.cross-rate.enabled=false}) kurlar türetilmez, her satır {@code from} bazının kendi
+ * upstream snapshot'ından çözülür. Satırlar sabit boyutlu tamponlardan okunur ve yazılır; satır
+ * başına ExchangeRate/BigDecimal üretilmez, bellek kullanımı dosya boyutundan bağımsızdır.
+ *
+ * Dönüştürülen tutar {@code scale} basamağa half-even yuvarlanır. Çarpım tutarın yazıldığı
+ * ondalık değer ile kurun yanıtta yazılan ondalık değeri üzerinden tam yapılır
+ * ({@link DecimalText#multiply}); 2.675 × 1 her zaman 2.68 olur. Mutlak ölçeksiz sonucu 10^18'e
+ * ulaşan tutarlar hata satırı döner.
+ *
+ * Tarihli satırlar upstream'in tuttuğu günlerle ({@code app.external-api.earliest-date} ile bugün
+ * arası, UTC) sınırlıdır; bir istek en fazla {@code app.bulk.max-date-fetches} tarihli snapshot
+ * çeker, sınır aşıldıktan sonra yeni günlere düşen satırlar hata satırı olur.
+ */
+@Slf4j
+@Service
+public class BulkConversionService {
+
+    private static final int READ_BUFFER = 64 * 1024;
+    private static final int MAX_FIELDS = 16;
+    private static final int MAX_SNAPSHOTS = 366;
+    private static final int RATE_SLOTS = 64;
+    // Tarihsiz satırların gün anahtarı
+    private static final int LATEST = DecimalText.INVALID_DAY;
+    private static final BigInteger MAX_UNSCALED = BigInteger.valueOf(DecimalText.MAX_UNSCALED);
+
+    private final CrossRateEngine crossRateEngine;
+    private final JsonFactory jsonFactory;
+    private final Duration timeout;
+    private final int maxDateFetches;
+    private final int earliestDay;
+
+    public BulkConversionService(CrossRateEngine crossRateEngine,
+            ObjectMapper objectMapper,
+            @Value("${app.external-api.timeout:10000}") long timeoutMs,
+            @Value("${app.bulk.max-date-fetches:366}") int maxDateFetches,
+            @Value("${app.external-api.earliest-date:2024-03-02}") String earliestDate) {
+        this.crossRateEngine = crossRateEngine;
+        this.jsonFactory = objectMapper.getFactory();
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.maxDateFetches = maxDateFetches;
+        this.earliestDay = (int) LocalDate.parse(earliestDate).toEpochDay();
+    }
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+        public MediaType mediaType() {
+            return this == CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON;
+        }
+
+        public static Format of(MediaType contentType) {
+            if (contentType != null && TEXT_CSV.includes(contentType)) {
+                return CSV;
+            }
+            return NDJSON;
+        }
+    }
+
+    /**
+     * Parametreleri istek thread'inde doğrular ve yanıt gövdesini döner; dönüşüm gövde
+     * yazılırken asenkron yanıt thread'inde, girdi okundukça yapılır.
+     */
+    public StreamingResponseBody stream(Format format, InputStream in, int scale) {
+        if (scale < 0 || scale > DecimalText.MAX_SCALE) {
+            throw new IllegalArgumentException("scale 0 ile " + DecimalText.MAX_SCALE + " arasında olmalıdır");
+        }
+        return out -> convert(format, in, out, scale);
+    }
+
+    private void convert(Format format, InputStream in, OutputStream out, int scale) throws IOException {
+        long started = System.nanoTime();
+        ConversionSink sink = new ConversionSink(format, out);
+        sink.header();
+
+        PivotVector latest = null;
+        if (crossRateEngine.isEnabled()) {
+            try {
+                latest = crossRateEngine.pivotVector().block(timeout);
+            } catch (RuntimeException e) {
+                log.warn("Toplu dönüşüm için pivot snapshot alınamadı: {}", e.getMessage());
+            }
+            if (latest == null) {
+                sink.error(0, "rates unavailable");
+                sink.flush();
+                return;
+            }
+        }
+
+        Session session = new Session(sink, latest, scale);
+        if (format == Format.CSV) {
+            session.readCsv(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } else {
+            session.readNdjson(in);
+        }
+        sink.flush();
+
+        log.info("Toplu dönüşüm tamamlandı: {} satır, {} hata, {} ms ({} snapshot)", session.lines, session.errors,
+                (System.nanoTime() - started) / 1_000_000, latest != null ? latest.getDate() : "baz başına");
+    }
+
+    /**
+     * Girdiden okunan tek bir alan; parser tamponu yeniden kullandığı için karakterler kopyalanır.
+     */
+    private static final class Field {
+
+        private char[] chars = new char[32];
+        private int length;
+
+        void set(char[] source, int offset, int count) {
+            // baştaki ve sondaki boşluklar alanın parçası değildir
+            while (count > 0 && source[offset] <= ' ') {
+                offset++;
+                count--;
+            }
+            while (count > 0 && source[offset + count - 1] <= ' ') {
+                count--;
+            }
+            if (chars.length < count) {
+                chars = new char[Math.max(count, chars.length * 2)];
+            }
+            System.arraycopy(source, offset, chars, 0, count);
+            length = count;
+        }
+
+        void clear() {
+            length = 0;
+        }
+
+        boolean isEmpty() {
+            return length == 0;
+        }
+    }
+
+    private final class Session {
+
+        private final ConversionSink sink;
+        private final PivotVector latest;
+        private final String latestDate;
+        private final int scale;
+        private final int today = (int) LocalDate.now(ZoneOffset.UTC).toEpochDay();
+        private final int significantDigits = crossRateEngine.getSignificantDigits();
+        private final CodeLookup codes = new CodeLookup();
+        private final DecimalText.Decimal parsed = new DecimalText.Decimal();
+
+        private final Field amount = new Field();
+        private final Field from = new Field();
+        private final Field to = new Field();
+        private final Field date = new Field();
+
+        // Tarihli satırlar (ve çapraz kur kapalıyken bazlar) için snapshot'lar, (gün, baz) anahtarıyla;
+        // dosya sıralıysa hep son anahtar tutulur
+        private final Map<Long, Optional<PivotVector>> snapshots = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Optional<PivotVector>> eldest) {
+                return size() > MAX_SNAPSHOTS;
+            }
+        };
+        private long lastKey = Long.MIN_VALUE;
+        private PivotVector lastVector;
+        private String lastText;
+        private int dateFetches;
+
+        // Ardışık aynı çiftler için türetilmiş kur
+        private PivotVector memoVector;
+        private int memoFrom = -1;
+        private int memoTo = -1;
+        private double memoRate;
+
+        // Kurların yanıtta yazılan ondalık hali (Double.toString), double bitleriyle doğrudan eşlemeli
+        private final long[] rateBits = new long[RATE_SLOTS];
+        private final long[] rateMantissas = new long[RATE_SLOTS];
+        private final int[] rateScales = new int[RATE_SLOTS];
+
+        private long lines;
+        private long errors;
+
+        Session(ConversionSink sink, PivotVector latest, int scale) {
+            this.sink = sink;
+            this.latest = latest;
+            this.latestDate = latest != null && latest.getDate() != null ? latest.getDate().toString() : "";
+            this.scale = scale;
+        }
+
+        void readNdjson(InputStream in) throws IOException {
+            try (JsonParser parser = jsonFactory.createParser(in)) {
+                JsonToken token;
+                while ((token = parser.nextToken()) != null) {
+                    lines++;
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        error("expected a JSON object");
+                        continue;
+                    }
+                    amount.clear();
+                    from.clear();
+                    to.clear();
+                    date.clear();
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        Field target = switch (parser.currentName()) {
+                            case "amount" -> amount;
+                            case "from" -> from;
+                            case "to" -> to;
+                            case "date" -> date;
+                            default -> null;
+                        };
+                        JsonToken value = parser.nextToken();
+                        if (target != null && (value == JsonToken.VALUE_STRING || value.isNumeric())) {
+                            target.set(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    convertRow();
+                }
+            } catch (JsonProcessingException e) {
+                // Bozuk JSON'dan sonra satır sınırı güvenilir bulunamaz, akış burada kesilir
+                error("malformed JSON, stopping");
+            }
+        }
+
+        void readCsv(Reader reader) throws IOException {
+            char[] buffer = new char[READ_BUFFER];
+            int[] starts = new int[MAX_FIELDS];
+            int[] ends = new int[MAX_FIELDS];
+            int[] columns = null;
+            int start = 0;
+            int limit = 0;
+            int scanned = 0;
+            boolean eof = false;
+            boolean skipping = false;
+
+            while (true) {
+                int newline = -1;
+                for (int i = scanned; i < limit; i++) {
+                    if (buffer[i] == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+
+                if (newline < 0) {
+                    if (eof) {
+                        if (start < limit && !skipping) {
+                            columns = csvLine(buffer, start, limit, starts, ends, columns);
+                        }
+                        return;
+                    }
+                    if (start > 0) {
+                        System.arraycopy(buffer, start, buffer, 0, limit - start);
+                        limit -= start;
+                        start = 0;
+                    }
+                    if (limit == buffer.length) {
+                        // Tampondan uzun satır: atlanır, satır sonuna kadar okunanlar çöpe gider
+                        if (!skipping) {
+                            lines++;
+                            error("line too long");
+                            skipping = true;
+                        }
+                        limit = 0;
+                    }
+                    scanned = limit;
+                    int read = reader.read(buffer, limit, buffer.length - limit);
+                    if (read < 0) {
+                        eof = true;
+                    } else {
+                        limit += read;
+                    }
+                    continue;
+                }
+
+                if (skipping) {
+                    skipping = false;
+                } else {
+                    columns = csvLine(buffer, start, newline, starts, ends, columns);
+                    if (columns == null) {
+                        return;
+                    }
+                }
+                start = newline + 1;
+                scanned = start;
+            }
+        }
+
+        /**
+         * Tek CSV satırını işler; ilk satır başlıksa sütun sırasını döner. Başlık zorunlu
+         * sütunları içermiyorsa null döner ve okuma durur.
+         */
+        private int[] csvLine(char[] buffer, int start, int end, int[] starts, int[] ends, int[] columns)
+                throws IOException {
+            if (end > start && buffer[end - 1] == '\r') {
+                end--;
+            }
+            int count = splitCsv(buffer, start, end, starts, ends);
+
+            if (columns == null) {
+                columns = headerColumns(buffer, starts, ends, count);
+                if (columns != null) {
+                    lines++;
+                    if (columns[0] < 0 || columns[1] < 0 || columns[2] < 0) {
+                        error("header must contain amount, from and to");
+                        return null;
+                    }
+                    return columns;
+                }
+                columns = new int[] { 0, 1, 2, 3 };
+            }
+
+            lines++;
+            if (count == 1 && starts[0] == ends[0]) {
+                return columns;
+            }
+            setField(amount, buffer, starts, ends, count, columns[0]);
+            setField(from, buffer, starts, ends, count, columns[1]);
+            setField(to, buffer, starts, ends, count, columns[2]);
+            setField(date, buffer, starts, ends, count, columns[3]);
+            convertRow();
+            return columns;
+        }
+
+        private int splitCsv(char[] buffer, int start, int end, int[] starts, int[] ends) {
+            int count = 0;
+            int i = start;
+            while (i <= end && count < MAX_FIELDS) {
+                if (i < end && buffer[i] == '"') {
+                    // Tırnaklı alandaki "" tek tırnaktır; alan tampon içinde yerinde sıkıştırılır
+                    int close = i + 1;
+                    int write = i + 1;
+                    while (close < end) {
+                        if (buffer[close] == '"') {
+                            if (close + 1 < end && buffer[close + 1] == '"') {
+                                buffer[write++] = '"';
+                                close += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        buffer[write++] = buffer[close++];
+                    }
+                    starts[count] = i + 1;
+                    ends[count] = write;
+                    i = close + 1;
+                    while (i < end && buffer[i] != ',') {
+                        i++;
+                    }
+                } else {
+                    starts[count] = i;
+                    while (i < end && buffer[i] != ',') {
+                        i++;
+                    }
+                    ends[count] = i;
+                }
+                count++;
+                i++;
+            }
+            return count;
+        }
+
+        /**
+         * Bilinen sütun adlarından (amount, from, to, date) en az birini içeren ilk satır başlık
+         * kabul edilir ve sütunların sırası döner (-1: yok). Başlık değilse null; böylece
+         * {@code 1O0,usd,try} gibi hatalı bir ilk satır başlık sanılmaz, hata satırı olur.
+         */
+        private int[] headerColumns(char[] buffer, int[] starts, int[] ends, int count) {
+            boolean header = false;
+            int[] columns = { -1, -1, -1, -1 };
+            for (int i = 0; i < count; i++) {
+                String name = new String(buffer, starts[i], ends[i] - starts[i]).trim().toLowerCase(Locale.ROOT);
+                int column = switch (name) {
+                    case "amount" -> 0;
+                    case "from" -> 1;
+                    case "to" -> 2;
+                    case "date" -> 3;
+                    default -> -1;
+                };
+                if (column >= 0) {
+                    columns[column] = i;
+                    header = true;
+                }
+            }
+            return header ? columns : null;
+        }
+
+        private void setField(Field field, char[] buffer, int[] starts, int[] ends, int count, int column) {
+            if (column < 0 || column >= count) {
+                field.clear();
+            } else {
+                field.set(buffer, starts[column], ends[column] - starts[column]);
+            }
+        }
+
+        private void convertRow() throws IOException {
+            double value = DecimalText.parse(amount.chars, 0, amount.length, parsed);
+            if (Double.isNaN(value)) {
+                error("invalid amount");
+                return;
+            }
+            int fromId = codes.find(from.chars, 0, from.length);
+            int toId = codes.find(to.chars, 0, to.length);
+            if (fromId < 0 || toId < 0) {
+                error("unknown currency");
+                return;
+            }
+
+            int day = LATEST;
+            if (!date.isEmpty()) {
+                day = DecimalText.parseEpochDay(date.chars, 0, date.length);
+                if (day == DecimalText.INVALID_DAY) {
+                    error("invalid date");
+                    return;
+                }
+                // Upstream'de olmayan günler için istek atılmaz
+                if (day > today) {
+                    error("date in the future");
+                    return;
+                }
+                if (day < earliestDay) {
+                    error("date before earliest available");
+                    return;
+                }
+            }
+
+            PivotVector vector = latest;
+            String vectorDate = latestDate;
+            if (day != LATEST || latest == null) {
+                int baseId = latest != null ? -1 : fromId;
+                long key = (long) day << 32 | (baseId & 0xFFFF_FFFFL);
+                if (day != LATEST && key != lastKey && !snapshots.containsKey(key)
+                        && dateFetches >= maxDateFetches) {
+                    error("too many dates");
+                    return;
+                }
+                vector = snapshot(key, day, baseId);
+                if (vector == null) {
+                    error(day != LATEST ? "rates unavailable for date" : "rates unavailable");
+                    return;
+                }
+                vectorDate = lastText;
+            }
+
+            double rate = rate(vector, fromId, toId);
+            if (Double.isNaN(rate)) {
+                error("rate not available");
+                return;
+            }
+            long converted = convert(rate);
+            if (converted == DecimalText.OUT_OF_RANGE) {
+                error("amount out of range");
+                return;
+            }
+
+            sink.row(lines, amount.chars, 0, amount.length, CurrencyCodeIndex.codeOf(fromId),
+                    CurrencyCodeIndex.codeOf(toId), vectorDate, rate, converted, scale);
+        }
+
+        /**
+         * Satırdaki tutarı kurla çarpıp ölçeksiz sonucu döner. Hızlı yoldan okunamayan (uzun veya
+         * üslü) tutarlar seyrek olduğu için BigDecimal ile hesaplanır.
+         */
+        private long convert(double rate) {
+            int slot = rateSlot(rate);
+            if (parsed.exact) {
+                return DecimalText.multiply(parsed.mantissa, parsed.scale, rateMantissas[slot], rateScales[slot],
+                        scale);
+            }
+            BigInteger unscaled = new BigDecimal(amount.chars, 0, amount.length)
+                    .multiply(BigDecimal.valueOf(rateMantissas[slot], rateScales[slot]))
+                    .setScale(scale, RoundingMode.HALF_EVEN)
+                    .unscaledValue();
+            return unscaled.abs().compareTo(MAX_UNSCALED) < 0 ? unscaled.longValue() : DecimalText.OUT_OF_RANGE;
+        }
+
+        /**
+         * Kurun ondalık mantis ve ölçeğinin tutulduğu yuva; bir dosyadaki farklı kur sayısı az
+         * olduğu için BigDecimal sadece yeni bir kur görüldüğünde üretilir.
+         */
+        private int rateSlot(double rate) {
+            long bits = Double.doubleToRawLongBits(rate);
+            int slot = (int) (bits ^ bits >>> 32) * 0x9E3779B9 >>> 26;
+            if (rateBits[slot] != bits) {
+                BigDecimal decimal = BigDecimal.valueOf(rate);
+                rateBits[slot] = bits;
+                rateMantissas[slot] = decimal.unscaledValue().longValueExact();
+                rateScales[slot] = decimal.scale();
+            }
+            return slot;
+        }
+
+        private double rate(PivotVector vector, int fromId, int toId) {
+            if (vector != memoVector || fromId != memoFrom || toId != memoTo) {
+                memoVector = vector;
+                memoFrom = fromId;
+                memoTo = toId;
+                memoRate = vector.rate(fromId, toId, significantDigits);
+            }
+            return memoRate;
+        }
+
+        /**
+         * Günün ({@link #LATEST}: güncel) snapshot'ı; {@code baseId} -1 ise pivot'unki, değilse
+         * o bazın kendi snapshot'ı. {@code key} gün ve bazın birleşimidir.
+         */
+        private PivotVector snapshot(long key, int day, int baseId) {
+            if (key != lastKey) {
+                Optional<PivotVector> vector = snapshots.get(key);
+                if (vector == null) {
+                    vector = fetch(day, baseId);
+                    snapshots.put(key, vector);
+                }
+                lastKey = key;
+                lastVector = vector.orElse(null);
+                lastText = lastVector != null && lastVector.getDate() != null ? lastVector.getDate().toString()
+                        : day != LATEST ? LocalDate.ofEpochDay(day).toString() : "";
+            }
+            return lastVector;
+        }
+
+        private Optional<PivotVector> fetch(int day, int baseId) {
+            LocalDate date = day != LATEST ? LocalDate.ofEpochDay(day) : null;
+            if (date != null) {
+                dateFetches++;
+            }
+            String base = baseId >= 0 ? CurrencyCodeIndex.codeOf(baseId) : null;
+            Mono<PivotVector> vector = base == null ? crossRateEngine.pivotVector(date)
+                    : date == null ? crossRateEngine.baseVector(base)
+                    : crossRateEngine.baseVector(base, date);
+            try {
+                return Optional.ofNullable(vector.block(timeout));
+            } catch (RuntimeException e) {
+                log.debug("{} {} snapshot alınamadı: {}", base != null ? base : "pivot",
+                        date != null ? date : "güncel", e.getMessage());
+                return Optional.empty();
+            }
+        }
+
+        private void error(String message) throws IOException {
+            errors++;
+            sink.error(lines, message);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,256 @@
+package com.doviz.api.service;
+
+import com.doviz.api.client.ExternalApiClient;
+import com.doviz.api.config.CachePolicyProperties;
+import com.doviz.api.model.CurrencyCatalog;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.Snapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Açılışta ve upstream'in her günlük yayınından sonra para birimi listesini ve sık kullanılan
+ * bazları cache'lere önceden yükler.
+ *
+ * Başarılı her ısınmanın sonucu bir seed dosyasına yazılır. Sonraki açılışta bu dosya ağdan
+ * önce son bilinen iyi kopyalara yüklenir, böylece upstream'e ulaşılamasa da servis veriyle
+ * (stale işaretli olarak) başlar; seed verisi cache'e konmaz, taze gibi servis edilmez.
+ * Upstream'den en az bir değer taze alınana kadar readiness grubundaki {@code warmup} sağlık
+ * göstergesi OUT_OF_SERVICE döner; hiçbir çağrı başarılı olmazsa ısınma {@code retry-delay}
+ * sonra tekrarlanır.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheWarmer {
+
+    private final ExternalApiClient externalApiClient;
+    private final CacheManager cacheManager;
+    private final CachePolicyProperties cachePolicies;
+    private final TaskScheduler taskScheduler;
+    private final ObjectMapper objectMapper;
+    private final Scheduler blockingIoScheduler;
+    private final RateDeltaService rateDeltaService;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.bases:eur,usd,try}")
+    private List<String> bases;
+
+    @Value("${app.warmup.concurrency:4}")
+    private int concurrency;
+
+    @Value("${app.warmup.timeout:30s}")
+    private Duration timeout;
+
+    @Value("${app.warmup.publish-delay:2m}")
+    private Duration publishDelay;
+
+    @Value("${app.warmup.retry-delay:30s}")
+    private Duration retryDelay;
+
+    @Value("${app.warmup.seed-file:./data/warmup-seed.json}")
+    private String seedFile;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean warm;
+    private volatile Instant lastCompleted;
+    private volatile Map<String, String> lastFailures = Map.of();
+
+    /**
+     * Seed dosyasının içeriği; para birimi listesi ve baz başına son kurlar.
+     */
+    public record Seed(CurrencyCatalog currencies, Map<String, CurrencyRates> rates) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            warm = true;
+            return;
+        }
+        loadSeed();
+        warmUp().subscribe();
+
+        LocalTime at = cachePolicies.getPublishTime().plus(publishDelay);
+        String cron = String.format("%d %d %d * * *", at.getSecond(), at.getMinute(), at.getHour());
+        taskScheduler.schedule(() -> warmUp().subscribe(), new CronTrigger(cron, cachePolicies.getPublishZone()));
+        log.info("Cache warm-up scheduled daily at {} {}", at, cachePolicies.getPublishZone());
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public Instant getLastCompleted() {
+        return lastCompleted;
+    }
+
+    public Map<String, String> getLastFailures() {
+        return lastFailures;
+    }
+
+    /**
+     * Listeyi ve bazları cache'leri atlayarak upstream'den çeker ve cache'lere yazar; böylece
+     * henüz süresi dolmamış girdiler de tazelenir. Aynı anda tek ısınma çalışır.
+     */
+    public Mono<Void> warmUp() {
+        if (!running.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        long startedAt = System.nanoTime();
+        Map<String, String> failures = new ConcurrentHashMap<>();
+        Map<String, CurrencyRates> freshRates = new ConcurrentHashMap<>();
+        CurrencyCatalog[] freshCatalog = new CurrencyCatalog[1];
+
+        Mono<Void> currencies = externalApiClient.fetchAllCurrencies()
+                .timeout(timeout)
+                .doOnNext(catalog -> {
+                    if (store("currencies", SimpleKey.EMPTY, catalog)) {
+                        freshCatalog[0] = catalog;
+                    }
+                })
+                .onErrorResume(error -> {
+                    failures.put("currencies", String.valueOf(error.getMessage()));
+                    return Mono.empty();
+                })
+                .then();
+
+        Flux<Void> rates = Flux.fromIterable(bases)
+                .map(String::toLowerCase)
+                .distinct()
+                .flatMap(base -> externalApiClient.fetchCurrencyRates(base)
+                        .timeout(timeout)
+                        .doOnNext(snapshot -> {
+                            if (store("rates", base, snapshot)) {
+                                freshRates.put(base, snapshot);
+                                rateDeltaService.ingest(base, snapshot);
+                            } else {
+                                failures.put(base, "upstream unavailable, serving stale snapshot");
+                            }
+                        })
+                        .onErrorResume(error -> {
+                            failures.put(base, String.valueOf(error.getMessage()));
+                            return Mono.empty();
+                        })
+                        .then(), concurrency);
+
+        return Flux.merge(currencies, rates)
+                .then(Mono.defer(() -> saveSeed(freshCatalog[0], freshRates)))
+                .doFinally(signal -> {
+                    lastFailures = Map.copyOf(failures);
+                    lastCompleted = Instant.now();
+                    running.set(false);
+                    log.info("Cache warm-up finished in {} ms ({} bases, {} failures)",
+                            Duration.ofNanos(System.nanoTime() - startedAt).toMillis(), bases.size(), failures.size());
+                    if (freshCatalog[0] != null || !freshRates.isEmpty()) {
+                        warm = true;
+                    } else if (!warm) {
+                        log.warn("Cache warm-up fetched nothing from upstream, retrying in {}", retryDelay);
+                        taskScheduler.schedule(() -> warmUp().subscribe(), Instant.now().plus(retryDelay));
+                    }
+                });
+    }
+
+    /**
+     * Stale (upstream'e ulaşılamadığı için son kopyadan gelen) değerler cache'e yazılmaz;
+     * cache'te varsa önceki taze değer korunur.
+     */
+    private boolean store(String cacheName, Object key, Snapshot snapshot) {
+        if (snapshot.isStale()) {
+            return false;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.put(key, snapshot);
+        }
+        return true;
+    }
+
+    /**
+     * Seed sadece son bilinen iyi kopyalara yüklenir: upstream cevap verirse taze değer
+     * kullanılır, vermezse seed stale işaretlenerek servis edilir.
+     */
+    private void loadSeed() {
+        Path path = Paths.get(seedFile);
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        try {
+            Seed seed = objectMapper.readValue(path.toFile(), Seed.class);
+            if (seed.currencies() != null) {
+                externalApiClient.seedLastKnownGood(seed.currencies());
+            }
+            if (seed.rates() != null) {
+                seed.rates().forEach((base, rates) -> {
+                    rates.setBase(base);
+                    externalApiClient.seedLastKnownGood(rates);
+                });
+            }
+            log.info("Fallback snapshots seeded from {} ({} bases)", path,
+                    seed.rates() == null ? 0 : seed.rates().size());
+        } catch (IOException e) {
+            log.warn("Could not read warm-up seed {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Yeni seed önceki dosyayla birleştirilir ki bir bazın geçici hatası onu dosyadan silmesin;
+     * yazma geçici dosya üzerinden atomik yapılır.
+     */
+    private Mono<Void> saveSeed(CurrencyCatalog catalog, Map<String, CurrencyRates> rates) {
+        if (catalog == null && rates.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> {
+            Path path = Paths.get(seedFile);
+            try {
+                Seed previous = Files.isRegularFile(path) ? objectMapper.readValue(path.toFile(), Seed.class) : null;
+                Map<String, CurrencyRates> merged = new TreeMap<>();
+                if (previous != null && previous.rates() != null) {
+                    merged.putAll(previous.rates());
+                }
+                merged.putAll(rates);
+                CurrencyCatalog currencies = catalog != null ? catalog
+                        : previous != null ? previous.currencies() : null;
+
+                Path parent = path.toAbsolutePath().getParent();
+                Files.createDirectories(parent);
+                Path temp = Files.createTempFile(parent, "warmup-seed", ".tmp");
+                objectMapper.writeValue(temp.toFile(), new Seed(currencies, merged));
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("Could not write warm-up seed {}: {}", path, e.getMessage());
+            }
+        }).subscribeOn(blockingIoScheduler);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.doviz.api.service;
+
+import com.doviz.api.model.CurrencyCodeIndex;
+
+import java.util.Locale;
+
+/**
+ * Karakter dizisindeki para birimi kodunu {@link CurrencyCodeIndex} numarasına çeviren,
+ * istek ömürlü küçük tablo.
+ *
+ * 8 karaktere kadar ASCII kodlar küçük harfe çevrilip tek bir {@code long} anahtara
+ * paketlenir; aynı kod ikinci kez görüldüğünde String üretilmeden açık adresli tablodan
+ * bulunur. Bilinmeyen kodlar da -1 olarak tutulur, böylece hatalı satırlar da ucuz kalır.
+ */
+final class CodeLookup {
+
+    private static final int CAPACITY = 512;
+    private static final int MAX_ENTRIES = CAPACITY * 3 / 4;
+
+    private final long[] keys = new long[CAPACITY];
+    private final int[] ids = new int[CAPACITY];
+    private int size;
+
+    int find(char[] text, int offset, int length) {
+        if (length == 0) {
+            return -1;
+        }
+        if (length > Long.BYTES) {
+            return resolve(text, offset, length);
+        }
+
+        long key = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = text[i];
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            } else if (c == 0 || c > 127) {
+                return resolve(text, offset, length);
+            }
+            key = key << 8 | c;
+        }
+
+        int slot = (int) (key ^ key >>> 29) * 0x9E3779B9 >>> 23;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return ids[slot];
+            }
+            slot = (slot + 1) & (CAPACITY - 1);
+        }
+
+        int id = resolve(text, offset, length);
+        if (size < MAX_ENTRIES) {
+            keys[slot] = key;
+            ids[slot] = id;
+            size++;
+        }
+        return id;
+    }
+
+    private static int resolve(char[] text, int offset, int length) {
+        return CurrencyCodeIndex.find(new String(text, offset, length).toLowerCase(Locale.ROOT));
+    }
+}
\ No newline at end of file
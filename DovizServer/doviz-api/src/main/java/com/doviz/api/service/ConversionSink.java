@@ -0,0 +1,92 @@
+package com.doviz.api.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Dönüştürülen satırları istenen biçimde (NDJSON veya CSV) yazar.
+ *
+ * Her satır tek bir {@link StringBuilder} içinde kurulur ve yeniden kullanılan bir char
+ * dizisi üzerinden tamponlu yazıcıya aktarılır; tampon dolduğunda satırlar istemciye akar.
+ */
+final class ConversionSink {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "line,amount,from,to,date,rate,converted,error\n";
+
+    private final BulkConversionService.Format format;
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] chars = new char[256];
+
+    ConversionSink(BulkConversionService.Format format, OutputStream out) {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    void header() throws IOException {
+        if (format == BulkConversionService.Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+    }
+
+    /**
+     * Tutar her iki biçimde de girdideki ondalık metinle yazılır; double'a çevrilip geri
+     * yazılmadığı için {@code 0.1} veya 17 basamaklı tutarlar olduğu gibi geri döner.
+     */
+    void row(long lineNumber, char[] amount, int amountOffset, int amountLength,
+            String from, String to, String date, double rate, long converted, int scale) throws IOException {
+        if (format == BulkConversionService.Format.CSV) {
+            line.append(lineNumber).append(',')
+                    .append(amount, amountOffset, amountLength).append(',')
+                    .append(from).append(',')
+                    .append(to).append(',')
+                    .append(date).append(',')
+                    .append(rate).append(',');
+            DecimalText.appendFixed(line, converted, scale);
+            line.append(",\n");
+        } else {
+            line.append("{\"line\":").append(lineNumber).append(",\"amount\":");
+            DecimalText.appendJsonNumber(line, amount, amountOffset, amountLength);
+            line.append(",\"from\":\"").append(from)
+                    .append("\",\"to\":\"").append(to)
+                    .append("\",\"date\":\"").append(date)
+                    .append("\",\"rate\":").append(rate)
+                    .append(",\"converted\":");
+            DecimalText.appendFixed(line, converted, scale);
+            line.append("}\n");
+        }
+        emit();
+    }
+
+    /**
+     * Hata satırı; mesajlar sabit ASCII metinlerdir, kaçış gerektirmez.
+     */
+    void error(long lineNumber, String message) throws IOException {
+        if (format == BulkConversionService.Format.CSV) {
+            line.append(lineNumber).append(",,,,,,,").append(message).append('\n');
+        } else {
+            line.append("{\"line\":").append(lineNumber)
+                    .append(",\"error\":\"").append(message).append("\"}\n");
+        }
+        emit();
+    }
+
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void emit() throws IOException {
+        int length = line.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        line.getChars(0, length, chars, 0);
+        writer.write(chars, 0, length);
+        line.setLength(0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,203 @@
+package com.doviz.api.service;
+
+import com.doviz.api.client.ExternalApiClient;
+import com.doviz.api.model.CurrencyCodeIndex;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateTable;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tüm çiftleri tek bir pivot (örn. EUR) snapshot'ından türeten çapraz kur motoru.
+ *
+ * Pivot tablosu kod numarasıyla indekslenen bir {@link RateTable} vektörüdür; herhangi
+ * bir from/to çifti {@code pivot[to] / pivot[from]} olarak hesaplanır. Türetilen kurlar
+ * yapılandırılan anlamlı basamak sayısına yuvarlanır. Baz veya istenen hedeflerden biri pivot
+ * tablosunda yoksa çağıran taraf bazın kendi snapshot'ına düşer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CrossRateEngine {
+
+    private final ExternalApiClient externalApiClient;
+
+    @Value("${app.cross-rate.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cross-rate.pivot:eur}")
+    private String pivot;
+
+    @Value("${app.cross-rate.significant-digits:10}")
+    private int significantDigits;
+
+    private volatile PivotVector current;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Güncel pivot vektörü; upstream snapshot'ı "rates" cache'inden geldiği için
+     * vektör sadece snapshot değiştiğinde yeniden kurulur.
+     */
+    public Mono<PivotVector> pivotVector() {
+        return externalApiClient.getCurrencyRates(pivot)
+                .map(this::vectorFor);
+    }
+
+    /**
+     * Belirli bir günün pivot vektörü; tarihli snapshot'lar değişmediği için vektör
+     * önbelleğe alınmaz, tutmak çağıranın işidir.
+     */
+    public Mono<PivotVector> pivotVector(LocalDate date) {
+        return externalApiClient.getHistoricalRates(pivot, date)
+                .map(PivotVector::new);
+    }
+
+    /**
+     * Bazın kendi upstream snapshot'ından kurulan vektör; çapraz kur kapalıyken kullanılır. Bu
+     * bazdan diğer kodlara kurlar upstream değerleridir, türetilmez ve yuvarlanmaz.
+     */
+    public Mono<PivotVector> baseVector(String base) {
+        return externalApiClient.getCurrencyRates(base)
+                .map(PivotVector::new);
+    }
+
+    public Mono<PivotVector> baseVector(String base, LocalDate date) {
+        return externalApiClient.getHistoricalRates(base, date)
+                .map(PivotVector::new);
+    }
+
+    public int getSignificantDigits() {
+        return significantDigits;
+    }
+
+    /**
+     * Baz para birimi için sadece istenen hedeflerden oluşan tablo; baz veya hedeflerden biri
+     * pivot tablosunda yoksa boş döner.
+     */
+    public Mono<CurrencyRates> table(String base, List<String> targets) {
+        return pivotVector().flatMap(vector -> Mono.justOrEmpty(vector.table(base, targets, significantDigits)));
+    }
+
+    private PivotVector vectorFor(CurrencyRates rates) {
+        PivotVector vector = current;
+        if (vector != null && vector.source == rates) {
+            return vector;
+        }
+        vector = new PivotVector(rates);
+        current = vector;
+        log.debug("Cross-rate pivot {} rebuilt with {} rates for {}", pivot, vector.values.size(), vector.date);
+        return vector;
+    }
+
+    static double roundToSignificant(double value, int digits) {
+        if (value == 0 || Double.isNaN(value) || Double.isInfinite(value) || digits <= 0 || digits > 15) {
+            return value;
+        }
+        int scale = digits - 1 - (int) Math.floor(Math.log10(Math.abs(value)));
+        if (scale > 300 || scale < -300) {
+            return value;
+        }
+        double factor = Math.pow(10, Math.abs(scale));
+        return scale >= 0
+                ? Math.rint(value * factor) / factor
+                : Math.rint(value / factor) * factor;
+    }
+
+    public static final class PivotVector {
+
+        private final CurrencyRates source;
+        private final LocalDate date;
+        private final RateTable values;
+        private final int pivotId;
+
+        PivotVector(CurrencyRates source) {
+            this.source = source;
+            this.date = source.getDate();
+            this.values = source.getRates();
+            this.pivotId = source.getBase() != null ? CurrencyCodeIndex.idOf(source.getBase()) : -1;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public boolean contains(String code) {
+            return !Double.isNaN(value(CurrencyCodeIndex.find(code)));
+        }
+
+        /**
+         * Kod numaralarıyla kur; kodlardan biri pivot tablosunda yoksa NaN döner.
+         */
+        public double rate(int fromId, int toId, int significantDigits) {
+            if (Double.isNaN(value(fromId)) || Double.isNaN(value(toId))) {
+                return Double.NaN;
+            }
+            return derive(fromId, toId, significantDigits);
+        }
+
+        CurrencyRates table(String base, List<String> targets, int significantDigits) {
+            int baseId = CurrencyCodeIndex.find(base);
+            if (Double.isNaN(value(baseId))) {
+                return null;
+            }
+
+            RateTable.Builder rates = RateTable.builder();
+            if (targets == null || targets.isEmpty()) {
+                values.forEach((code, rate) -> {
+                    int id = CurrencyCodeIndex.find(code);
+                    rates.putById(id, derive(baseId, id, significantDigits));
+                });
+                if (pivotId >= 0) {
+                    rates.putById(pivotId, derive(baseId, pivotId, significantDigits));
+                }
+            } else {
+                for (String target : targets) {
+                    int id = CurrencyCodeIndex.find(target);
+                    if (Double.isNaN(value(id))) {
+                        return null;
+                    }
+                    rates.putById(id, derive(baseId, id, significantDigits));
+                }
+            }
+            CurrencyRates table = new CurrencyRates(CurrencyCodeIndex.codeOf(baseId), date, rates.build());
+            table.setStale(source.isStale());
+            return table;
+        }
+
+        /**
+         * Pivot'a göre kur; pivot'un kendisi tabloda olmasa da 1.0 kabul edilir.
+         */
+        private double value(int id) {
+            if (id < 0) {
+                return Double.NaN;
+            }
+            double value = values.getById(id);
+            if (Double.isNaN(value) && id == pivotId) {
+                return 1.0;
+            }
+            return value > 0 ? value : Double.NaN;
+        }
+
+        private double derive(int fromId, int toId, int significantDigits) {
+            if (fromId == toId) {
+                return 1.0;
+            }
+            // Pivot'tan türetilen kurlar upstream değeriyle aynıdır, yuvarlanmaz. Kuru tam 1.0
+            // olan başka bir kod (sabit paritedeki bir para birimi) pivot sayılmaz.
+            if (fromId == pivotId) {
+                return value(toId);
+            }
+            return roundToSignificant(value(toId) / value(fromId), significantDigits);
+        }
+    }
+}
\ No newline at end of file
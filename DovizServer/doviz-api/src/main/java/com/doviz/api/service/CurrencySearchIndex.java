@@ -0,0 +1,393 @@
+package com.doviz.api.service;
+
+import com.doviz.api.model.CurrencyCatalog;
+import com.doviz.api.model.CurrencyMatch;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Para birimi kataloğu üzerinde kod ve isimle arama indeksi; katalog başına bir kez kurulur.
+ *
+ * Sorgu ve katalog metinleri aynı şekilde normalize edilir (küçük harf, aksan ve Türkçe
+ * karakterler ASCII karşılığına), böylece "turk lirasi", "Türk Lirası" ile eşleşir. Adaylar
+ * üç yoldan toplanır: kod, tam isim ve isimdeki kelimelerin önek ağacı (trie), isim/kod
+ * trigram'larının ters indeksi ve kısa terimlerin silme komşuları. Adaylar önce eşleşme türüne
+ * (tam kod, tam isim, önek), sonra edit mesafesi ve trigram benzerliğine göre sıralanır.
+ *
+ * Kısa sorgular (çoğunlukla yanlış yazılmış kodlar: "uds", "eru") trigram'la yakalanmayabilir.
+ * Bunlar için en çok {@value #MAX_TYPO_TERM} karakterlik her terimin en çok
+ * {@value #MAX_DELETIONS} harf silinerek elde edilen halleri indekslenir; sorgunun da silme
+ * komşuları aranır. İki terim arasındaki mesafe (komşu harf yer değiştirmesi dahil) k ise ikisinden
+ * de en çok k harf silinerek ortak bir hale ulaşılır; kısa sorgularda {@code MIN_SIMILARITY}'nin
+ * izin verdiği mesafe 2'yi, terim uzunluğu 6'yı geçmediği için bu adaylar tam taramayla aynıdır.
+ */
+final class CurrencySearchIndex {
+
+    /** Bulanık eşleşmelerde kabul edilen en düşük benzerlik (difflib cutoff'u ile aynı) */
+    private static final double MIN_SIMILARITY = 0.6;
+    private static final int SHORT_QUERY = 4;
+    private static final int MAX_TYPO_TERM = 6;
+    private static final int MAX_DELETIONS = 2;
+
+    private final CurrencyCatalog source;
+    private final String[] codes;
+    private final String[] names;
+    private final String[] normalizedCodes;
+    private final String[] normalizedNames;
+    private final String[][] words;
+    private final int[] trigramCounts;
+    private final TrieNode trie = new TrieNode();
+    private final Map<Long, int[]> trigrams;
+    private final Map<String, int[]> deletions;
+
+    CurrencySearchIndex(CurrencyCatalog catalog) {
+        int size = catalog.size();
+        this.source = catalog;
+        this.codes = new String[size];
+        this.names = new String[size];
+        this.normalizedCodes = new String[size];
+        this.normalizedNames = new String[size];
+        this.words = new String[size][];
+        this.trigramCounts = new int[size];
+
+        Map<Long, int[]> postings = new HashMap<>();
+        Map<String, int[]> neighbours = new HashMap<>();
+        for (int id = 0; id < size; id++) {
+            codes[id] = catalog.getCode(id);
+            names[id] = catalog.getName(id) != null ? catalog.getName(id) : "";
+            normalizedCodes[id] = normalize(codes[id]);
+            normalizedNames[id] = normalize(names[id]);
+            words[id] = normalizedNames[id].isEmpty() ? new String[0] : normalizedNames[id].split(" ");
+
+            trie.insert(normalizedCodes[id], id);
+            trie.insert(normalizedNames[id], id);
+            for (String word : words[id]) {
+                trie.insert(word, id);
+            }
+
+            long[] grams = trigrams(normalizedCodes[id] + " " + normalizedNames[id]);
+            trigramCounts[id] = grams.length;
+            for (long gram : grams) {
+                postings.merge(gram, new int[] { id }, CurrencySearchIndex::appendPosting);
+            }
+
+            Set<String> variants = new HashSet<>();
+            addDeletions(normalizedCodes[id], variants);
+            addDeletions(normalizedNames[id], variants);
+            for (String word : words[id]) {
+                addDeletions(word, variants);
+            }
+            for (String variant : variants) {
+                neighbours.merge(variant, new int[] { id }, CurrencySearchIndex::appendPosting);
+            }
+        }
+        this.trigrams = postings;
+        this.deletions = neighbours;
+    }
+
+    CurrencyCatalog source() {
+        return source;
+    }
+
+    List<CurrencyMatch> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+
+        boolean[] candidate = new boolean[codes.length];
+        TrieNode prefix = trie.find(q);
+        if (prefix != null) {
+            for (int i = 0; i < prefix.size; i++) {
+                candidate[prefix.entries[i]] = true;
+            }
+        }
+
+        long[] queryGrams = trigrams(q);
+        int[] shared = new int[codes.length];
+        for (long gram : queryGrams) {
+            int[] ids = trigrams.get(gram);
+            if (ids != null) {
+                for (int id : ids) {
+                    shared[id]++;
+                    candidate[id] = true;
+                }
+            }
+        }
+
+        if (q.length() <= SHORT_QUERY) {
+            if (q.indexOf(' ') < 0) {
+                Set<String> variants = new HashSet<>();
+                addDeletions(q, variants);
+                for (String variant : variants) {
+                    int[] ids = deletions.get(variant);
+                    if (ids != null) {
+                        for (int id : ids) {
+                            candidate[id] = true;
+                        }
+                    }
+                }
+            } else {
+                // Çok kelimeli kısa sorgular ("us d") kelime kelime eşlenir; nadir oldukları
+                // için indekslenmez, tam taramaya düşer
+                Arrays.fill(candidate, true);
+            }
+        }
+
+        List<CurrencyMatch> matches = new ArrayList<>();
+        for (int id = 0; id < codes.length; id++) {
+            if (candidate[id]) {
+                CurrencyMatch match = score(id, q, queryGrams.length, shared[id]);
+                if (match != null) {
+                    matches.add(match);
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(CurrencyMatch::getScore).reversed()
+                .thenComparingInt(match -> match.getCode().length())
+                .thenComparing(CurrencyMatch::getCode));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    private CurrencyMatch score(int id, String q, int queryGrams, int shared) {
+        String code = normalizedCodes[id];
+        String name = normalizedNames[id];
+        if (code.equals(q)) {
+            return match(id, 1.0, "code");
+        }
+        if (name.equals(q)) {
+            return match(id, 0.98, "name");
+        }
+        if (code.startsWith(q)) {
+            return match(id, 0.9 + 0.05 * q.length() / code.length(), "prefix");
+        }
+        double prefix = prefixScore(name, q);
+        for (String word : words[id]) {
+            prefix = Math.max(prefix, prefixScore(word, q));
+        }
+        if (prefix > 0) {
+            return match(id, prefix, "prefix");
+        }
+
+        double similarity = similarity(q, code);
+        similarity = Math.max(similarity, similarity(q, name));
+        for (String word : words[id]) {
+            similarity = Math.max(similarity, similarity(q, word));
+        }
+        if (q.indexOf(' ') > 0) {
+            similarity = Math.max(similarity, wordSimilarity(q.split(" "), words[id]));
+        }
+        if (queryGrams > 0) {
+            similarity = Math.max(similarity, 2.0 * shared / (queryGrams + trigramCounts[id]));
+        }
+        return similarity >= MIN_SIMILARITY ? match(id, 0.75 * similarity, "fuzzy") : null;
+    }
+
+    private CurrencyMatch match(int id, double score, String type) {
+        return new CurrencyMatch(codes[id], names[id], Math.round(score * 1000) / 1000.0, type);
+    }
+
+    private static double prefixScore(String term, String q) {
+        return term.startsWith(q) ? 0.8 + 0.1 * q.length() / term.length() : 0;
+    }
+
+    /**
+     * Çok kelimeli sorgular kelime kelime eşlenir ("turk lirasi" → "turkish lira"): her sorgu
+     * kelimesi için isimdeki en iyi kelime alınır, önek tam eşleşme sayılır. Ortalama biraz
+     * kırpılır ki tam isim benzerliğinin önüne geçmesin.
+     */
+    private static double wordSimilarity(String[] queryWords, String[] nameWords) {
+        double total = 0;
+        for (String queryWord : queryWords) {
+            double best = 0;
+            for (String word : nameWords) {
+                best = Math.max(best, word.startsWith(queryWord) ? 1.0 : similarity(queryWord, word));
+            }
+            if (best < MIN_SIMILARITY) {
+                return 0;
+            }
+            total += best;
+        }
+        return 0.95 * total / queryWords.length;
+    }
+
+    private static double similarity(String a, String b) {
+        int length = Math.max(a.length(), b.length());
+        if (length == 0 || Math.abs(a.length() - b.length()) > length * (1 - MIN_SIMILARITY)) {
+            return 0;
+        }
+        return 1.0 - (double) editDistance(a, b) / length;
+    }
+
+    /**
+     * Komşu harf yer değiştirmesini tek işlem sayan edit mesafesi (optimal string alignment);
+     * "uds" → "usd" 1'dir.
+     */
+    static int editDistance(String a, String b) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Küçük harfe çevirir, aksanları atar ve harf/rakam dışındaki her şeyi tek boşluğa indirir.
+     * Ayrışmayan harfler (ı, ø, ß, æ, œ, ł, đ, þ) ASCII karşılıklarına açılır.
+     */
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean space = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            c = Character.toLowerCase(c);
+            if (Character.isLetterOrDigit(c)) {
+                switch (c) {
+                    case 'ı' -> out.append('i');
+                    case 'ø' -> out.append('o');
+                    case 'ß' -> out.append("ss");
+                    case 'æ' -> out.append("ae");
+                    case 'œ' -> out.append("oe");
+                    case 'ł' -> out.append('l');
+                    case 'đ' -> out.append('d');
+                    case 'þ' -> out.append("th");
+                    default -> out.append(c);
+                }
+                space = false;
+            } else if (!space) {
+                out.append(' ');
+                space = true;
+            }
+        }
+        int length = out.length();
+        if (length > 0 && out.charAt(length - 1) == ' ') {
+            out.setLength(length - 1);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Başına ve sonuna boşluk eklenmiş metnin tekil trigram'ları, üç karakter bir long'a paketlenmiş.
+     */
+    private static long[] trigrams(String text) {
+        String padded = " " + text + " ";
+        long[] grams = new long[Math.max(0, padded.length() - 2)];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = (long) padded.charAt(i) << 32 | (long) padded.charAt(i + 1) << 16 | padded.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /**
+     * {@value #MAX_TYPO_TERM} karakteri geçmeyen terimin kendisini ve en çok
+     * {@value #MAX_DELETIONS} harf silinmiş hallerini ekler.
+     */
+    private static void addDeletions(String term, Set<String> out) {
+        if (term.length() <= MAX_TYPO_TERM) {
+            addDeletions(term, MAX_DELETIONS, out);
+        }
+    }
+
+    private static void addDeletions(String term, int remaining, Set<String> out) {
+        out.add(term);
+        if (remaining > 0) {
+            for (int i = 0; i < term.length(); i++) {
+                addDeletions(term.substring(0, i) + term.substring(i + 1), remaining - 1, out);
+            }
+        }
+    }
+
+    private static int[] appendPosting(int[] postings, int[] single) {
+        int id = single[0];
+        if (postings[postings.length - 1] == id) {
+            return postings;
+        }
+        int[] grown = Arrays.copyOf(postings, postings.length + 1);
+        grown[postings.length] = id;
+        return grown;
+    }
+
+    /**
+     * Önek ağacı düğümü; her düğüm, altındaki terimlerin ait olduğu kayıtları tutar, böylece
+     * önek sorgusu düğüme inmek kadar sürer.
+     */
+    private static final class TrieNode {
+
+        private char[] keys = new char[0];
+        private TrieNode[] children = new TrieNode[0];
+        private int[] entries = new int[2];
+        private int size;
+
+        void insert(String term, int id) {
+            TrieNode node = this;
+            for (int i = 0; i < term.length(); i++) {
+                node = node.child(term.charAt(i), true);
+                node.add(id);
+            }
+        }
+
+        TrieNode find(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i), false);
+            }
+            return node;
+        }
+
+        private TrieNode child(char key, boolean create) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            if (!create) {
+                return null;
+            }
+            TrieNode node = new TrieNode();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = key;
+            children[children.length - 1] = node;
+            return node;
+        }
+
+        private void add(int id) {
+            if (size > 0 && entries[size - 1] == id) {
+                return;
+            }
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = id;
+        }
+    }
+}
\ No newline at end of file
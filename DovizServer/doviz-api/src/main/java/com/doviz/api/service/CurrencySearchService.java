@@ -0,0 +1,67 @@
+package com.doviz.api.service;
+
+import com.doviz.api.client.ExternalApiClient;
+import com.doviz.api.model.ApiResponse;
+import com.doviz.api.model.CurrencyCatalog;
+import com.doviz.api.model.CurrencyMatch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Para birimi kataloğunda kod/isim araması. İndeks "currencies" cache'inden gelen katalog
+ * değiştiğinde yeniden kurulur; aradaki sorgular aynı indeksi paylaşır.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CurrencySearchService {
+
+    private static final int MAX_LIMIT = 50;
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private final ExternalApiClient externalApiClient;
+
+    private volatile CurrencySearchIndex current;
+
+    public Mono<ApiResponse<List<CurrencyMatch>>> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return Mono.just(ApiResponse.error("Query must not be empty"));
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            return Mono.just(ApiResponse.error("Query must be at most " + MAX_QUERY_LENGTH + " characters"));
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return Mono.just(ApiResponse.error("Limit must be between 1 and " + MAX_LIMIT));
+        }
+
+        return externalApiClient.getAllCurrencies()
+                .map(catalog -> {
+                    List<CurrencyMatch> matches = indexFor(catalog).search(query, limit);
+                    ApiResponse<List<CurrencyMatch>> response = ApiResponse.success(matches);
+                    if (catalog.isStale()) {
+                        response.withMetadata("stale", true);
+                    }
+                    return response;
+                })
+                .doOnError(error -> log.error("Error in searchCurrencies: {}", error.getMessage()));
+    }
+
+    private CurrencySearchIndex indexFor(CurrencyCatalog catalog) {
+        CurrencySearchIndex index = current;
+        // Stale kopyalar her seferinde yeni nesnedir; içerik aynıysa indeks yeniden kurulmaz
+        if (index != null && (index.source() == catalog || index.source().equals(catalog))) {
+            return index;
+        }
+        long started = System.nanoTime();
+        index = new CurrencySearchIndex(catalog);
+        current = index;
+        log.debug("Currency search index rebuilt for {} currencies in {} µs", catalog.size(),
+                (System.nanoTime() - started) / 1_000);
+        return index;
+    }
+}
\ No newline at end of file
@@ -1,176 +1,449 @@
-package com.doviz.api.service;
-
-import com.doviz.api.client.ExternalApiClient;
-import com.doviz.api.model.*;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Service;
-import reactor.core.publisher.Mono;
-
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.*;
-import java.util.stream.Collectors;
-
-@Slf4j
-@Service
-@RequiredArgsConstructor
-public class CurrencyService {
-
-    private final ExternalApiClient externalApiClient;
-
-    public Mono<ApiResponse<Object>> getAllCurrencies() {
-        return externalApiClient.getAllCurrencies()
-                .map(ApiResponse::success)
-                .doOnError(error -> log.error("Error in getAllCurrencies: {}", error.getMessage()));
-    }
-
-    public Mono<ApiResponse<CurrencyRates>> getCurrencyRates(String baseCurrency) {
-        return externalApiClient.getCurrencyRates(baseCurrency)
-                .map(ApiResponse::success)
-                .doOnError(error -> log.error("Error in getCurrencyRates: {}", error.getMessage()));
-    }
-
-    public Mono<ApiResponse<CurrencyRates>> getCurrencyRatesWithTargets(String baseCurrency, List<String> targets) {
-        return externalApiClient.getCurrencyRates(baseCurrency)
-                .map(rates -> {
-                    if (rates == null || rates.getRates() == null) {
-                        throw new RuntimeException("No rates data available for " + baseCurrency);
-                    }
-                    return filterRatesByTargets(rates, targets);
-                })
-                .map(ApiResponse::success)
-                .doOnError(error -> log.error("Error in getCurrencyRatesWithTargets: {}", error.getMessage()));
-    }
-
-    public Mono<ApiResponse<ExchangeRate>> getSingleRate(String from, String to) {
-        return externalApiClient.getCurrencyRates(from)
-                .flatMap(rates -> {
-                    if (rates == null || rates.getRates() == null) {
-                        return Mono.error(new RuntimeException("No rates data available for " + from));
-                    }
-
-                    Double rate = rates.getRates().get(to.toLowerCase());
-                    if (rate == null) {
-                        return Mono.error(new RuntimeException("Rate not found for " + from + " to " + to));
-                    }
-
-                    ExchangeRate exchangeRate = new ExchangeRate(
-                            from.toUpperCase(),
-                            to.toUpperCase(),
-                            java.math.BigDecimal.valueOf(rate),
-                            LocalDate.now(),
-                            System.currentTimeMillis());
-
-                    return Mono.just(ApiResponse.success(exchangeRate));
-                })
-                .doOnError(error -> log.error("Error in getSingleRate: {}", error.getMessage()));
-    }
-
-    public Mono<ApiResponse<CurrencyRates>> getHistoricalRates(String baseCurrency, String date) {
-        try {
-            LocalDate localDate = LocalDate.parse(date, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            return externalApiClient.getHistoricalRates(baseCurrency, localDate)
-                    .map(ApiResponse::success)
-                    .doOnError(error -> log.error("Error in getHistoricalRates: {}", error.getMessage()));
-        } catch (Exception e) {
-            return Mono.just(ApiResponse.error("Invalid date format. Use YYYY-MM-DD"));
-        }
-    }
-
-    public Mono<ApiResponse<List<ExchangeRate>>> getRateRange(String baseCurrency, String targetCurrency,
-            String startDate, String endDate) {
-        try {
-            LocalDate start = LocalDate.parse(startDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            LocalDate end = LocalDate.parse(endDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-
-            if (start.isAfter(end)) {
-                return Mono.just(ApiResponse.error("Start date cannot be after end date"));
-            }
-
-            List<ExchangeRate> rateHistory = new ArrayList<>();
-            LocalDate current = start;
-
-            while (!current.isAfter(end)) {
-                try {
-                    CurrencyRates rates = externalApiClient.getHistoricalRates(baseCurrency, current).block();
-                    System.out.println("DATE: " + rates.getDate());
-                    System.out.println("RATES: " + rates.getRates());
-
-                    if (rates != null && rates.getRates() != null) {
-                        Map<String, Double> map = rates.getRates();
-
-                        // Keyleri normalize et
-                        Double rate = map.get(targetCurrency.toLowerCase());
-                        if (rate == null) {
-                            rate = map.get(targetCurrency.toUpperCase());
-                        }
-                        if (rate == null) {
-                            rate = map.entrySet().stream()
-                                    .filter(e -> e.getKey().equalsIgnoreCase(targetCurrency))
-                                    .map(Map.Entry::getValue)
-                                    .findFirst()
-                                    .orElse(null);
-                        }
-
-                        if (rate != null) {
-                            rateHistory.add(new ExchangeRate(
-                                    baseCurrency.toUpperCase(),
-                                    targetCurrency.toUpperCase(),
-                                    java.math.BigDecimal.valueOf(rate),
-                                    current,
-                                    System.currentTimeMillis()));
-                        } else {
-                            log.warn("Rate for {} not found on {}", targetCurrency, current);
-                        }
-                    }
-
-                } catch (Exception e) {
-                    log.warn("Could not fetch rate for {} on {}", current, e.getMessage());
-                }
-                current = current.plusDays(1);
-            }
-
-            return Mono.just(ApiResponse.success(rateHistory,
-                    String.format("Fetched %d rates from %s to %s", rateHistory.size(), startDate, endDate)));
-
-        } catch (Exception e) {
-            return Mono.just(ApiResponse.error("Invalid date format. Use YYYY-MM-DD"));
-        }
-    }
-
-    public Mono<ApiResponse<CurrencyRates>> getCryptoRates(String baseCrypto, List<String> targets) {
-        return externalApiClient.getCurrencyRates(baseCrypto)
-                .map(rates -> {
-                    if (rates == null || rates.getRates() == null) {
-                        throw new RuntimeException("No crypto rates data available for " + baseCrypto);
-                    }
-                    return filterRatesByTargets(rates, targets);
-                })
-                .map(ApiResponse::success)
-                .doOnError(error -> log.error("Error in getCryptoRates: {}", error.getMessage()));
-    }
-
-    public Mono<ApiResponse<CurrencyRates>> getMinifiedRates(String baseCurrency) {
-        return externalApiClient.getMinifiedRates(baseCurrency)
-                .map(ApiResponse::success)
-                .doOnError(error -> log.error("Error in getMinifiedRates: {}", error.getMessage()));
-    }
-
-    private CurrencyRates filterRatesByTargets(CurrencyRates rates, List<String> targets) {
-        if (rates == null || rates.getRates() == null) {
-            throw new RuntimeException("No rates data available for filtering");
-        }
-
-        if (targets == null || targets.isEmpty()) {
-            return rates;
-        }
-
-        Map<String, Double> filteredRates = rates.getRates().entrySet().stream()
-                .filter(entry -> targets.stream()
-                        .anyMatch(target -> target.equalsIgnoreCase(entry.getKey())))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-        return new CurrencyRates(rates.getBase(), rates.getDate(), filteredRates);
-    }
+package com.doviz.api.service;
+
+import com.doviz.api.client.ExternalApiClient;
+import com.doviz.api.model.*;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CurrencyService {
+
+    private static final int MAX_CHART_POINTS = 5000;
+    private static final int MAX_RANGE_TARGETS = 50;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final ExternalApiClient externalApiClient;
+    private final CrossRateEngine crossRateEngine;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.range.concurrency:8}")
+    private int rangeConcurrency;
+
+    @Value("${app.range.max-days:366}")
+    private int maxRangeDays;
+
+    // Analitik cevabı aralıkla büyümez ama her gün yine tek tek okunur; bu yüzden sınır daha geniştir
+    @Value("${app.range.analytics-max-days:3660}")
+    private int maxAnalyticsDays;
+
+    public Mono<ApiResponse<CurrencyCatalog>> getAllCurrencies() {
+        return externalApiClient.getAllCurrencies()
+                .map(catalog -> withFreshness(ApiResponse.success(catalog), catalog))
+                .doOnError(error -> log.error("Error in getAllCurrencies: {}", error.getMessage()));
+    }
+
+    public Mono<ApiResponse<CurrencyRates>> getCurrencyRates(String baseCurrency) {
+        return externalApiClient.getCurrencyRates(baseCurrency)
+                .map(rates -> withFreshness(ApiResponse.success(rates), rates))
+                .doOnError(error -> log.error("Error in getCurrencyRates: {}", error.getMessage()));
+    }
+
+    public Mono<ApiResponse<CurrencyRates>> getCurrencyRatesWithTargets(String baseCurrency, List<String> targets) {
+        return crossRateTable(baseCurrency, targets)
+                .switchIfEmpty(Mono.defer(() -> externalApiClient.getCurrencyRates(baseCurrency)
+                        .map(rates -> {
+                            if (rates == null || rates.getRates() == null) {
+                                throw new RuntimeException("No rates data available for " + baseCurrency);
+                            }
+                            return filterRatesByTargets(rates, targets);
+                        })))
+                .map(rates -> withFreshness(ApiResponse.success(rates), rates))
+                .doOnError(error -> log.error("Error in getCurrencyRatesWithTargets: {}", error.getMessage()));
+    }
+
+    public Mono<ApiResponse<ExchangeRate>> getSingleRate(String from, String to) {
+        return crossRateTable(from, List.of(to))
+                .switchIfEmpty(Mono.defer(() -> externalApiClient.getCurrencyRates(from)))
+                .flatMap(rates -> {
+                    if (rates == null || rates.getRates() == null) {
+                        return Mono.error(new RuntimeException("No rates data available for " + from));
+                    }
+
+                    double rate = rates.getRates().get(to);
+                    if (Double.isNaN(rate)) {
+                        return Mono.error(new RuntimeException("Rate not found for " + from + " to " + to));
+                    }
+
+                    ExchangeRate exchangeRate = new ExchangeRate(
+                            from.toUpperCase(),
+                            to.toUpperCase(),
+                            java.math.BigDecimal.valueOf(rate),
+                            LocalDate.now(),
+                            System.currentTimeMillis());
+
+                    return Mono.just(withFreshness(ApiResponse.success(exchangeRate), rates));
+                })
+                .doOnError(error -> log.error("Error in getSingleRate: {}", error.getMessage()));
+    }
+
+    public Mono<ApiResponse<CurrencyRates>> getHistoricalRates(String baseCurrency, String date) {
+        LocalDate localDate;
+        try {
+            localDate = parseDate(date);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ApiResponse.error(e.getMessage()));
+        }
+        return externalApiClient.getHistoricalRates(baseCurrency, localDate)
+                .map(ApiResponse::success)
+                .doOnError(error -> log.error("Error in getHistoricalRates: {}", error.getMessage()));
+    }
+
+    public Mono<ApiResponse<List<ExchangeRate>>> getRateRange(String baseCurrency, String targetCurrency,
+            String startDate, String endDate) {
+        DateRange range;
+        // Mevcut istemciler uzun aralıklar istiyor olabilir; bu uç geriye uyum için sınırsız kalır
+        try {
+            range = parseRange(startDate, endDate, Integer.MAX_VALUE);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ApiResponse.error(e.getMessage()));
+        }
+        LocalDate start = range.start();
+        LocalDate end = range.end();
+
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        DistributionSummary.builder("doviz.range.days")
+                .description("Requested day count per range query")
+                .register(meterRegistry)
+                .record(days);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String span = spanBucket(days);
+
+        // Günler eşzamanlı çekilir, flatMapSequential sonuçları yine tarih sırasında verir
+        return Flux.fromStream(start.datesUntil(end.plusDays(1)))
+                .flatMapSequential(date -> fetchDailyRate(baseCurrency, targetCurrency, date), rangeConcurrency)
+                .collectList()
+                .map(results -> {
+                    List<ExchangeRate> rateHistory = new ArrayList<>(results.size());
+                    List<RateFailure> failures = new ArrayList<>();
+                    for (DailyRate result : results) {
+                        if (result.rate() != null) {
+                            rateHistory.add(result.rate());
+                        } else {
+                            failures.add(result.failure());
+                        }
+                    }
+
+                    ApiResponse<List<ExchangeRate>> response = ApiResponse.success(rateHistory,
+                            String.format("Fetched %d rates from %s to %s", rateHistory.size(), startDate, endDate));
+                    if (!failures.isEmpty()) {
+                        response.withMetadata("failures", failures);
+                    }
+                    return response;
+                })
+                .doFinally(signal -> sample.stop(Timer.builder("doviz.range.duration")
+                        .description("Range query latency by requested span")
+                        .tag("span", span)
+                        .register(meterRegistry)))
+                .doOnError(error -> log.error("Error in getRateRange: {}", error.getMessage()));
+    }
+
+    /**
+     * Birden çok hedefin aralığı tek geçişte: her gün için (baz, tarih) snapshot'ı bir kez
+     * okunur ve tüm hedeflerin sütunlarına dağıtılır. Günler tarih sırasından bağımsız
+     * tamamlanabildiği için sıralı birleştirme gerekmez; her gün kendi indeksine yazılır.
+     */
+    public Mono<ApiResponse<RangeColumns>> getRateColumns(String baseCurrency, List<String> targets,
+            String startDate, String endDate) {
+        DateRange range;
+        try {
+            range = parseRange(startDate, endDate, maxRangeDays);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ApiResponse.error(e.getMessage()));
+        }
+        LocalDate start = range.start();
+        LocalDate end = range.end();
+
+        List<String> codes = targets == null ? List.of() : targets.stream()
+                .map(String::trim)
+                .filter(code -> !code.isEmpty())
+                .map(String::toLowerCase)
+                .distinct()
+                .toList();
+        if (codes.isEmpty()) {
+            return Mono.just(ApiResponse.error("At least one target currency is required"));
+        }
+        if (codes.size() > MAX_RANGE_TARGETS) {
+            return Mono.just(ApiResponse.error("At most " + MAX_RANGE_TARGETS + " target currencies are allowed"));
+        }
+
+        List<LocalDate> dates = start.datesUntil(end.plusDays(1)).toList();
+        String base = baseCurrency.toLowerCase();
+
+        return Flux.range(0, dates.size())
+                .flatMap(index -> externalApiClient.getHistoricalRates(base, dates.get(index))
+                        .map(rates -> DailySnapshot.of(index, rates))
+                        .defaultIfEmpty(DailySnapshot.failed(index, "No rates data available"))
+                        .onErrorResume(error -> {
+                            log.warn("Could not fetch rates for {} on {}: {}", base, dates.get(index),
+                                    error.getMessage());
+                            return Mono.just(DailySnapshot.failed(index, error.getMessage()));
+                        }), rangeConcurrency)
+                .reduceWith(() -> new ColumnBuilder(codes, dates), ColumnBuilder::accept)
+                .map(builder -> {
+                    ApiResponse<RangeColumns> response = ApiResponse.success(builder.build(base, start, end),
+                            String.format("Fetched %d days for %d targets from %s to %s", dates.size(),
+                                    codes.size(), startDate, endDate));
+                    if (!builder.failures.isEmpty()) {
+                        builder.failures.sort(Comparator.comparing(RateFailure::getDate));
+                        response.withMetadata("failures", builder.failures);
+                    }
+                    return response;
+                })
+                .doOnError(error -> log.error("Error in getRateColumns: {}", error.getMessage()));
+    }
+
+    /**
+     * Aralığın sunucuda özetlenmiş hâli; günler tarih sırasıyla tek geçişte
+     * {@link RangeAnalyzer}'a akıtılır. Eksik günler atlanır ve sayısı cevapta döner.
+     */
+    public Mono<ApiResponse<RangeAnalytics>> getRangeAnalytics(String baseCurrency, String targetCurrency,
+            String startDate, String endDate, String interval, int points) {
+        DateRange range;
+        try {
+            range = parseRange(startDate, endDate, maxAnalyticsDays);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ApiResponse.error(e.getMessage()));
+        }
+        LocalDate start = range.start();
+        LocalDate end = range.end();
+
+        RangeAnalyzer.Interval bucketInterval;
+        try {
+            bucketInterval = RangeAnalyzer.Interval.parse(interval, ChronoUnit.DAYS.between(start, end) + 1);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ApiResponse.error("Invalid interval. Use week or month"));
+        }
+
+        if (points < 3 || points > MAX_CHART_POINTS) {
+            return Mono.just(ApiResponse.error("Points must be between 3 and " + MAX_CHART_POINTS));
+        }
+
+        return Flux.fromStream(start.datesUntil(end.plusDays(1)))
+                .flatMapSequential(date -> fetchDailyValue(baseCurrency, targetCurrency, date), rangeConcurrency)
+                .reduceWith(() -> new RangeAnalyzer(start, end, bucketInterval, points),
+                        (analyzer, daily) -> analyzer.accept(daily.date(), daily.value()))
+                .map(analyzer -> ApiResponse.success(analyzer.finish(baseCurrency, targetCurrency)))
+                .doOnError(error -> log.error("Error in getRangeAnalytics: {}", error.getMessage()));
+    }
+
+    private Mono<DailyValue> fetchDailyValue(String baseCurrency, String targetCurrency, LocalDate date) {
+        return externalApiClient.getHistoricalRates(baseCurrency, date)
+                .mapNotNull(rates -> findRate(rates, targetCurrency))
+                .map(rate -> new DailyValue(date, rate))
+                .onErrorResume(error -> {
+                    log.warn("Could not fetch rate for {} on {}: {}", targetCurrency, date, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Biçim hatası cevaba yazılacak mesajla {@link IllegalArgumentException} olur.
+     */
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date == null ? "" : date, DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format. Use YYYY-MM-DD");
+        }
+    }
+
+    /**
+     * Biçim hatası, ters aralık veya {@code maxDays} günden uzun aralık cevaba yazılacak
+     * mesajla {@link IllegalArgumentException} olur.
+     */
+    private static DateRange parseRange(String startDate, String endDate, int maxDays) {
+        LocalDate start = parseDate(startDate);
+        LocalDate end = parseDate(endDate);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+        if (ChronoUnit.DAYS.between(start, end) + 1 > maxDays) {
+            throw new IllegalArgumentException("Date range cannot exceed " + maxDays + " days");
+        }
+        return new DateRange(start, end);
+    }
+
+    // Etiket kardinalitesini sınırlı tutmak için gün sayısı kaba aralıklara indirgenir
+    private static String spanBucket(long days) {
+        if (days <= 7) return "week";
+        if (days <= 31) return "month";
+        if (days <= 92) return "quarter";
+        if (days <= 366) return "year";
+        return "multi-year";
+    }
+
+    private Mono<DailyRate> fetchDailyRate(String baseCurrency, String targetCurrency, LocalDate date) {
+        return externalApiClient.getHistoricalRates(baseCurrency, date)
+                .map(rates -> {
+                    Double rate = findRate(rates, targetCurrency);
+                    if (rate == null) {
+                        log.warn("Rate for {} not found on {}", targetCurrency, date);
+                        return DailyRate.failed(date, "Rate not found for " + targetCurrency);
+                    }
+                    return DailyRate.of(new ExchangeRate(
+                            baseCurrency.toUpperCase(),
+                            targetCurrency.toUpperCase(),
+                            java.math.BigDecimal.valueOf(rate),
+                            date,
+                            System.currentTimeMillis()));
+                })
+                .defaultIfEmpty(DailyRate.failed(date, "No rates data available"))
+                .onErrorResume(error -> {
+                    log.warn("Could not fetch rate for {} on {}: {}", targetCurrency, date, error.getMessage());
+                    return Mono.just(DailyRate.failed(date, error.getMessage()));
+                });
+    }
+
+    private Double findRate(CurrencyRates rates, String targetCurrency) {
+        if (rates == null || rates.getRates() == null) {
+            return null;
+        }
+        // Kodlar tabloda küçük harfle tutulur, get büyük/küçük harf duyarsızdır
+        double rate = rates.getRates().get(targetCurrency);
+        return Double.isNaN(rate) ? null : rate;
+    }
+
+    public Mono<ApiResponse<CurrencyRates>> getCryptoRates(String baseCrypto, List<String> targets) {
+        Mono<CurrencyRates> derived = targets == null || targets.isEmpty()
+                ? Mono.empty()
+                : crossRateTable(baseCrypto, targets);
+
+        return derived
+                .switchIfEmpty(Mono.defer(() -> externalApiClient.getCurrencyRates(baseCrypto)
+                        .map(rates -> {
+                            if (rates == null || rates.getRates() == null) {
+                                throw new RuntimeException("No crypto rates data available for " + baseCrypto);
+                            }
+                            return filterRatesByTargets(rates, targets);
+                        })))
+                .map(rates -> withFreshness(ApiResponse.success(rates), rates))
+                .doOnError(error -> log.error("Error in getCryptoRates: {}", error.getMessage()));
+    }
+
+    public Mono<ApiResponse<CurrencyRates>> getMinifiedRates(String baseCurrency) {
+        return externalApiClient.getMinifiedRates(baseCurrency)
+                .map(rates -> withFreshness(ApiResponse.success(rates), rates))
+                .doOnError(error -> log.error("Error in getMinifiedRates: {}", error.getMessage()));
+    }
+
+    /**
+     * Pivot snapshot'ından türetilen tablo; motor kapalıysa veya baz ya da hedeflerden biri
+     * pivot tablosunda yoksa boş döner ve çağıran doğrudan upstream'e düşer.
+     */
+    private Mono<CurrencyRates> crossRateTable(String baseCurrency, List<String> targets) {
+        if (!crossRateEngine.isEnabled()) {
+            return Mono.empty();
+        }
+        return crossRateEngine.table(baseCurrency, targets)
+                .onErrorResume(error -> {
+                    log.warn("Cross-rate table failed for {}: {}", baseCurrency, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private CurrencyRates filterRatesByTargets(CurrencyRates rates, List<String> targets) {
+        if (rates == null || rates.getRates() == null) {
+            throw new RuntimeException("No rates data available for filtering");
+        }
+
+        if (targets == null || targets.isEmpty()) {
+            return rates;
+        }
+
+        CurrencyRates filtered = new CurrencyRates(rates.getBase(), rates.getDate(), rates.getRates().select(targets));
+        filtered.setStale(rates.isStale());
+        return filtered;
+    }
+
+    /**
+     * Upstream'e ulaşılamadığı için son bilinen kopyadan servis edilen cevapları işaretler.
+     */
+    private static <T> ApiResponse<T> withFreshness(ApiResponse<T> response, Snapshot snapshot) {
+        if (snapshot != null && snapshot.isStale()) {
+            response.withMetadata("stale", true);
+        }
+        return response;
+    }
+
+    private record DailyRate(ExchangeRate rate, RateFailure failure) {
+        static DailyRate of(ExchangeRate rate) {
+            return new DailyRate(rate, null);
+        }
+
+        static DailyRate failed(LocalDate date, String reason) {
+            return new DailyRate(null, new RateFailure(date, reason));
+        }
+    }
+
+    private record DailyValue(LocalDate date, double value) {
+    }
+
+    private record DateRange(LocalDate start, LocalDate end) {
+    }
+
+    private record DailySnapshot(int index, CurrencyRates rates, String failure) {
+        static DailySnapshot of(int index, CurrencyRates rates) {
+            return new DailySnapshot(index, rates, null);
+        }
+
+        static DailySnapshot failed(int index, String reason) {
+            return new DailySnapshot(index, null, reason);
+        }
+    }
+
+    /**
+     * Sütunlar NaN ile başlar; alınamayan günler ve tabloda olmayan hedefler NaN kalır.
+     */
+    private static final class ColumnBuilder {
+
+        private final List<String> codes;
+        private final List<LocalDate> dates;
+        private final double[][] columns;
+        private final List<RateFailure> failures = new ArrayList<>();
+
+        ColumnBuilder(List<String> codes, List<LocalDate> dates) {
+            this.codes = codes;
+            this.dates = dates;
+            this.columns = new double[codes.size()][dates.size()];
+            for (double[] column : columns) {
+                Arrays.fill(column, Double.NaN);
+            }
+        }
+
+        ColumnBuilder accept(DailySnapshot daily) {
+            if (daily.rates() == null || daily.rates().getRates() == null) {
+                failures.add(new RateFailure(dates.get(daily.index()),
+                        daily.failure() != null ? daily.failure() : "No rates data available"));
+                return this;
+            }
+            RateTable table = daily.rates().getRates();
+            for (int t = 0; t < columns.length; t++) {
+                columns[t][daily.index()] = table.get(codes.get(t));
+            }
+            return this;
+        }
+
+        RangeColumns build(String base, LocalDate start, LocalDate end) {
+            Map<String, double[]> rates = new LinkedHashMap<>();
+            for (int t = 0; t < columns.length; t++) {
+                rates.put(codes.get(t), columns[t]);
+            }
+            return new RangeColumns(base, start, end, failures.size(), dates, rates);
+        }
+    }
 }
\ No newline at end of file
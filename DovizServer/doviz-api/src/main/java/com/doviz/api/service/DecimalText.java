@@ -0,0 +1,322 @@
+package com.doviz.api.service;
+
+/**
+ * Toplu dönüşümde satır başına nesne üretmeden sayı ve tarih okuyup yazan yardımcılar.
+ *
+ * 15 basamağa kadar olan ondalık tutarlar {@code long} mantis ve 10'un kuvvetiyle tam olarak
+ * çözülür (her iki değer de double'da tam temsil edildiği için bölme doğru yuvarlanır); daha
+ * uzun veya üslü yazımlar {@link Double#parseDouble(String)} yoluna düşer. Mantis ve ölçek
+ * {@link Decimal} ile dışarı verilir; dönüşüm çarpımı double yerine bunlar üzerinden tam yapılır.
+ */
+final class DecimalText {
+
+    static final int MAX_SCALE = 8;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private static final long[] LONG_POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L };
+
+    /** Ölçeksiz sonucun mutlak değer sınırı (10^18) */
+    static final long MAX_UNSCALED = 1_000_000_000_000_000_000L;
+
+    /** {@link #multiply} sonucu sınırı aştığında */
+    static final long OUT_OF_RANGE = Long.MIN_VALUE;
+
+    private static final long LOW_32 = 0xFFFF_FFFFL;
+
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+
+    static final int INVALID_DAY = Integer.MIN_VALUE;
+
+    private DecimalText() {
+    }
+
+    /**
+     * Okunan tutarın tam hali: {@code mantissa / 10^scale}. Yavaş yoldan okunan (uzun veya üslü)
+     * yazımlarda {@code exact} false'tur; çağıran tam değeri metinden kendisi çıkarır.
+     */
+    static final class Decimal {
+
+        long mantissa;
+        int scale;
+        boolean exact;
+    }
+
+    /**
+     * {@code [-+]rakamlar[.rakamlar]} biçimindeki tutarı okur; geçersizse NaN döner.
+     */
+    static double parse(char[] text, int offset, int length) {
+        return parse(text, offset, length, null);
+    }
+
+    /**
+     * {@link #parse(char[], int, int)} gibi; {@code exact} boş değilse mantis ve ölçeği de yazar.
+     */
+    static double parse(char[] text, int offset, int length, Decimal exact) {
+        if (exact != null) {
+            exact.exact = false;
+        }
+        int i = offset;
+        int end = offset + length;
+        if (i == end) {
+            return Double.NaN;
+        }
+
+        boolean negative = false;
+        if (text[i] == '-' || text[i] == '+') {
+            negative = text[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = 0;
+        boolean dot = false;
+        boolean any = false;
+        for (; i < end; i++) {
+            char c = text[i];
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (mantissa != 0 || c != '0') {
+                    if (++digits > MAX_EXACT_DIGITS) {
+                        return parseSlow(text, offset, length);
+                    }
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (dot) {
+                    fraction++;
+                }
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else if (c == 'e' || c == 'E') {
+                return parseSlow(text, offset, length);
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (!any || fraction >= POW10.length) {
+            return any ? parseSlow(text, offset, length) : Double.NaN;
+        }
+
+        if (exact != null) {
+            exact.mantissa = negative ? -mantissa : mantissa;
+            exact.scale = fraction;
+            exact.exact = true;
+        }
+        double value = fraction == 0 ? mantissa : mantissa / POW10[fraction];
+        return negative ? -value : value;
+    }
+
+    private static double parseSlow(char[] text, int offset, int length) {
+        // parseDouble'ın kabul ettiği "1d", "0x1p3", "Infinity" gibi yazımlar tutar değildir
+        for (int i = offset; i < offset + length; i++) {
+            char c = text[i];
+            if ((c < '0' || c > '9') && c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') {
+                return Double.NaN;
+            }
+        }
+        try {
+            double value = Double.parseDouble(new String(text, offset, length));
+            return Double.isInfinite(value) ? Double.NaN : value;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * {@code mantissa / 10^mantissaScale} tutarını {@code rate / 10^rateScale} kuruyla çarpar ve
+     * {@code scale} basamağa half-even yuvarlanmış ölçeksiz sonucu döner (örn. 2.675 × 1, scale 2
+     * → 268). Çarpım 128 bit üzerinde tam yapılır, yuvarlamaya bölümden kalan karar verir. Mutlak
+     * sonuç {@link #MAX_UNSCALED}'a ulaşırsa {@link #OUT_OF_RANGE} döner. {@code rate} negatif
+     * olamaz.
+     */
+    static long multiply(long mantissa, int mantissaScale, long rate, int rateScale, int scale) {
+        boolean negative = mantissa < 0;
+        long amount = Math.abs(mantissa);
+        long high = Math.multiplyHigh(amount, rate);
+        long low = amount * rate;
+        int shift = mantissaScale + rateScale - scale;
+        // İki 63 bitlik sayının çarpımı 10^38'den küçüktür; 10^39'a bölümü sıfıra yuvarlanır
+        if ((high | low) == 0 || shift >= 39) {
+            return 0;
+        }
+
+        long result;
+        if (shift <= 0) {
+            if (high != 0 || low < 0) {
+                return OUT_OF_RANGE;
+            }
+            result = low;
+            for (; shift < 0; shift++) {
+                if (result >= MAX_UNSCALED / 10) {
+                    return OUT_OF_RANGE;
+                }
+                result *= 10;
+            }
+        } else {
+            result = divideRounded(high, low, shift);
+        }
+        if (result < 0 || result >= MAX_UNSCALED) {
+            return OUT_OF_RANGE;
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * İşaretsiz 128 bitlik {@code high:low} değerini 10^shift'e böler ve half-even yuvarlar;
+     * bölüm 63 bite sığmazsa -1 döner. Bölme 32 bitlik dört parça üzerinde, her adımda en çok
+     * 10^9 ile yapılır; ara adımlardan kalan sıfır değilse son adımdaki tam yarı yukarı yuvarlanır.
+     */
+    private static long divideRounded(long high, long low, int shift) {
+        long d3 = high >>> 32;
+        long d2 = high & LOW_32;
+        long d1 = low >>> 32;
+        long d0 = low & LOW_32;
+        long divisor = 1;
+        long remainder = 0;
+        boolean sticky = false;
+        while (shift > 0) {
+            int step = Math.min(shift, 9);
+            shift -= step;
+            sticky |= remainder != 0;
+            divisor = LONG_POW10[step];
+
+            remainder = d3 % divisor;
+            d3 /= divisor;
+            long part = remainder << 32 | d2;
+            d2 = part / divisor;
+            remainder = part % divisor;
+            part = remainder << 32 | d1;
+            d1 = part / divisor;
+            remainder = part % divisor;
+            part = remainder << 32 | d0;
+            d0 = part / divisor;
+            remainder = part % divisor;
+        }
+        if ((d3 | d2) != 0 || d1 > Integer.MAX_VALUE) {
+            return -1;
+        }
+
+        long quotient = d1 << 32 | d0;
+        long twice = remainder * 2;
+        if (twice > divisor || (twice == divisor && (sticky || (quotient & 1) != 0))) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    /**
+     * {@code unscaled / 10^scale} değerini sabit noktalı olarak yazar (örn. 12345, 2 → 123.45).
+     */
+    static void appendFixed(StringBuilder out, long unscaled, int scale) {
+        if (unscaled < 0) {
+            out.append('-');
+            unscaled = -unscaled;
+        }
+        if (scale == 0) {
+            out.append(unscaled);
+            return;
+        }
+        long divisor = LONG_POW10[scale];
+        long fraction = unscaled % divisor;
+        out.append(unscaled / divisor).append('.');
+        for (long digit = divisor / 10; digit > 1 && fraction < digit; digit /= 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+
+    /**
+     * {@link #parse} ile geçerli bulunmuş tutar metnini JSON sayısı olarak, basamakları
+     * değiştirmeden yazar; JSON'un kabul etmediği baştaki {@code +}, fazladan baştaki sıfırlar ve
+     * tam veya kesir kısmı olmayan nokta ({@code .5}, {@code 5.}) düzeltilir.
+     */
+    static void appendJsonNumber(StringBuilder out, char[] text, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        if (text[i] == '-') {
+            out.append('-');
+            i++;
+        } else if (text[i] == '+') {
+            i++;
+        }
+        int integer = i;
+        while (i < end && text[i] >= '0' && text[i] <= '9') {
+            i++;
+        }
+        while (integer < i - 1 && text[integer] == '0') {
+            integer++;
+        }
+        if (integer == i) {
+            out.append('0');
+        } else {
+            out.append(text, integer, i - integer);
+        }
+        if (i < end && text[i] == '.') {
+            int fraction = ++i;
+            while (i < end && text[i] >= '0' && text[i] <= '9') {
+                i++;
+            }
+            if (i > fraction) {
+                out.append('.').append(text, fraction, i - fraction);
+            }
+        }
+        // Kalan üs kısmı (e, isteğe bağlı işaret, basamaklar) JSON'da da geçerlidir
+        out.append(text, i, end - i);
+    }
+
+    /**
+     * {@code yyyy-MM-dd} tarihini epoch gününe çevirir; geçersizse {@link #INVALID_DAY} döner.
+     */
+    static int parseEpochDay(char[] text, int offset, int length) {
+        if (length != 10 || text[offset + 4] != '-' || text[offset + 7] != '-') {
+            return INVALID_DAY;
+        }
+        int year = digits(text, offset, 4);
+        int month = digits(text, offset + 5, 2);
+        int day = digits(text, offset + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return INVALID_DAY;
+        }
+
+        // LocalDate.toEpochDay ile aynı hesap, ara nesne üretmeden
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367L * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeap(year)) {
+                total--;
+            }
+        }
+        return (int) (total - DAYS_0000_TO_1970);
+    }
+
+    private static int digits(char[] text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = text[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isLeap(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.doviz.api.service;
+
+import java.util.Arrays;
+
+/**
+ * Largest-Triangle-Three-Buckets seyreltmesinin akış hâli.
+ *
+ * Beklenen {@code slots} adet nokta (aralıktaki gün sayısı) ilk ve son nokta hariç
+ * {@code threshold - 2} kovaya bölünür; her kovadan, önceki seçilen nokta ve sonraki kovanın
+ * ortalamasıyla en büyük üçgeni oluşturan nokta seçilir. Noktalar sırayla geldiği için bir
+ * kova ancak ardından gelen kova tamamlandığında çözülür; bellekte en fazla iki kova tutulur.
+ * Eksik günler boş kovalar bırakır, bunlar atlanır.
+ */
+final class LttbDownsampler {
+
+    private final int slots;
+    private final int threshold;
+    private final boolean passthrough;
+
+    private double[] outX;
+    private double[] outY;
+    private int outSize;
+
+    private Bucket candidates = new Bucket();
+    private Bucket next = new Bucket();
+    private int nextIndex = -1;
+
+    LttbDownsampler(int slots, int threshold) {
+        this.slots = slots;
+        this.threshold = threshold;
+        this.passthrough = threshold < 3 || threshold >= slots;
+        int capacity = Math.max(2, Math.min(slots, passthrough ? slots : threshold));
+        this.outX = new double[capacity];
+        this.outY = new double[capacity];
+    }
+
+    /**
+     * @param slot noktanın aralıktaki sırası (0 ile {@code slots - 1} arası), artan sırada
+     */
+    void accept(int slot, double value) {
+        if (passthrough || outSize == 0) {
+            // İlk nokta her zaman korunur
+            emit(slot, value);
+            return;
+        }
+
+        int bucket = bucketOf(slot);
+        if (bucket != nextIndex) {
+            if (next.size > 0) {
+                select(candidates, next.averageX(), next.averageY());
+                Bucket resolved = candidates;
+                candidates = next;
+                next = resolved;
+            }
+            nextIndex = bucket;
+        }
+        next.add(slot, value);
+    }
+
+    /**
+     * Kalan kovaları çözer; son nokta her zaman korunur.
+     */
+    void finish() {
+        if (passthrough || next.size == 0) {
+            return;
+        }
+        double lastX = next.x[next.size - 1];
+        double lastY = next.y[next.size - 1];
+        next.removeLast();
+
+        if (next.size > 0) {
+            select(candidates, next.averageX(), next.averageY());
+            select(next, lastX, lastY);
+        } else {
+            select(candidates, lastX, lastY);
+        }
+        emit(lastX, lastY);
+    }
+
+    int size() {
+        return outSize;
+    }
+
+    int slotAt(int index) {
+        return (int) outX[index];
+    }
+
+    double valueAt(int index) {
+        return outY[index];
+    }
+
+    private int bucketOf(int slot) {
+        long bucket = (long) (slot - 1) * (threshold - 2) / Math.max(1, slots - 2);
+        return (int) Math.max(0, Math.min(bucket, threshold - 3));
+    }
+
+    private void select(Bucket bucket, double nextX, double nextY) {
+        if (bucket.size == 0) {
+            return;
+        }
+        double anchorX = outX[outSize - 1];
+        double anchorY = outY[outSize - 1];
+
+        int best = 0;
+        double bestArea = -1;
+        for (int i = 0; i < bucket.size; i++) {
+            // Üçgen alanının iki katı; karşılaştırma için yarıya bölmek gerekmez
+            double area = Math.abs((anchorX - nextX) * (bucket.y[i] - anchorY)
+                    - (anchorX - bucket.x[i]) * (nextY - anchorY));
+            if (area > bestArea) {
+                bestArea = area;
+                best = i;
+            }
+        }
+        emit(bucket.x[best], bucket.y[best]);
+        bucket.size = 0;
+    }
+
+    private void emit(double x, double y) {
+        if (outSize == outX.length) {
+            outX = Arrays.copyOf(outX, outSize * 2);
+            outY = Arrays.copyOf(outY, outSize * 2);
+        }
+        outX[outSize] = x;
+        outY[outSize++] = y;
+    }
+
+    private static final class Bucket {
+
+        private double[] x = new double[16];
+        private double[] y = new double[16];
+        private int size;
+        private double sumX;
+        private double sumY;
+
+        void add(double px, double py) {
+            if (size == 0) {
+                sumX = 0;
+                sumY = 0;
+            }
+            if (size == x.length) {
+                x = Arrays.copyOf(x, size * 2);
+                y = Arrays.copyOf(y, size * 2);
+            }
+            x[size] = px;
+            y[size++] = py;
+            sumX += px;
+            sumY += py;
+        }
+
+        void removeLast() {
+            size--;
+            sumX -= x[size];
+            sumY -= y[size];
+        }
+
+        double averageX() {
+            return sumX / size;
+        }
+
+        double averageY() {
+            return sumY / size;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.doviz.api.service;
+
+import com.doviz.api.model.ChartSeries;
+import com.doviz.api.model.OhlcBucket;
+import com.doviz.api.model.RangeAnalytics;
+import com.doviz.api.model.RangeStatistics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Günlük kurları tarih sırasıyla tek geçişte işleyen toplayıcı: istatistikler Welford
+ * yöntemiyle, OHLC kovaları dönem değiştikçe kapatılarak, grafik serisi
+ * {@link LttbDownsampler} ile oluşturulur. Hiçbir adımda günlük değerlerin tamamı tutulmaz.
+ */
+final class RangeAnalyzer {
+
+    enum Interval {
+        WEEK, MONTH;
+
+        static Interval parse(String value, long days) {
+            if (value == null || value.isBlank()) {
+                return days > 366 ? MONTH : WEEK;
+            }
+            return Interval.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+
+        LocalDate periodOf(LocalDate date) {
+            return this == WEEK
+                    ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    : date.withDayOfMonth(1);
+        }
+    }
+
+    private final LocalDate start;
+    private final LocalDate end;
+    private final Interval interval;
+    private final int days;
+    private final LttbDownsampler downsampler;
+
+    private int count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private LocalDate minDate;
+    private double max = Double.NEGATIVE_INFINITY;
+    private LocalDate maxDate;
+    private double first;
+    private double last;
+
+    private final List<OhlcBucket> buckets = new ArrayList<>();
+    private OhlcBucket bucket;
+
+    RangeAnalyzer(LocalDate start, LocalDate end, Interval interval, int points) {
+        this.start = start;
+        this.end = end;
+        this.interval = interval;
+        this.days = (int) ChronoUnit.DAYS.between(start, end) + 1;
+        this.downsampler = new LttbDownsampler(days, points);
+    }
+
+    /**
+     * Tarihler artan sırada gelmelidir.
+     */
+    RangeAnalyzer accept(LocalDate date, double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+
+        if (value < min) {
+            min = value;
+            minDate = date;
+        }
+        if (value > max) {
+            max = value;
+            maxDate = date;
+        }
+        if (count == 1) {
+            first = value;
+        }
+        last = value;
+
+        LocalDate period = interval.periodOf(date);
+        if (bucket == null || !bucket.getPeriod().equals(period)) {
+            bucket = new OhlcBucket(period, value, value, value, value, 0);
+            buckets.add(bucket);
+        }
+        bucket.setHigh(Math.max(bucket.getHigh(), value));
+        bucket.setLow(Math.min(bucket.getLow(), value));
+        bucket.setClose(value);
+        bucket.setDays(bucket.getDays() + 1);
+
+        downsampler.accept((int) ChronoUnit.DAYS.between(start, date), value);
+        return this;
+    }
+
+    RangeAnalytics finish(String base, String target) {
+        downsampler.finish();
+        List<LocalDate> dates = new ArrayList<>(downsampler.size());
+        double[] values = new double[downsampler.size()];
+        for (int i = 0; i < values.length; i++) {
+            dates.add(start.plusDays(downsampler.slotAt(i)));
+            values[i] = downsampler.valueAt(i);
+        }
+
+        RangeStatistics statistics = count == 0 ? null : new RangeStatistics(
+                count, min, minDate, max, maxDate, mean,
+                count > 1 ? Math.sqrt(m2 / (count - 1)) : 0.0,
+                first, last,
+                first != 0 ? (last - first) / first * 100 : 0.0);
+
+        return new RangeAnalytics(base.toUpperCase(), target.toUpperCase(), start, end,
+                interval.name().toLowerCase(Locale.ROOT), days, days - count, statistics, buckets,
+                new ChartSeries(dates, values));
+    }
+}
\ No newline at end of file
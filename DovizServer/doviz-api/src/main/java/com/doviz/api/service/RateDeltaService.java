@@ -0,0 +1,71 @@
+package com.doviz.api.service;
+
+import com.doviz.api.client.ExternalApiClient;
+import com.doviz.api.model.ApiResponse;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateDelta;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kur tablosunu aynalayan istemciler için artımlı senkronizasyon. Her baz için son
+ * snapshot'lar sürümleriyle {@link SnapshotHistory}'de tutulur; "rates" cache'inden okunan
+ * değer son sürümden farklıysa yeni sürüm olarak alınır. Akış servisi de aynı geçmişi
+ * besler, böylece sürümler SSE abonesi olmayan istemciler için de güncel kalır.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateDeltaService {
+
+    private final ExternalApiClient externalApiClient;
+    private final Map<String, SnapshotHistory> histories = new ConcurrentHashMap<>();
+
+    @Value("${app.delta.history-size:32}")
+    private int historySize;
+
+    public Mono<ApiResponse<RateDelta>> delta(String baseCurrency, Long since, List<String> targets) {
+        if (since != null && since < 0) {
+            return Mono.just(ApiResponse.error("Version must not be negative"));
+        }
+        String base = baseCurrency.toLowerCase();
+        return externalApiClient.getCurrencyRates(base)
+                .map(rates -> {
+                    ingest(base, rates);
+                    RateDelta delta = history(base).since(since);
+                    if (delta == null) {
+                        // Upstream'e ulaşılamadığı için ilk snapshot stale geldi; sürüm açılmadı
+                        delta = RateDelta.full(rates);
+                    }
+                    ApiResponse<RateDelta> response = ApiResponse.success(delta.restrictTo(targets));
+                    if (rates.isStale()) {
+                        response.withMetadata("stale", true);
+                    }
+                    return response;
+                })
+                .doOnError(error -> log.error("Error in getRateDelta: {}", error.getMessage()));
+    }
+
+    /**
+     * Stale kopyalar sürüm açmaz; upstream geri geldiğinde gelen ilk taze snapshot son
+     * sürümle karşılaştırılır.
+     */
+    public void ingest(String baseCurrency, CurrencyRates rates) {
+        if (rates == null || rates.isStale() || rates.getRates() == null) {
+            return;
+        }
+        history(baseCurrency.toLowerCase()).ingest(rates);
+    }
+
+    private SnapshotHistory history(String base) {
+        return histories.computeIfAbsent(base, key -> new SnapshotHistory(historySize));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.doviz.api.service;
+
+import com.doviz.api.client.ExternalApiClient;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateDelta;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Baz para birimi başına tek bir yenileme akışı tutar ve bunu tüm abonelere dağıtır.
+ *
+ * Akış "rates" cache'ini belirli aralıklarla okur (cache'in kendisi refresh-ahead ile
+ * upstream'den yenilenir) ve snapshot değiştiğinde önceki ile arasındaki farkı yayar.
+ * Yeni abone önce son snapshot'ın tamamını, sonra sadece değişen kurları alır. Her
+ * abonenin tamponu sınırlıdır; yetişemeyen istemcinin bağlantısı kapatılır ve istemci
+ * yeniden bağlandığında yine tam snapshot ile başlar.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateStreamService {
+
+    private final ExternalApiClient externalApiClient;
+    private final RateDeltaService rateDeltaService;
+    private final Map<String, Flux<Tick>> feeds = new ConcurrentHashMap<>();
+
+    @Value("${app.stream.refresh-interval-ms:30000}")
+    private long refreshIntervalMs;
+
+    @Value("${app.stream.client-buffer:32}")
+    private int clientBuffer;
+
+    @Value("${app.stream.max-duration-ms:300000}")
+    private long maxDurationMs;
+
+    /**
+     * Baz önce "rates" cache'i üzerinden doğrulanır; upstream bazı tanımıyorsa (veya erişilemiyor
+     * ve son bilinen kopya yoksa) akış başlamadan hata ile biter, bu baz için yenileme akışı
+     * kurulmaz.
+     */
+    public Flux<RateDelta> subscribe(String baseCurrency, List<String> targets) {
+        String base = baseCurrency.toLowerCase();
+
+        return externalApiClient.getCurrencyRates(base)
+                .thenMany(Flux.defer(() -> feeds.computeIfAbsent(base, this::createFeed)))
+                .index()
+                .map(indexed -> {
+                    Tick tick = indexed.getT2();
+                    // İlk gelen tick (replay edilen son durum) abone için tam snapshot'tır
+                    RateDelta delta = indexed.getT1() == 0 || tick.previous() == null
+                            ? RateDelta.full(tick.current())
+                            : RateDelta.between(tick.previous(), tick.current());
+                    return delta.restrictTo(targets);
+                })
+                .filter(delta -> delta.isFull() || !delta.isEmpty())
+                .onBackpressureBuffer(clientBuffer)
+                .take(Duration.ofMillis(maxDurationMs));
+    }
+
+    private Flux<Tick> createFeed(String base) {
+        log.info("Starting rate stream for {}", base);
+        AtomicReference<Flux<Tick>> self = new AtomicReference<>();
+        Flux<Tick> feed = Flux.interval(Duration.ZERO, Duration.ofMillis(refreshIntervalMs))
+                .onBackpressureDrop()
+                .concatMap(tick -> externalApiClient.getCurrencyRates(base)
+                        .onErrorResume(error -> {
+                            log.warn("Rate stream refresh failed for {}: {}", base, error.getMessage());
+                            return Mono.empty();
+                        }))
+                .doOnNext(rates -> rateDeltaService.ingest(base, rates))
+                .distinctUntilChanged(rates -> rates, (previous, current) -> previous == current
+                        || (previous.getDate() != null && previous.getDate().equals(current.getDate())
+                                && previous.getRates().equals(current.getRates())))
+                .scan(Tick.START, (tick, rates) -> new Tick(tick.current(), rates))
+                .skip(1)
+                .doFinally(signal -> {
+                    // Bu akış bittikten sonra aynı baz için kurulmuş yeni akış silinmemeli
+                    feeds.remove(base, self.get());
+                    log.info("Rate stream for {} stopped", base);
+                })
+                .replay(1)
+                .refCount(1, Duration.ofSeconds(5));
+        self.set(feed);
+        return feed;
+    }
+
+    private record Tick(CurrencyRates previous, CurrencyRates current) {
+        static final Tick START = new Tick(null, null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.doviz.api.service;
+
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateDelta;
+import com.doviz.api.model.RateTable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Bir baz para biriminin son {@code capacity} snapshot'ı, sürüm numaralarıyla. Her yeni
+ * snapshot alınırken bir öncekinden farkı bir kez hesaplanır; bir önceki sürümden gelen
+ * istemciler bu hazır farkı alır, daha eski sürümlerden gelenler için fark tutulan snapshot
+ * ile hesaplanır, geçmişten düşmüş sürümler tam snapshot alır.
+ *
+ * Sürüm snapshot'ın içeriğinden türetilir (bkz. {@link #versionOf}); aynı snapshot'ı alan her
+ * düğüm aynı sürümü verir ve istemci düğümler arasında gezse de farkı alabilir. Geçmişinde
+ * istemcinin sürümü olmayan düğüm (ör. yeniden başlatılmış) tam snapshot döner.
+ */
+final class SnapshotHistory {
+
+    private record Version(long version, CurrencyRates snapshot, RateDelta change) {
+    }
+
+    private final int capacity;
+    private final ArrayDeque<Version> versions = new ArrayDeque<>();
+
+    SnapshotHistory(int capacity) {
+        this.capacity = Math.max(2, capacity);
+    }
+
+    /**
+     * İçeriği son sürümle aynı olan snapshot yeni sürüm açmaz.
+     */
+    synchronized void ingest(CurrencyRates snapshot) {
+        Version latest = versions.peekLast();
+        if (latest != null && (latest.snapshot() == snapshot || sameContent(latest.snapshot(), snapshot))) {
+            return;
+        }
+        long version = versionOf(snapshot);
+        RateDelta change = null;
+        if (latest != null) {
+            change = RateDelta.between(latest.snapshot(), snapshot);
+            change.setVersion(version);
+        }
+        versions.addLast(new Version(version, snapshot, change));
+        while (versions.size() > capacity) {
+            versions.removeFirst();
+        }
+    }
+
+    /**
+     * {@code since} sürümünden son sürüme fark; {@code since} yoksa veya geçmişte değilse tam
+     * snapshot. Geçmiş boşsa {@code null}.
+     */
+    synchronized RateDelta since(Long since) {
+        Version latest = versions.peekLast();
+        if (latest == null) {
+            return null;
+        }
+        if (since != null) {
+            if (since == latest.version()) {
+                CurrencyRates snapshot = latest.snapshot();
+                return new RateDelta(snapshot.getBase(), snapshot.getDate(), false, RateTable.EMPTY,
+                        RateTable.EMPTY, List.of(), latest.version());
+            }
+            Iterator<Version> newestFirst = versions.descendingIterator();
+            newestFirst.next();
+            boolean previous = true;
+            while (newestFirst.hasNext()) {
+                Version candidate = newestFirst.next();
+                if (candidate.version() == since) {
+                    if (previous) {
+                        return latest.change();
+                    }
+                    RateDelta delta = RateDelta.between(candidate.snapshot(), latest.snapshot());
+                    delta.setVersion(latest.version());
+                    return delta;
+                }
+                previous = false;
+            }
+        }
+        RateDelta full = RateDelta.full(latest.snapshot());
+        full.setVersion(latest.version());
+        return full;
+    }
+
+    /**
+     * Üst 32 bit snapshot gününün epoch günü, alt 32 bit kod/kur çiftlerinin sıradan bağımsız
+     * özeti. Özet {@link RateTable#hashCode()} değildir; o, düğümden düğüme değişen kod
+     * numaralarına bağlıdır. Aynı gün içinde sürümler sıralı değildir, sadece eşitlikle
+     * karşılaştırılır; içerik eski bir sürüme dönerse o sürüm yeniden son sürüm olur.
+     */
+    static long versionOf(CurrencyRates snapshot) {
+        long day = snapshot.getDate() != null ? Math.max(0, snapshot.getDate().toEpochDay()) : 0;
+        long[] digest = new long[1];
+        snapshot.getRates().forEach((code, rate) ->
+                digest[0] += mix(mix(code.hashCode()) ^ Double.doubleToLongBits(rate)));
+        return day << 32 | digest[0] >>> 32;
+    }
+
+    /**
+     * SplitMix64 karıştırıcısı.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static boolean sameContent(CurrencyRates previous, CurrencyRates current) {
+        return previous.getDate() != null && previous.getDate().equals(current.getDate())
+                && previous.getRates().equals(current.getRates());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.doviz.api.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * İlk cache ısınması bitene kadar OUT_OF_SERVICE; readiness grubuna dahildir.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmer cacheWarmer;
+
+    @Override
+    public Health health() {
+        if (!cacheWarmer.isWarm()) {
+            return Health.outOfService().withDetail("warmup", "in progress").build();
+        }
+        Health.Builder health = Health.up();
+        if (cacheWarmer.getLastCompleted() != null) {
+            health.withDetail("lastCompleted", cacheWarmer.getLastCompleted().toString());
+        }
+        if (!cacheWarmer.getLastFailures().isEmpty()) {
+            health.withDetail("failures", cacheWarmer.getLastFailures());
+        }
+        return health.build();
+    }
+}
\ No newline at end of file
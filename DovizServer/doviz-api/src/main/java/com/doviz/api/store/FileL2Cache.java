@@ -0,0 +1,237 @@
+package com.doviz.api.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Paylaşılan bir dizinde (NFS, ortak volume veya aynı makinedeki birkaç süreç) tutulan L2.
+ *
+ * Her girdi {@code <dizin>/<cache>/<hex(anahtar)>.l2} dosyasıdır:
+ *
+ * <pre>
+ * int magic, long version, long expiresAt, UTF origin, int length, byte[length] payload
+ * </pre>
+ *
+ * Yazmalar geçici dosyaya yapılıp atomik olarak taşınır; "daha yeniyse yaz" kontrolü cache
+ * dizinindeki {@code .lock} dosyası üzerinde süreçler arası kilitle yapılır. Diğer düğümlerin
+ * yazmaları {@code pollInterval} aralıkla değişen dosyaların başlıkları okunarak fark edilir.
+ */
+@Slf4j
+public class FileL2Cache implements L2Cache {
+
+    private static final int MAGIC = 0x444C3231; // "DL21"
+    private static final String SUFFIX = ".l2";
+    private static final String LOCK_FILE = ".lock";
+
+    private final Path directory;
+    private final Duration pollInterval;
+    // FileChannel kilidi JVM başınadır; aynı süreçteki thread'ler ayrıca sıralanır
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Path, Long> seenVersions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService poller;
+    private long lastPoll;
+
+    public FileL2Cache(Path directory, Duration pollInterval) {
+        this.directory = directory;
+        this.pollInterval = pollInterval;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Optional<Entry> get(String cache, String key) {
+        try {
+            return Optional.ofNullable(read(file(cache, key), true));
+        } catch (IOException e) {
+            log.warn("Could not read L2 entry {}/{}: {}", cache, key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Entry putIfNewer(String cache, String key, Entry entry) {
+        Path file = file(cache, key);
+        writeLock.lock();
+        try (FileChannel channel = FileChannel.open(file.resolveSibling(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = channel.lock()) {
+            Entry existing = read(file, false);
+            if (existing != null && !existing.isExpired(System.currentTimeMillis())
+                    && existing.version() >= entry.version()) {
+                return existing;
+            }
+            Path temporary = Files.createTempFile(file.getParent(), "put", ".tmp");
+            write(temporary, entry);
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            seenVersions.put(file, entry.version());
+        } catch (IOException e) {
+            log.warn("Could not write L2 entry {}/{}: {}", cache, key, e.getMessage());
+            return entry;
+        } finally {
+            writeLock.unlock();
+        }
+        listeners.forEach(listener -> listener.changed(cache, key, entry.version(), entry.origin()));
+        return entry;
+    }
+
+    @Override
+    public void evict(String cache, String key) {
+        Path file = file(cache, key);
+        try {
+            Files.deleteIfExists(file);
+            seenVersions.remove(file);
+        } catch (IOException e) {
+            log.warn("Could not evict L2 entry {}/{}: {}", cache, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void clear(String cache) {
+        Path cacheDirectory = directory.resolve(cache);
+        if (!Files.isDirectory(cacheDirectory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+                seenVersions.remove(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not clear L2 cache {}: {}", cache, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(Listener listener) {
+        listeners.add(listener);
+        if (poller == null) {
+            lastPoll = 0;
+            poll(false);
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "doviz-l2-poll");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(() -> poll(true), pollInterval.toMillis(), pollInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    /**
+     * Son taramadan beri değişen dosyaların sürümlerini okur; görülen sürümden farklıysa
+     * dinleyicilere bildirir. Dosya sistemi zaman damgaları kaba olabildiği için pencere bir
+     * saniye geriden başlar.
+     */
+    private void poll(boolean notify) {
+        long started = System.currentTimeMillis();
+        long since = lastPoll - 1_000;
+        try (DirectoryStream<Path> caches = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path cacheDirectory : caches) {
+                String cache = cacheDirectory.getFileName().toString();
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory, "*" + SUFFIX)) {
+                    for (Path file : files) {
+                        if (Files.getLastModifiedTime(file).toMillis() < since) {
+                            continue;
+                        }
+                        Entry entry = read(file, false);
+                        if (entry == null) {
+                            continue;
+                        }
+                        Long previous = seenVersions.put(file, entry.version());
+                        if (notify && (previous == null || previous != entry.version())) {
+                            String key = keyOf(file);
+                            listeners.forEach(listener -> listener.changed(cache, key, entry.version(),
+                                    entry.origin()));
+                        }
+                    }
+                }
+            }
+            lastPoll = started;
+        } catch (IOException | RuntimeException e) {
+            log.warn("L2 poll failed: {}", e.getMessage());
+        }
+    }
+
+    private Path file(String cache, String key) {
+        Path cacheDirectory = directory.resolve(cache);
+        try {
+            Files.createDirectories(cacheDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return cacheDirectory.resolve(HexFormat.of().formatHex(key.getBytes(StandardCharsets.UTF_8)) + SUFFIX);
+    }
+
+    private static String keyOf(Path file) {
+        String name = file.getFileName().toString();
+        return new String(HexFormat.of().parseHex(name, 0, name.length() - SUFFIX.length()), StandardCharsets.UTF_8);
+    }
+
+    private static Entry read(Path file, boolean withPayload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Unrecognized L2 entry format: " + file);
+            }
+            long version = in.readLong();
+            long expiresAt = in.readLong();
+            String origin = in.readUTF();
+            byte[] payload = new byte[0];
+            if (withPayload) {
+                payload = new byte[in.readInt()];
+                in.readFully(payload);
+            }
+            return new Entry(version, expiresAt, origin, payload);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static void write(Path file, Entry entry) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(entry.version());
+            out.writeLong(entry.expiresAt());
+            out.writeUTF(entry.origin());
+            out.writeInt(entry.payload().length);
+            out.write(entry.payload());
+        }
+    }
+}
\ No newline at end of file
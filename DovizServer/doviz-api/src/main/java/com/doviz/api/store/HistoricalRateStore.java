@@ -0,0 +1,289 @@
+package com.doviz.api.store;
+
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateTable;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Geçmiş günlere ait kurların diskte tutulduğu, sadece ekleme yapılan depo.
+ *
+ * Her baz para birimi için bir dosya vardır ({@code <base>.bin}). Dosya bir başlık ve
+ * ardışık kayıtlardan oluşur:
+ *
+ * <pre>
+ * header : int magic, short version
+ * record : int length, int requestedEpochDay, int snapshotEpochDay, int count,
+ *          count x (byte codeLength, byte[] code, double rate)
+ * </pre>
+ *
+ * Okumalar dosyanın memory-mapped görüntüsü üzerinden yapılır; indeks açılışta dosya
+ * taranarak kurulur. Yarım kalmış son kayıt açılışta kesilip atılır.
+ *
+ * Metodlar disk I/O yapar; reaktif zincirlerden event loop yerine ayrı bir scheduler
+ * üzerinde çağrılmalıdır. Yazmalar {@code synchronized} yerine {@link ReentrantLock}
+ * ile korunur ki sanal thread'ler I/O sırasında taşıyıcı thread'e sabitlenmesin.
+ */
+@Slf4j
+@Component
+public class HistoricalRateStore {
+
+    private static final int MAGIC = 0x44525331; // "DRS1"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+    private static final int RECORD_HEADER_SIZE = 4 * Integer.BYTES;
+    private static final Pattern BASE_PATTERN = Pattern.compile("[a-z0-9]{1,16}");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+
+    public HistoricalRateStore(@Value("${app.history-store.enabled:true}") boolean enabled,
+            @Value("${app.history-store.path:./data/history}") String path) {
+        this.enabled = enabled;
+        this.directory = Paths.get(path);
+    }
+
+    /**
+     * Dosyası olmayan bir baz için yeni dosya açılmaz; segmentler sadece upstream'den başarıyla
+     * alınmış bir snapshot eklenirken oluşturulur.
+     */
+    public Optional<CurrencyRates> find(String baseCurrency, LocalDate date) {
+        Segment segment = segment(baseCurrency, false);
+        if (segment == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(segment.read(date));
+    }
+
+    public void append(String baseCurrency, LocalDate date, CurrencyRates rates) {
+        if (!isFinal(date) || rates == null || rates.getRates() == null || rates.getRates().isEmpty()) {
+            return;
+        }
+        Segment segment = segment(baseCurrency, true);
+        if (segment != null) {
+            segment.append(date, rates);
+        }
+    }
+
+    /**
+     * Sadece bugünden önceki günler değişmez kabul edilir ve depolanır.
+     */
+    public boolean isFinal(LocalDate date) {
+        return date.isBefore(LocalDate.now(ZoneOffset.UTC));
+    }
+
+    @PreDestroy
+    public void close() {
+        segments.values().forEach(Segment::close);
+        segments.clear();
+    }
+
+    private Segment segment(String baseCurrency, boolean create) {
+        if (!enabled || baseCurrency == null) {
+            return null;
+        }
+        String base = baseCurrency.toLowerCase();
+        if (!BASE_PATTERN.matcher(base).matches()) {
+            return null;
+        }
+        Segment open = segments.get(base);
+        if (open != null) {
+            return open;
+        }
+        if (!create && !Files.exists(file(base))) {
+            return null;
+        }
+        try {
+            return segments.computeIfAbsent(base, this::openSegment);
+        } catch (UncheckedIOException e) {
+            log.error("Could not open historical store for {}: {}", base, e.getMessage());
+            return null;
+        }
+    }
+
+    private Segment openSegment(String base) {
+        try {
+            Files.createDirectories(directory);
+            return new Segment(base, file(base));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path file(String base) {
+        return directory.resolve(base + ".bin");
+    }
+
+    private static final class Segment {
+
+        private final String base;
+        private final FileChannel channel;
+        private final Map<Integer, Integer> index = new ConcurrentHashMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile MappedByteBuffer mapped;
+        private volatile long size;
+
+        Segment(String base, Path file) throws IOException {
+            this.base = base;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(VERSION).flip();
+                channel.write(header, 0);
+            }
+            this.size = channel.size();
+            remap();
+            load();
+        }
+
+        CurrencyRates read(LocalDate date) {
+            Integer offset = index.get((int) date.toEpochDay());
+            if (offset == null) {
+                return null;
+            }
+            MappedByteBuffer buffer = mapped;
+            if (offset + RECORD_HEADER_SIZE > buffer.capacity() || offset + buffer.getInt(offset) > buffer.capacity()) {
+                buffer = remap();
+            }
+
+            int snapshotDay = buffer.getInt(offset + 2 * Integer.BYTES);
+            int count = buffer.getInt(offset + 3 * Integer.BYTES);
+            int position = offset + RECORD_HEADER_SIZE;
+
+            RateTable.Builder rates = RateTable.builder();
+            byte[] code = new byte[255];
+            for (int i = 0; i < count; i++) {
+                int codeLength = buffer.get(position) & 0xFF;
+                buffer.get(position + 1, code, 0, codeLength);
+                double rate = buffer.getDouble(position + 1 + codeLength);
+                rates.put(new String(code, 0, codeLength, StandardCharsets.UTF_8), rate);
+                position += 1 + codeLength + Double.BYTES;
+            }
+            return new CurrencyRates(base, LocalDate.ofEpochDay(snapshotDay), rates.build());
+        }
+
+        void append(LocalDate date, CurrencyRates rates) {
+            lock.lock();
+            try {
+                appendLocked(date, rates);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void appendLocked(LocalDate date, CurrencyRates rates) {
+            int day = (int) date.toEpochDay();
+            if (index.containsKey(day)) {
+                return;
+            }
+
+            byte[][] codes = new byte[rates.getRates().size()][];
+            double[] values = new double[codes.length];
+            int[] count = new int[1];
+            rates.getRates().forEach((code, rate) -> {
+                byte[] bytes = code.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length <= 255) {
+                    codes[count[0]] = bytes;
+                    values[count[0]++] = rate;
+                }
+            });
+
+            int length = RECORD_HEADER_SIZE;
+            for (int i = 0; i < count[0]; i++) {
+                length += 1 + codes[i].length + Double.BYTES;
+            }
+            LocalDate snapshotDate = rates.getDate() != null ? rates.getDate() : date;
+
+            ByteBuffer record = ByteBuffer.allocate(length)
+                    .putInt(length)
+                    .putInt(day)
+                    .putInt((int) snapshotDate.toEpochDay())
+                    .putInt(count[0]);
+            for (int i = 0; i < count[0]; i++) {
+                record.put((byte) codes[i].length).put(codes[i]).putDouble(values[i]);
+            }
+            record.flip();
+
+            try {
+                long offset = size;
+                while (record.hasRemaining()) {
+                    channel.write(record, offset + record.position());
+                }
+                size = offset + length;
+                index.put(day, (int) offset);
+            } catch (IOException e) {
+                log.error("Could not append historical rates for {} on {}: {}", base, date, e.getMessage());
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close historical store for {}: {}", base, e.getMessage());
+            }
+        }
+
+        private MappedByteBuffer remap() {
+            lock.lock();
+            try {
+                if (mapped == null || mapped.capacity() < size) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                return mapped;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void load() throws IOException {
+            MappedByteBuffer buffer = mapped;
+            if (buffer.getInt(0) != MAGIC || buffer.getShort(Integer.BYTES) != VERSION) {
+                throw new IOException("Unrecognized historical store format for " + base);
+            }
+
+            int position = HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE <= size) {
+                int length = buffer.getInt(position);
+                if (length < RECORD_HEADER_SIZE || position + (long) length > size) {
+                    break;
+                }
+                index.put(buffer.getInt(position + Integer.BYTES), position);
+                position += length;
+            }
+
+            if (position < size) {
+                log.warn("Truncating incomplete record in historical store for {} at {}", base, position);
+                channel.truncate(position);
+                size = position;
+                mapped = null;
+                remap();
+            }
+            log.info("Historical store for {} loaded with {} days", base, index.size());
+        }
+    }
+}
\ No newline at end of file
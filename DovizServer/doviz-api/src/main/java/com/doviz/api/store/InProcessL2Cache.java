@@ -0,0 +1,87 @@
+package com.doviz.api.store;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bellekte tutulan L2. Her örnek bir düğümdür; {@link #joinShared()} ile oluşturulan örnekler
+ * aynı JVM'de aynı girdileri paylaşır ve birbirinin yazmalarından haberdar olur, böylece
+ * testlerde birden fazla düğüm dış bir servis olmadan tek süreçte çalıştırılabilir.
+ * Bildirimler yazan thread üzerinde, yazma tamamlandıktan hemen sonra yapılır.
+ */
+public class InProcessL2Cache implements L2Cache {
+
+    private static final Map<String, Map<String, Entry>> SHARED_ENTRIES = new ConcurrentHashMap<>();
+    private static final List<InProcessL2Cache> SHARED_NODES = new CopyOnWriteArrayList<>();
+
+    private final Map<String, Map<String, Entry>> caches;
+    private final List<InProcessL2Cache> nodes;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Sadece bu örneğe ait, paylaşılmayan L2.
+     */
+    public InProcessL2Cache() {
+        this(new ConcurrentHashMap<>(), new CopyOnWriteArrayList<>());
+    }
+
+    private InProcessL2Cache(Map<String, Map<String, Entry>> caches, List<InProcessL2Cache> nodes) {
+        this.caches = caches;
+        this.nodes = nodes;
+        nodes.add(this);
+    }
+
+    public static InProcessL2Cache joinShared() {
+        return new InProcessL2Cache(SHARED_ENTRIES, SHARED_NODES);
+    }
+
+    @Override
+    public Optional<Entry> get(String cache, String key) {
+        return Optional.ofNullable(entries(cache).get(key));
+    }
+
+    @Override
+    public Entry putIfNewer(String cache, String key, Entry entry) {
+        long now = System.currentTimeMillis();
+        Entry stored = entries(cache).compute(key, (k, existing) -> existing != null
+                && !existing.isExpired(now)
+                && existing.version() >= entry.version() ? existing : entry);
+        if (stored == entry) {
+            for (InProcessL2Cache node : nodes) {
+                node.listeners.forEach(listener -> listener.changed(cache, key, entry.version(), entry.origin()));
+            }
+        }
+        return stored;
+    }
+
+    @Override
+    public void evict(String cache, String key) {
+        entries(cache).remove(key);
+    }
+
+    @Override
+    public void clear(String cache) {
+        entries(cache).clear();
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Düğüm ayrılır; paylaşılan girdiler diğer düğümler için yerinde kalır.
+     */
+    @Override
+    public void close() {
+        nodes.remove(this);
+        listeners.clear();
+    }
+
+    private Map<String, Entry> entries(String cache) {
+        return caches.computeIfAbsent(cache, name -> new ConcurrentHashMap<>());
+    }
+}
\ No newline at end of file
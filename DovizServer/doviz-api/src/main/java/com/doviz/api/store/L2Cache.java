@@ -0,0 +1,53 @@
+package com.doviz.api.store;
+
+import java.util.Optional;
+
+/**
+ * Düğümler arasında paylaşılan ikinci seviye cache. Değerler serileştirilmiş snapshot'lardır
+ * ve her biri bir sürüm damgası taşır; bir anahtar için sadece daha yeni sürüm eskisinin
+ * yerine yazılabilir. Bir düğüm daha yeni bir sürüm yazdığında aboneler haberdar edilir ki
+ * kendi L1 kopyalarını düşürüp yeni sürümü okusunlar.
+ *
+ * Uygulamalar bloklayıcı olabilir (dosya, ağ); çağıranlar event loop dışında çağırmalıdır.
+ */
+public interface L2Cache extends AutoCloseable {
+
+    Optional<Entry> get(String cache, String key);
+
+    /**
+     * {@code entry} sadece anahtarda süresi dolmamış, aynı veya daha yeni sürümlü bir girdi
+     * yoksa yazılır. Dönen değer yazma sonrasında L2'de duran girdidir: ya {@code entry}'nin
+     * kendisi ya da ondan yeni/eşit olan mevcut girdi.
+     */
+    Entry putIfNewer(String cache, String key, Entry entry);
+
+    void evict(String cache, String key);
+
+    void clear(String cache);
+
+    /**
+     * Başka bir yazıcının (bu düğüm dahil) bir anahtara yeni sürüm yazdığı bildirilir.
+     */
+    void subscribe(Listener listener);
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * @param version   snapshot sürümü; büyük olan yenidir
+     * @param expiresAt epoch milisaniye; {@link Long#MAX_VALUE} süresiz
+     * @param origin    yazan düğümün kimliği
+     */
+    record Entry(long version, long expiresAt, String origin, byte[] payload) {
+
+        public boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    @FunctionalInterface
+    interface Listener {
+        void changed(String cache, String key, long version, String origin);
+    }
+}
\ No newline at end of file
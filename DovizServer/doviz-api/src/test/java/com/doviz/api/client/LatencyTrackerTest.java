@@ -0,0 +1,76 @@
+package com.doviz.api.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyTrackerTest {
+
+    private static final Duration MIN = Duration.ofMillis(50);
+    private static final Duration MAX = Duration.ofSeconds(2);
+
+    @Test
+    void usesMaxDelayUntilEnoughSamples() {
+        LatencyTracker tracker = new LatencyTracker(0.95, 32, MIN, MAX);
+
+        record(tracker, 16, 100);
+
+        assertEquals(MAX, tracker.hedgeDelay());
+    }
+
+    @Test
+    void hedgeDelayIsThePercentileOfTheWindow() {
+        LatencyTracker tracker = new LatencyTracker(0.95, 32, MIN, MAX);
+
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(Duration.ofMillis(i * 10L).toNanos());
+        }
+        // son hesap 16'nın katı olan 96. örnekte yapıldı: ceil(0.95 * 96) = 92. değer
+        assertEquals(Duration.ofMillis(920), tracker.hedgeDelay());
+    }
+
+    @Test
+    void recomputesOnlyEverySixteenSamples() {
+        LatencyTracker tracker = new LatencyTracker(0.95, 16, MIN, MAX);
+
+        record(tracker, 16, 100);
+        assertEquals(Duration.ofMillis(100), tracker.hedgeDelay());
+
+        record(tracker, 15, 1_000);
+        assertEquals(Duration.ofMillis(100), tracker.hedgeDelay());
+
+        record(tracker, 1, 1_000);
+        assertEquals(Duration.ofMillis(1_000), tracker.hedgeDelay());
+    }
+
+    @Test
+    void delayIsClampedToTheConfiguredRange() {
+        LatencyTracker fast = new LatencyTracker(0.95, 16, MIN, MAX);
+        LatencyTracker slow = new LatencyTracker(0.95, 16, MIN, MAX);
+
+        record(fast, 16, 1);
+        record(slow, 16, 10_000);
+
+        assertEquals(MIN, fast.hedgeDelay());
+        assertEquals(MAX, slow.hedgeDelay());
+    }
+
+    @Test
+    void oldSamplesLeaveTheWindow() {
+        LatencyTracker tracker = new LatencyTracker(0.95, 16, MIN, MAX);
+
+        record(tracker, 256, 1_500);
+        assertEquals(Duration.ofMillis(1_500), tracker.hedgeDelay());
+
+        record(tracker, 256, 200);
+        assertEquals(Duration.ofMillis(200), tracker.hedgeDelay());
+    }
+
+    private static void record(LatencyTracker tracker, int count, long millis) {
+        for (int i = 0; i < count; i++) {
+            tracker.record(Duration.ofMillis(millis).toNanos());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.doviz.api.client;
+
+import com.doviz.api.client.UpstreamCircuitBreaker.State;
+import com.doviz.api.exception.UpstreamUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UpstreamCircuitBreakerTest {
+
+    private final UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(3, 0, 1_000);
+
+    @Test
+    void opensAfterConsecutiveServerErrors() {
+        fail(status(HttpStatus.SERVICE_UNAVAILABLE));
+        fail(new TimeoutException("read timed out"));
+        assertEquals(State.CLOSED, breaker.getState());
+
+        fail(status(HttpStatus.TOO_MANY_REQUESTS));
+
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        fail(status(HttpStatus.BAD_GATEWAY));
+        fail(status(HttpStatus.BAD_GATEWAY));
+        breaker.protect(Mono.just("ok")).block();
+        fail(status(HttpStatus.BAD_GATEWAY));
+        fail(status(HttpStatus.BAD_GATEWAY));
+
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void clientErrorsNeitherCountNorResetFailures() {
+        for (int i = 0; i < 10; i++) {
+            fail(status(HttpStatus.NOT_FOUND));
+        }
+        assertEquals(State.CLOSED, breaker.getState());
+
+        fail(status(HttpStatus.SERVICE_UNAVAILABLE));
+        fail(status(HttpStatus.NOT_FOUND));
+        fail(status(HttpStatus.GATEWAY_TIMEOUT));
+        fail(status(HttpStatus.BAD_REQUEST));
+        fail(status(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void openCircuitRejectsWithoutCallingUpstream() {
+        openCircuit();
+        AtomicBoolean called = new AtomicBoolean();
+
+        assertThrows(UpstreamUnavailableException.class,
+                () -> breaker.protect(Mono.fromCallable(() -> called.getAndSet(true))).block());
+        assertFalse(called.get());
+    }
+
+    @Test
+    void successfulProbeClosesTheCircuit() {
+        breaker.registerProbe(() -> Mono.just("ok"));
+        openCircuit();
+
+        breaker.probeIfDue();
+
+        assertEquals(State.CLOSED, breaker.getState());
+        assertEquals("ok", breaker.protect(Mono.just("ok")).block());
+    }
+
+    @Test
+    void failedProbeReopensTheCircuit() {
+        breaker.registerProbe(() -> Mono.error(status(HttpStatus.SERVICE_UNAVAILABLE)));
+        openCircuit();
+
+        breaker.probeIfDue();
+
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            fail(status(HttpStatus.INTERNAL_SERVER_ERROR));
+        }
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    private void fail(Throwable error) {
+        assertThrows(RuntimeException.class, () -> breaker.protect(Mono.error(error)).block());
+    }
+
+    private static WebClientResponseException status(HttpStatus status) {
+        return WebClientResponseException.create(status, status.getReasonPhrase(), HttpHeaders.EMPTY,
+                new byte[0], null, null);
+    }
+}
@@ -0,0 +1,49 @@
+package com.doviz.api.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UpstreamMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UpstreamMetrics metrics = new UpstreamMetrics(registry,
+            new UpstreamCircuitBreaker(5, 30_000, 5_000));
+    private final List<String> samples = new ArrayList<>();
+
+    UpstreamMetricsTest() {
+        metrics.addLatencyListener((endpoint, nanos, failed) ->
+                samples.add(endpoint + (failed ? ":failed" : ":ok")));
+    }
+
+    @Test
+    void completedAndFailedCallsReachTheListeners() {
+        metrics.record("rates", "primary", Mono.just("ok")).block();
+        WebClientResponseException unavailable = WebClientResponseException.create(
+                HttpStatus.SERVICE_UNAVAILABLE.value(), "unavailable", null, null, null);
+        metrics.record("rates", "primary", Mono.error(unavailable)).onErrorComplete().block();
+
+        assertEquals(List.of("rates:ok", "rates:failed"), samples);
+        assertEquals(0, metrics.inFlight());
+    }
+
+    @Test
+    void cancelledCallsAreOnlyTagged() {
+        // hedge'de kaybeden deneme iptal edilir
+        Disposable call = metrics.record("rates", "mirror", Mono.never()).subscribe();
+
+        call.dispose();
+
+        assertEquals(List.of(), samples);
+        assertEquals(0, metrics.inFlight());
+        assertEquals(1, registry.get("doviz.upstream.requests").tag("status", "cancelled").timer().count());
+    }
+}
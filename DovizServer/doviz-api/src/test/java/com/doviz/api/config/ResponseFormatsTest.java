@@ -0,0 +1,41 @@
+package com.doviz.api.config;
+
+import com.doviz.api.config.ResponseFormats.Format;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseFormatsTest {
+
+    @Test
+    void missingOrUnparseableAcceptFallsBackToJson() {
+        assertEquals(Format.JSON, ResponseFormats.negotiate(null));
+        assertEquals(Format.JSON, ResponseFormats.negotiate(" "));
+        assertEquals(Format.JSON, ResponseFormats.negotiate("not a media type"));
+        assertEquals(Format.JSON, ResponseFormats.negotiate("*/*"));
+    }
+
+    @Test
+    void higherQualityWins() {
+        assertEquals(Format.CBOR, ResponseFormats.negotiate("application/json;q=0.5, application/cbor"));
+        assertEquals(Format.SMILE,
+                ResponseFormats.negotiate("application/cbor;q=0.2, application/x-jackson-smile;q=0.9"));
+    }
+
+    @Test
+    void moreSpecificTypeWinsAtEqualQuality() {
+        assertEquals(Format.CBOR, ResponseFormats.negotiate("*/*, application/cbor"));
+        assertEquals(Format.SMILE, ResponseFormats.negotiate("application/*, application/x-jackson-smile"));
+    }
+
+    @Test
+    void wildcardWithHigherQualityStillWins() {
+        assertEquals(Format.JSON, ResponseFormats.negotiate("application/cbor;q=0.1, */*"));
+    }
+
+    @Test
+    void zeroQualityIsNotAcceptable() {
+        assertEquals(Format.JSON, ResponseFormats.negotiate("application/cbor;q=0"));
+        assertEquals(Format.SMILE, ResponseFormats.negotiate("application/cbor;q=0, application/x-jackson-smile;q=0.1"));
+    }
+}
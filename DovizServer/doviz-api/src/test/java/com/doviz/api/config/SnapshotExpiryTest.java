@@ -0,0 +1,116 @@
+package com.doviz.api.config;
+
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateTable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SnapshotExpiryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+    private static final Duration STALE_TTL = Duration.ofSeconds(30);
+
+    private final CachePolicyProperties properties = new CachePolicyProperties();
+
+    @Test
+    void nextPublishIsTheDayAfterTheSnapshotAtPublishTime() {
+        properties.setPublishTime(LocalTime.of(0, 15));
+        properties.setPublishZone(ZoneOffset.UTC);
+
+        assertEquals(Instant.parse("2024-03-02T00:15:00Z"), SnapshotExpiry.nextPublish(properties, DATE));
+    }
+
+    @Test
+    void nextPublishHonoursThePublishZone() {
+        properties.setPublishTime(LocalTime.of(2, 0));
+        properties.setPublishZone(ZoneId.of("Europe/Istanbul"));
+
+        assertEquals(Instant.parse("2024-03-01T23:00:00Z"), SnapshotExpiry.nextPublish(properties, DATE));
+    }
+
+    @Test
+    void publishPolicyExpiresAtTheNextPublish() {
+        SnapshotExpiry expiry = expiry(publish(), "2024-03-01T18:15:00Z");
+
+        assertEquals(Duration.ofHours(6).toNanos(), expiry.expireAfterCreate("eur", rates(DATE), 0));
+    }
+
+    @Test
+    void publishPolicyRetriesAfterMinTtlWhenThePublishIsLate() {
+        SnapshotExpiry expiry = expiry(publish(), "2024-03-02T03:00:00Z");
+
+        assertEquals(Duration.ofMinutes(5).toNanos(), expiry.expireAfterCreate("eur", rates(DATE), 0));
+    }
+
+    @Test
+    void publishPolicyIsCappedAtMaxTtl() {
+        SnapshotExpiry expiry = expiry(publish(), "2024-02-27T00:00:00Z");
+
+        assertEquals(Duration.ofHours(24).toNanos(), expiry.expireAfterCreate("eur", rates(DATE), 0));
+    }
+
+    @Test
+    void publishPolicyFallsBackToTtlForUndatedValues() {
+        CachePolicyProperties.Policy policy = publish();
+        policy.setTtl(Duration.ofMinutes(7));
+        SnapshotExpiry expiry = expiry(policy, "2024-03-01T18:15:00Z");
+
+        assertEquals(Duration.ofMinutes(7).toNanos(), expiry.expireAfterCreate("eur", rates(null), 0));
+        assertEquals(Duration.ofMinutes(7).toNanos(), expiry.expireAfterCreate("currencies", Map.of(), 0));
+    }
+
+    @Test
+    void staleValuesUseTheStaleTtlWhateverThePolicy() {
+        CachePolicyProperties.Policy none = new CachePolicyProperties.Policy();
+        none.setExpiry(CachePolicyProperties.ExpiryMode.NONE);
+
+        assertEquals(STALE_TTL.toNanos(),
+                expiry(none, "2024-03-01T18:15:00Z").expireAfterCreate("eur", rates(DATE).asStale(), 0));
+        assertEquals(STALE_TTL.toNanos(),
+                expiry(publish(), "2024-03-01T18:15:00Z").expireAfterCreate("eur", rates(DATE).asStale(), 0));
+    }
+
+    @Test
+    void fixedAndNonePolicies() {
+        CachePolicyProperties.Policy fixed = new CachePolicyProperties.Policy();
+        fixed.setTtl(Duration.ofMinutes(3));
+        CachePolicyProperties.Policy none = new CachePolicyProperties.Policy();
+        none.setExpiry(CachePolicyProperties.ExpiryMode.NONE);
+
+        assertEquals(Duration.ofMinutes(3).toNanos(),
+                expiry(fixed, "2024-03-01T18:15:00Z").expireAfterCreate("eur", rates(DATE), 0));
+        assertEquals(Long.MAX_VALUE, expiry(none, "2024-03-01T18:15:00Z").expireAfterCreate("eur", rates(DATE), 0));
+    }
+
+    @Test
+    void updatesRecomputeAndReadsKeepTheRemainingDuration() {
+        SnapshotExpiry expiry = expiry(publish(), "2024-03-01T18:15:00Z");
+
+        assertEquals(STALE_TTL.toNanos(), expiry.expireAfterUpdate("eur", rates(DATE).asStale(), 0, 123));
+        assertEquals(123, expiry.expireAfterRead("eur", rates(DATE), 0, 123));
+    }
+
+    private SnapshotExpiry expiry(CachePolicyProperties.Policy policy, String now) {
+        return new SnapshotExpiry(properties, policy, STALE_TTL, Clock.fixed(Instant.parse(now), ZoneOffset.UTC));
+    }
+
+    private static CachePolicyProperties.Policy publish() {
+        CachePolicyProperties.Policy policy = new CachePolicyProperties.Policy();
+        policy.setExpiry(CachePolicyProperties.ExpiryMode.PUBLISH);
+        return policy;
+    }
+
+    private static CurrencyRates rates(LocalDate date) {
+        return new CurrencyRates("eur", date, RateTable.EMPTY);
+    }
+}
@@ -0,0 +1,167 @@
+package com.doviz.api.config;
+
+import com.doviz.api.model.CurrencyCatalog;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateTable;
+import com.doviz.api.store.InProcessL2Cache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class TwoLevelCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private final CachePolicyProperties properties = new CachePolicyProperties();
+    private final List<InProcessL2Cache> nodes = new ArrayList<>();
+
+    @AfterEach
+    void leave() {
+        nodes.get(0).clear("rates");
+        nodes.get(0).clear("currencies");
+        nodes.forEach(InProcessL2Cache::close);
+    }
+
+    @Test
+    void writeThroughLetsOtherNodesSkipTheUpstream() {
+        Node first = node("first", "rates");
+        Node second = node("second", "rates");
+
+        first.cache.get("eur", () -> rates(DAY));
+
+        assertEquals(rates(DAY), second.cache.get("eur", () -> fail("upstream called")));
+    }
+
+    @Test
+    void newerRemoteWriteDropsTheOutdatedEntry() {
+        Node first = node("first", "rates");
+        Node second = node("second", "rates");
+        first.cache.get("eur", () -> rates(DAY));
+
+        second.cache.put("eur", rates(DAY.plusDays(1)));
+
+        assertNull(first.l1.getIfPresent("eur"));
+        assertEquals(rates(DAY.plusDays(1)), first.cache.get("eur", () -> fail("upstream called")));
+    }
+
+    @Test
+    void olderRemoteWriteKeepsTheEntry() {
+        Node first = node("first", "rates");
+        Node second = node("second", "rates");
+        first.cache.put("eur", rates(DAY.plusDays(1)));
+        CompletableFuture<Object> current = first.l1.getIfPresent("eur");
+
+        // L2'deki girdi silinince daha eski sürüm yazılabilir ve bildirilir
+        second.cache.evict("eur");
+        second.cache.put("eur", rates(DAY));
+
+        assertSame(current, first.l1.getIfPresent("eur"));
+    }
+
+    @Test
+    void correctedSameDayPayloadReplacesTheEntry() {
+        // düzeltme ilk yazmadan sonraki bir saniyede gelir
+        Node first = node("first", "rates");
+        Node second = node("second", "rates", Clock.offset(Clock.systemUTC(), Duration.ofSeconds(5)));
+        CurrencyRates corrected = new CurrencyRates("eur", DAY,
+                RateTable.builder().put("usd", 1.09).put("try", 34.9).build());
+        first.cache.get("eur", () -> rates(DAY));
+
+        second.cache.put("eur", corrected);
+
+        assertNull(first.l1.getIfPresent("eur"));
+        assertEquals(corrected, first.cache.get("eur", () -> fail("upstream called")));
+    }
+
+    @Test
+    void identicalSameDayPayloadIsNotRewritten() {
+        Node first = node("first", "rates");
+        Node second = node("second", "rates", Clock.offset(Clock.systemUTC(), Duration.ofSeconds(5)));
+        first.cache.get("eur", () -> rates(DAY));
+        CompletableFuture<Object> current = first.l1.getIfPresent("eur");
+
+        second.cache.put("eur", rates(DAY));
+
+        assertSame(current, first.l1.getIfPresent("eur"));
+    }
+
+    @Test
+    void inFlightLoadsAreNotDropped() {
+        Node first = node("first", "rates");
+        Node second = node("second", "rates");
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        first.l1.put("eur", loading);
+
+        second.cache.put("eur", rates(DAY));
+
+        assertSame(loading, first.l1.getIfPresent("eur"));
+    }
+
+    @Test
+    void otherKeysAreLeftAlone() {
+        Node first = node("first", "rates");
+        Node second = node("second", "rates");
+        first.cache.put("usd", rates(DAY));
+        CompletableFuture<Object> current = first.l1.getIfPresent("usd");
+
+        second.cache.put("eur", rates(DAY.plusDays(1)));
+
+        assertSame(current, first.l1.getIfPresent("usd"));
+    }
+
+    @Test
+    void parameterlessKeysAreInvalidatedToo() {
+        // tarihsiz değerlerin sürümü yazma anıdır; iki yazma aynı milisaniyeye düşmesin
+        Node first = node("first", "currencies", Clock.systemUTC());
+        Node second = node("second", "currencies", Clock.offset(Clock.systemUTC(), Duration.ofSeconds(1)));
+        CurrencyCatalog updated = new CurrencyCatalog(new String[] { "usd", "eur" },
+                new String[] { "US Dollar", "Euro" });
+        first.cache.get(SimpleKey.EMPTY,
+                () -> new CurrencyCatalog(new String[] { "usd" }, new String[] { "US Dollar" }));
+
+        second.cache.put(SimpleKey.EMPTY, updated);
+
+        assertNull(first.l1.getIfPresent(SimpleKey.EMPTY));
+        assertEquals(updated, first.cache.get(SimpleKey.EMPTY, () -> fail("upstream called")));
+    }
+
+    private Node node(String id, String cacheName) {
+        return node(id, cacheName, Clock.systemUTC());
+    }
+
+    private Node node(String id, String cacheName, Clock clock) {
+        InProcessL2Cache l2 = InProcessL2Cache.joinShared();
+        nodes.add(l2);
+        Class<?> type = "currencies".equals(cacheName) ? CurrencyCatalog.class : CurrencyRates.class;
+        SnapshotExpiry expiry = new SnapshotExpiry(properties, properties.policyFor(cacheName),
+                Duration.ofSeconds(30), clock);
+        L2Tier tier = new L2Tier(cacheName, type, l2, mapper, expiry, Duration.ofMinutes(10), id,
+                Runnable::run, new SimpleMeterRegistry(), clock);
+        AsyncCache<Object, Object> l1 = Caffeine.newBuilder().buildAsync();
+        return new Node(new TwoLevelCache(cacheName, l1, tier, l2), l1);
+    }
+
+    private static CurrencyRates rates(LocalDate date) {
+        return new CurrencyRates("eur", date, RateTable.builder().put("usd", 1.08).put("try", 34.9).build());
+    }
+
+    private record Node(TwoLevelCache cache, AsyncCache<Object, Object> l1) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.doviz.api.controller;
+
+import com.doviz.api.client.UpstreamCircuitBreaker;
+import com.doviz.api.client.UpstreamMetrics;
+import com.doviz.api.config.AdmissionProperties;
+import com.doviz.api.controller.AdmissionControlFilter.Route;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class AdmissionControlFilterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdmissionProperties properties = new AdmissionProperties();
+
+    @Test
+    void routesLandInTheirBuckets() {
+        assertEquals(Route.DEFAULT, Route.of("/v1/rates/usd/delta"));
+        assertEquals(Route.DEFAULT, Route.of("/v1/rates/usd"));
+        assertEquals(Route.DEFAULT, Route.of("/v1/rates/usd/try"));
+        assertEquals(Route.HISTORICAL, Route.of("/v1/rates/usd/2024-01-01"));
+        assertEquals(Route.RANGE, Route.of("/v1/rates/usd/try/range"));
+        assertEquals(Route.MULTI_RANGE, Route.of("/v1/rates/usd/range"));
+        assertEquals(Route.ANALYTICS, Route.of("/v1/rates/usd/try/analytics"));
+        assertEquals(Route.CONVERT_STREAM, Route.of("/v1/convert/stream"));
+        assertEquals(Route.STREAM, Route.of("/v1/stream/usd"));
+    }
+
+    @Test
+    void rejectionsAnswer429WithRetryAfter() throws Exception {
+        properties.setClient(new AdmissionProperties.Rate(0.5, 1));
+        AdmissionControlFilter filter = filter();
+
+        assertEquals(200, send(filter, "/v1/currencies").getStatus());
+        MockHttpServletResponse rejected = send(filter, "/v1/currencies");
+
+        assertEquals(429, rejected.getStatus());
+        // bir jeton 0.5/s hızla iki saniyede birikir
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        JsonNode body = mapper.readTree(rejected.getContentAsByteArray());
+        assertFalse(body.get("success").asBoolean());
+        assertEquals("Too many requests, please retry after 2 seconds", body.get("message").asText());
+        assertEquals(1, rejected("default", "client-rate"));
+    }
+
+    @Test
+    void unrefillableBucketsAskForTheFallbackDelay() throws Exception {
+        properties.setClient(new AdmissionProperties.Rate(0, 1));
+        AdmissionControlFilter filter = filter();
+
+        send(filter, "/v1/currencies");
+
+        assertEquals("60", send(filter, "/v1/currencies").getHeader("Retry-After"));
+    }
+
+    @Test
+    void laterRejectionsRefundTheClientTokens() throws Exception {
+        // istemci kovası iki ağır isteğe yeter; rota kovası sadece birine
+        properties.setClient(new AdmissionProperties.Rate(0.001, 10));
+        properties.getRoutes().put("historical", new AdmissionProperties.Rate(0.001, 1));
+        AdmissionControlFilter filter = filter();
+
+        assertEquals(200, send(filter, "/v1/rates/usd/2024-01-01").getStatus());
+        assertEquals(429, send(filter, "/v1/rates/usd/2024-01-01").getStatus());
+        assertEquals(429, send(filter, "/v1/rates/usd/2024-01-01").getStatus());
+
+        // iade olmasaydı ikinci ret istemci kovasından gelirdi ve beş jeton kalmazdı
+        assertEquals(2, rejected("historical", "route-rate"));
+        assertEquals(0, rejected("historical", "client-rate"));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send(filter, "/v1/currencies").getStatus());
+        }
+    }
+
+    @Test
+    void asyncRequestsHoldTheirSlotUntilCompletion() throws Exception {
+        heavyLimit(1);
+        AdmissionControlFilter filter = filter();
+
+        MockHttpServletRequest first = asyncRequest("/v1/rates/usd/2024-01-01");
+        filter.doFilter(first, new MockHttpServletResponse(), startAsync());
+        assertEquals(429, send(filter, "/v1/rates/usd/2024-01-02").getStatus());
+        assertEquals(1, rejected("historical", "concurrency"));
+
+        ((MockAsyncContext) first.getAsyncContext()).complete();
+
+        assertEquals(200, send(filter, "/v1/rates/usd/2024-01-02").getStatus());
+    }
+
+    @Test
+    void timedOutAsyncRequestsReleaseTheirSlot() throws Exception {
+        heavyLimit(1);
+        AdmissionControlFilter filter = filter();
+
+        MockHttpServletRequest first = asyncRequest("/v1/rates/usd/2024-01-01");
+        filter.doFilter(first, new MockHttpServletResponse(), startAsync());
+        MockAsyncContext context = (MockAsyncContext) first.getAsyncContext();
+        for (AsyncListener listener : context.getListeners()) {
+            listener.onTimeout(new AsyncEvent(context));
+        }
+
+        assertEquals(200, send(filter, "/v1/rates/usd/2024-01-02").getStatus());
+        // zaman aşımının ardından gelen tamamlanma hakkı ikinci kez bırakmaz
+        context.complete();
+        filter.doFilter(asyncRequest("/v1/rates/usd/2024-01-03"), new MockHttpServletResponse(), startAsync());
+        assertEquals(429, send(filter, "/v1/rates/usd/2024-01-04").getStatus());
+    }
+
+    private void heavyLimit(int limit) {
+        properties.getHeavy().setInitialLimit(limit);
+        properties.getHeavy().setMinLimit(limit);
+        properties.getHeavy().setMaxLimit(limit);
+    }
+
+    private AdmissionControlFilter filter() {
+        return new AdmissionControlFilter(properties, mapper, registry,
+                new UpstreamMetrics(registry, new UpstreamCircuitBreaker(5, 30_000, 5_000)));
+    }
+
+    private static MockHttpServletResponse send(AdmissionControlFilter filter, String path)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", path), response, (request, ignored) -> { });
+        return response;
+    }
+
+    private static MockHttpServletRequest asyncRequest(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private static FilterChain startAsync() {
+        return (request, response) -> request.startAsync();
+    }
+
+    private double rejected(String route, String reason) {
+        return registry.counter("doviz.admission.rejected", "route", route, "reason", reason).count();
+    }
+}
@@ -0,0 +1,112 @@
+package com.doviz.api.controller;
+
+import com.doviz.api.config.AdmissionProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AimdLimitTest {
+
+    private static final Duration TARGET = Duration.ofMillis(800);
+    private static final long FAST = Duration.ofMillis(100).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    private final ConcurrencyLimit target = new ConcurrencyLimit(0);
+
+    @Test
+    void initialLimitIsClampedToTheRange() {
+        new AimdLimit(target, settings(100, 2, 64));
+        assertEquals(64, target.limit());
+
+        new AimdLimit(target, settings(0, 2, 64));
+        assertEquals(2, target.limit());
+    }
+
+    @Test
+    void fastSamplesGrowAnUsedLimitByAboutOnePerWindow() {
+        occupy(2);
+        AimdLimit limit = new AimdLimit(target, settings(4, 2, 64));
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 4; i++) {
+            limit.onSample(FAST, false, now);
+        }
+        assertEquals(4, target.limit());
+
+        limit.onSample(FAST, false, now);
+        assertEquals(5, target.limit());
+    }
+
+    @Test
+    void idleLimitDoesNotGrow() {
+        occupy(1);
+        AimdLimit limit = new AimdLimit(target, settings(4, 2, 64));
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(FAST, false, now);
+        }
+
+        assertEquals(4, target.limit());
+    }
+
+    @Test
+    void growthStopsAtTheMaximum() {
+        occupy(8);
+        AimdLimit limit = new AimdLimit(target, settings(7, 2, 8));
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample(FAST, false, now);
+        }
+
+        assertEquals(8, target.limit());
+    }
+
+    @Test
+    void slowSamplesBackOffOncePerTargetWindow() {
+        AimdLimit limit = new AimdLimit(target, settings(16, 2, 64));
+        long now = System.nanoTime();
+
+        limit.onSample(SLOW, false, now);
+        assertEquals(12, target.limit());
+
+        limit.onSample(SLOW, false, now + TARGET.toNanos() / 2);
+        assertEquals(12, target.limit());
+
+        limit.onSample(SLOW, false, now + TARGET.toNanos());
+        assertEquals(9, target.limit());
+    }
+
+    @Test
+    void failuresBackOffDownToTheMinimum() {
+        AimdLimit limit = new AimdLimit(target, settings(16, 3, 64));
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(FAST, true, now + i * TARGET.toNanos());
+        }
+
+        assertEquals(3, target.limit());
+    }
+
+    // sınır kullanımda sayılsın diye uçuşta istek bırakır
+    private void occupy(int requests) {
+        target.setLimit(Integer.MAX_VALUE);
+        for (int i = 0; i < requests; i++) {
+            target.tryAcquire();
+        }
+    }
+
+    private static AdmissionProperties.Heavy settings(int initial, int min, int max) {
+        AdmissionProperties.Heavy settings = new AdmissionProperties.Heavy();
+        settings.setInitialLimit(initial);
+        settings.setMinLimit(min);
+        settings.setMaxLimit(max);
+        settings.setLatencyTarget(TARGET);
+        settings.setBackoff(0.75);
+        return settings;
+    }
+}
@@ -0,0 +1,118 @@
+package com.doviz.api.controller;
+
+import com.doviz.api.config.ResponseFormats;
+import com.doviz.api.model.ApiResponse;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EncodedResponseCacheTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    private final EncodedResponseCache cache =
+            new EncodedResponseCache(new ResponseFormats(new ObjectMapper().findAndRegisterModules()));
+
+    @Test
+    void etagSurvivesReloadsOfTheSameData() throws InterruptedException {
+        CurrencyRates first = rates(1.08);
+        String etag = render(first, null, null).getHeaders().getETag();
+
+        Thread.sleep(2);
+        CurrencyRates reloaded = rates(1.08);
+        ResponseEntity<byte[]> again = render(reloaded, null, null);
+
+        assertEquals(etag, again.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, render(reloaded, etag, null).getStatusCode());
+    }
+
+    @Test
+    void etagChangesWithTheData() {
+        String etag = render(rates(1.08), null, null).getHeaders().getETag();
+        ResponseEntity<byte[]> changed = render(rates(1.09), etag, null);
+
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        assertTrue(changed.getHeaders().getETag().contains(DATE.toString()));
+    }
+
+    @Test
+    void staleCopiesGetTheirOwnEtag() {
+        CurrencyRates fresh = rates(1.08);
+        String etag = render(fresh, null, null).getHeaders().getETag();
+
+        ResponseEntity<byte[]> stale = render(fresh.asStale(), etag, null);
+
+        assertEquals(HttpStatus.OK, stale.getStatusCode());
+        assertNotEquals(etag, stale.getHeaders().getETag());
+    }
+
+    @Test
+    void gzipRepresentationHasADistinctEtag() {
+        CurrencyRates snapshot = rates(1.08);
+        ResponseEntity<byte[]> identity = render(snapshot, null, null);
+        ResponseEntity<byte[]> gzip = render(snapshot, null, "gzip, deflate");
+
+        String identityEtag = identity.getHeaders().getETag();
+        String gzipEtag = gzip.getHeaders().getETag();
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNull(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(identityEtag.substring(0, identityEtag.length() - 1) + "-gz\"", gzipEtag);
+
+        assertEquals(HttpStatus.OK, render(snapshot, identityEtag, "gzip").getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, render(snapshot, gzipEtag, "gzip").getStatusCode());
+        assertEquals(HttpStatus.OK, render(snapshot, gzipEtag, "gzip;q=0").getStatusCode());
+    }
+
+    @Test
+    void gzipQualityIsReadAsANumber() {
+        assertTrue(EncodedResponseCache.acceptsGzip("gzip;q=0.5"));
+        assertTrue(EncodedResponseCache.acceptsGzip("deflate, GZIP ; Q=1"));
+        assertFalse(EncodedResponseCache.acceptsGzip("gzip;q=0.0"));
+        assertFalse(EncodedResponseCache.acceptsGzip("gzip; q=0.000"));
+        assertFalse(EncodedResponseCache.acceptsGzip("gzip;q=abc"));
+        assertFalse(EncodedResponseCache.acceptsGzip("deflate"));
+        assertFalse(EncodedResponseCache.acceptsGzip(null));
+    }
+
+    @Test
+    void wildcardCoversGzipOnlyWhenItIsNotListed() {
+        assertTrue(EncodedResponseCache.acceptsGzip("*"));
+        assertTrue(EncodedResponseCache.acceptsGzip("br, *;q=0.1"));
+        assertFalse(EncodedResponseCache.acceptsGzip("identity, *;q=0"));
+        assertFalse(EncodedResponseCache.acceptsGzip("*, gzip;q=0"));
+        assertTrue(EncodedResponseCache.acceptsGzip("*;q=0, gzip"));
+    }
+
+    @Test
+    void eachFormatHasItsOwnEtag() {
+        CurrencyRates snapshot = rates(1.08);
+        ResponseEntity<byte[]> json = cache.render("rates:eur", snapshot, ApiResponse.success(snapshot),
+                null, null, null);
+        ResponseEntity<byte[]> cbor = cache.render("rates:eur", snapshot, ApiResponse.success(snapshot),
+                null, null, "application/cbor");
+
+        assertEquals(ResponseFormats.Format.CBOR.mediaType(), cbor.getHeaders().getContentType());
+        assertNotEquals(json.getHeaders().getETag(), cbor.getHeaders().getETag());
+    }
+
+    private ResponseEntity<byte[]> render(CurrencyRates snapshot, String ifNoneMatch, String acceptEncoding) {
+        return cache.render("rates:eur", snapshot, ApiResponse.success(snapshot), ifNoneMatch, acceptEncoding, null);
+    }
+
+    private static CurrencyRates rates(double usd) {
+        return new CurrencyRates("eur", DATE, RateTable.builder().put("usd", usd).put("try", 34.9).build());
+    }
+}
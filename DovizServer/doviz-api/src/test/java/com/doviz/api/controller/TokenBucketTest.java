@@ -0,0 +1,84 @@
+package com.doviz.api.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void fullBucketAllowsTheBurst() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(1, 0));
+        }
+        assertNear(100 * MS, bucket.tryAcquire(1, 0));
+    }
+
+    @Test
+    void tokensRefillWithElapsedTime() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+        assertEquals(0, bucket.tryAcquire(5, 0));
+
+        assertNear(50 * MS, bucket.tryAcquire(1, 50 * MS));
+        assertEquals(0, bucket.tryAcquire(1, 100 * MS));
+        assertEquals(0, bucket.tryAcquire(2, 300 * MS));
+    }
+
+    @Test
+    void idleTimeDoesNotGrowBeyondTheBurst() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        assertEquals(0, bucket.tryAcquire(3, TimeUnit.HOURS.toNanos(1)));
+        assertTrue(bucket.tryAcquire(1, TimeUnit.HOURS.toNanos(1)) > 0);
+    }
+
+    @Test
+    void costAboveTheBurstNeverFits() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        assertEquals(Long.MAX_VALUE, bucket.tryAcquire(4, 0));
+        // reddedilen istek jeton harcamaz
+        assertEquals(0, bucket.tryAcquire(3, 0));
+    }
+
+    @Test
+    void zeroRateNeverRefills() {
+        TokenBucket bucket = new TokenBucket(0, 2, 0);
+
+        assertEquals(0, bucket.tryAcquire(2, 0));
+        assertEquals(Long.MAX_VALUE, bucket.tryAcquire(1, TimeUnit.DAYS.toNanos(1)));
+    }
+
+    @Test
+    void burstIsAtLeastOne() {
+        TokenBucket bucket = new TokenBucket(1, 0, 0);
+
+        assertEquals(0, bucket.tryAcquire(1, 0));
+        assertNear(1_000 * MS, bucket.tryAcquire(1, 0));
+    }
+
+    @Test
+    void refundReturnsTokensUpToTheBurst() {
+        TokenBucket bucket = new TokenBucket(10, 4, 0);
+        assertEquals(0, bucket.tryAcquire(4, 0));
+
+        bucket.refund(3);
+        assertEquals(0, bucket.tryAcquire(3, 0));
+
+        bucket.refund(10);
+        assertEquals(0, bucket.tryAcquire(4, 0));
+        assertTrue(bucket.tryAcquire(1, 0) > 0);
+    }
+
+    private static void assertNear(long expected, long actual) {
+        // kayan nokta dolum hızı beklemeyi bir nanosaniye uzatabilir
+        assertTrue(Math.abs(expected - actual) <= 1, "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,70 @@
+package com.doviz.api.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CurrencyCodeIndexTest {
+
+    @Test
+    void idOfInternsLowerCaseAndIsStable() {
+        int id = CurrencyCodeIndex.idOf("XCodeIndexA");
+
+        assertEquals(id, CurrencyCodeIndex.idOf("xcodeindexa"));
+        assertEquals(id, CurrencyCodeIndex.idOf("XCODEINDEXA"));
+        assertEquals("xcodeindexa", CurrencyCodeIndex.codeOf(id));
+        assertTrue(id < CurrencyCodeIndex.size());
+    }
+
+    @Test
+    void findDoesNotAssignNewIds() {
+        int size = CurrencyCodeIndex.size();
+
+        assertEquals(-1, CurrencyCodeIndex.find("xcodeindex-unknown"));
+        assertEquals(-1, CurrencyCodeIndex.find("XCODEINDEX-UNKNOWN"));
+        assertEquals(size, CurrencyCodeIndex.size());
+
+        int id = CurrencyCodeIndex.idOf("xcodeindexb");
+        assertEquals(id, CurrencyCodeIndex.find("XCodeIndexB"));
+    }
+
+    @Test
+    void concurrentInterningAssignsOneIdPerCode() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> ids = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String code = i % 2 == 0 ? "xcodeindexc" : "XCODEINDEXC";
+                ids.add(executor.submit(() -> CurrencyCodeIndex.idOf(code)));
+            }
+            Set<Integer> distinct = ConcurrentHashMap.newKeySet();
+            for (Future<Integer> id : ids) {
+                distinct.add(id.get());
+            }
+            assertEquals(1, distinct.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void indexGrowsPastItsInitialCapacity() {
+        int first = CurrencyCodeIndex.idOf("xcodeindex-grow-0");
+        for (int i = 1; i < 600; i++) {
+            CurrencyCodeIndex.idOf("xcodeindex-grow-" + i);
+        }
+
+        assertEquals(first, CurrencyCodeIndex.find("xcodeindex-grow-0"));
+        int last = CurrencyCodeIndex.find("xcodeindex-grow-599");
+        assertEquals("xcodeindex-grow-599", CurrencyCodeIndex.codeOf(last));
+    }
+}
@@ -0,0 +1,75 @@
+package com.doviz.api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CurrencyRatesDeserializerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void readsUpstreamShapeWithTheBaseAsFieldName() throws IOException {
+        CurrencyRates rates = mapper.readValue(
+                "{\"date\": \"2024-03-01\", \"eur\": {\"usd\": 1.08, \"try\": 34.9}}", CurrencyRates.class);
+
+        assertEquals("eur", rates.getBase());
+        assertEquals(LocalDate.of(2024, 3, 1), rates.getDate());
+        assertEquals(Map.of("usd", 1.08, "try", 34.9), rates.getRates().toMap());
+        assertFalse(rates.isStale());
+    }
+
+    @Test
+    void fieldOrderDoesNotMatter() throws IOException {
+        CurrencyRates rates = mapper.readValue(
+                "{\"usd\": {\"eur\": 0.92}, \"date\": \"2024-03-02\"}", CurrencyRates.class);
+
+        assertEquals("usd", rates.getBase());
+        assertEquals(LocalDate.of(2024, 3, 2), rates.getDate());
+        assertEquals(0.92, rates.getRates().get("eur"));
+    }
+
+    @Test
+    void readsOwnSerializedShape() throws IOException {
+        CurrencyRates original = new CurrencyRates("gbp", LocalDate.of(2024, 1, 31),
+                RateTable.builder().put("usd", 1.27).put("eur", 1.17).build());
+
+        CurrencyRates copy = mapper.readValue(mapper.writeValueAsString(original), CurrencyRates.class);
+
+        assertEquals(original, copy);
+    }
+
+    @Test
+    void skipsUnknownScalarAndArrayFields() throws IOException {
+        CurrencyRates rates = mapper.readValue(
+                "{\"version\": 2, \"sources\": [\"a\", {\"b\": 1}], \"date\": null, \"eur\": {\"usd\": 1.08}}",
+                CurrencyRates.class);
+
+        assertNull(rates.getDate());
+        assertEquals("eur", rates.getBase());
+        assertEquals(1, rates.getRates().size());
+    }
+
+    @Test
+    void missingRatesObjectLeavesAnEmptyTable() throws IOException {
+        CurrencyRates rates = mapper.readValue("{\"date\": \"2024-03-01\"}", CurrencyRates.class);
+
+        assertNull(rates.getBase());
+        assertTrue(rates.getRates().isEmpty());
+    }
+
+    @Test
+    void rejectsNonObjectPayloads() {
+        assertThrows(IOException.class, () -> mapper.readValue("[1, 2]", CurrencyRates.class));
+        assertThrows(IOException.class, () -> mapper.readValue("\"eur\"", CurrencyRates.class));
+    }
+}
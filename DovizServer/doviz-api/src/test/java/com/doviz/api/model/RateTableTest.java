@@ -0,0 +1,115 @@
+package com.doviz.api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateTableTest {
+
+    @Test
+    void lookupIsCaseInsensitiveAndMissingCodesAreNaN() {
+        RateTable table = RateTable.builder().put("usd", 1.08).put("TRY", 35.2).build();
+
+        assertEquals(1.08, table.get("usd"));
+        assertEquals(1.08, table.get("USD"));
+        assertEquals(35.2, table.get("try"));
+        assertTrue(Double.isNaN(table.get("gbp")));
+        assertTrue(Double.isNaN(table.get("never-seen-code")));
+        assertTrue(table.contains("Usd"));
+        assertFalse(table.contains("gbp"));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void putOverwritesWithoutGrowingTheSizeAndIgnoresNaN() {
+        RateTable table = RateTable.builder()
+                .put("usd", 1.0)
+                .put("usd", 1.1)
+                .put("eur", Double.NaN)
+                .build();
+
+        assertEquals(1, table.size());
+        assertEquals(1.1, table.get("usd"));
+        assertFalse(table.contains("eur"));
+    }
+
+    @Test
+    void emptyBuilderReturnsSharedEmptyTable() {
+        assertSame(RateTable.EMPTY, RateTable.builder().build());
+        assertSame(RateTable.EMPTY, RateTable.of(Map.of()));
+        assertTrue(RateTable.EMPTY.isEmpty());
+        assertTrue(Double.isNaN(RateTable.EMPTY.get("usd")));
+    }
+
+    @Test
+    void ofSkipsNullValuesAndRoundTripsThroughToMap() {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        rates.put("usd", 1.08);
+        rates.put("gbp", null);
+        rates.put("jpy", 161.5);
+
+        RateTable table = RateTable.of(rates);
+
+        assertEquals(2, table.size());
+        assertEquals(Map.of("usd", 1.08, "jpy", 161.5), table.toMap());
+    }
+
+    @Test
+    void selectKeepsOnlyKnownRequestedCodes() {
+        RateTable table = RateTable.builder().put("usd", 1.08).put("try", 35.2).put("gbp", 0.85).build();
+
+        RateTable selected = table.select(List.of("TRY", "gbp", "unknown-code", "chf"));
+
+        assertEquals(Map.of("try", 35.2, "gbp", 0.85), selected.toMap());
+    }
+
+    @Test
+    void equalityIgnoresInsertionOrderAndTrailingCapacity() {
+        RateTable first = RateTable.builder().put("usd", 1.08).put("try", 35.2).build();
+        RateTable second = RateTable.builder().put("try", 35.2).put("usd", 1.08).build();
+        RateTable different = RateTable.builder().put("usd", 1.08).put("try", 35.3).build();
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, different);
+        assertNotEquals(first, first.select(List.of("usd")));
+    }
+
+    @Test
+    void forEachVisitsEveryRateOnce() {
+        RateTable table = RateTable.builder().put("usd", 1.08).put("try", 35.2).build();
+        Map<String, Double> visited = new LinkedHashMap<>();
+
+        table.forEach(visited::put);
+
+        assertEquals(Map.of("usd", 1.08, "try", 35.2), visited);
+    }
+
+    @Test
+    void jsonRoundTripUsesThePlainObjectShape() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        RateTable table = RateTable.builder().put("usd", 1.08).put("try", 35.2).build();
+
+        String json = mapper.writeValueAsString(table);
+
+        assertEquals(Map.of("usd", 1.08, "try", 35.2), mapper.readValue(json, Map.class));
+        assertEquals(table, mapper.readValue(json, RateTable.class));
+    }
+
+    @Test
+    void readAcceptsNumericStringsAndSkipsNonNumericValues() throws Exception {
+        RateTable table = new ObjectMapper().readValue(
+                "{\"usd\": \"1.5\", \"eur\": {\"nested\": 1}, \"gbp\": [1, 2], \"try\": 35}", RateTable.class);
+
+        assertEquals(Map.of("usd", 1.5, "try", 35.0), table.toMap());
+    }
+}
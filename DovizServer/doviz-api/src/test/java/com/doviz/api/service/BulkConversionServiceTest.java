@@ -0,0 +1,177 @@
+package com.doviz.api.service;
+
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateTable;
+import com.doviz.api.service.CrossRateEngine.PivotVector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BulkConversionServiceTest {
+
+    private static final LocalDate LATEST = LocalDate.of(2024, 6, 1);
+
+    private final List<LocalDate> fetched = new ArrayList<>();
+
+    private final CrossRateEngine engine = new CrossRateEngine(null) {
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public Mono<PivotVector> pivotVector() {
+            return Mono.just(new PivotVector(rates(LATEST)));
+        }
+
+        @Override
+        public Mono<PivotVector> pivotVector(LocalDate date) {
+            fetched.add(date);
+            return Mono.just(new PivotVector(rates(date)));
+        }
+
+        @Override
+        public int getSignificantDigits() {
+            return 10;
+        }
+    };
+
+    @Test
+    void csvHeaderReordersColumns() throws IOException {
+        assertEquals("""
+                line,amount,from,to,date,rate,converted,error
+                2,100,eur,try,2024-06-01,34.9,3490.00,
+                """, csv("to,amount,from\ntry,100,eur\n"));
+    }
+
+    @Test
+    void csvWithoutHeaderUsesTheDefaultOrderAndAcceptsCrlf() throws IOException {
+        assertEquals("""
+                line,amount,from,to,date,rate,converted,error
+                1,100,eur,try,2024-06-01,34.9,3490.00,
+                2,2.5,eur,usd,2024-06-01,1.08,2.70,
+                """, csv("100,eur,try\r\n2.5,EUR,usd\r\n"));
+    }
+
+    @Test
+    void quotedFieldsAreUnwrapped() throws IOException {
+        // "" tırnaklı alanda tek tırnaktır; tutarın içinde kalınca tutar geçersiz olur
+        assertEquals("""
+                line,amount,from,to,date,rate,converted,error
+                1,100,eur,try,2024-06-01,34.9,3490.00,
+                2,,,,,,,invalid amount
+                """, csv("\"100\",\"eur\",try\n\"1\"\"0\",eur,try\n"));
+    }
+
+    @Test
+    void overLongLinesAreSkippedUpToTheirEnd() throws IOException {
+        String input = "1" + "0".repeat(70_000) + ",eur,try\n100,eur,try";
+
+        assertEquals("""
+                line,amount,from,to,date,rate,converted,error
+                1,,,,,,,line too long
+                2,100,eur,try,2024-06-01,34.9,3490.00,
+                """, csv(input));
+    }
+
+    @Test
+    void malformedJsonStopsTheStream() throws IOException {
+        assertEquals("""
+                {"line":1,"amount":100,"from":"eur","to":"try","date":"2024-06-01","rate":34.9,\
+                "converted":3490.00}
+                {"line":2,"error":"expected a JSON object"}
+                {"line":3,"error":"malformed JSON, stopping"}
+                """, ndjson("{\"amount\":100,\"from\":\"eur\",\"to\":\"try\"}\n[1]\n{\"amount\":\n"));
+    }
+
+    @Test
+    void ndjsonEchoesTheAmountDigitsAsAJsonNumber() throws IOException {
+        String output = ndjson("""
+                {"amount":"0.10","from":"eur","to":"usd"}
+                {"amount":"+.5","from":"eur","to":"usd"}
+                {"amount":1234567890123.4567,"from":"eur","to":"usd"}
+                """);
+
+        assertEquals("""
+                {"line":1,"amount":0.10,"from":"eur","to":"usd","date":"2024-06-01","rate":1.08,\
+                "converted":0.11}
+                {"line":2,"amount":0.5,"from":"eur","to":"usd","date":"2024-06-01","rate":1.08,\
+                "converted":0.54}
+                {"line":3,"amount":1234567890123.4567,"from":"eur","to":"usd","date":"2024-06-01",\
+                "rate":1.08,"converted":1333333321333.33}
+                """, output);
+    }
+
+    @Test
+    void datedRowsUseThatDaysSnapshot() throws IOException {
+        assertEquals("""
+                line,amount,from,to,date,rate,converted,error
+                2,100,eur,try,2024-03-06,34.9,3490.00,
+                3,,,,,,,date in the future
+                4,,,,,,,date before earliest available
+                """, csv("""
+                amount,from,to,date
+                100,eur,try,2024-03-06
+                1,eur,try,2999-01-01
+                1,eur,try,2020-01-01
+                """));
+        assertEquals(List.of(LocalDate.of(2024, 3, 6)), fetched);
+    }
+
+    @Test
+    void dateFetchesAreCappedPerRequest() throws IOException {
+        String output = csv(new BulkConversionService(engine, new ObjectMapper(), 1000, 2, "2024-03-02"), """
+                1,eur,try,2024-03-06
+                1,eur,try,2024-03-07
+                1,eur,try,2024-03-08
+                1,eur,try,2024-03-06
+                """);
+
+        assertEquals("""
+                line,amount,from,to,date,rate,converted,error
+                1,1,eur,try,2024-03-06,34.9,34.90,
+                2,1,eur,try,2024-03-07,34.9,34.90,
+                3,,,,,,,too many dates
+                4,1,eur,try,2024-03-06,34.9,34.90,
+                """, output);
+        assertEquals(2, fetched.size());
+    }
+
+    private String csv(String input) throws IOException {
+        return csv(service(), input);
+    }
+
+    private String csv(BulkConversionService service, String input) throws IOException {
+        return convert(service, BulkConversionService.Format.CSV, input);
+    }
+
+    private String ndjson(String input) throws IOException {
+        return convert(service(), BulkConversionService.Format.NDJSON, input);
+    }
+
+    private BulkConversionService service() {
+        return new BulkConversionService(engine, new ObjectMapper(), 1000, 366, "2024-03-02");
+    }
+
+    private static String convert(BulkConversionService service, BulkConversionService.Format format,
+            String input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        service.stream(format, new ByteArrayInputStream(bytes), 2).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static CurrencyRates rates(LocalDate date) {
+        return new CurrencyRates("eur", date, RateTable.builder().put("usd", 1.08).put("try", 34.9).build());
+    }
+}
@@ -0,0 +1,61 @@
+package com.doviz.api.service;
+
+import com.doviz.api.model.CurrencyCodeIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CodeLookupTest {
+
+    private final CodeLookup lookup = new CodeLookup();
+
+    @Test
+    void findsCodesCaseInsensitively() {
+        int usd = CurrencyCodeIndex.idOf("usd");
+
+        assertEquals(usd, find("usd"));
+        assertEquals(usd, find("USD"));
+        assertEquals(usd, find("UsD"));
+    }
+
+    @Test
+    void findsInsideALargerBuffer() {
+        int tr = CurrencyCodeIndex.idOf("try");
+        char[] line = "100,usd,TRY".toCharArray();
+
+        assertEquals(tr, lookup.find(line, 8, 3));
+        assertEquals(tr, lookup.find(line, 8, 3));
+    }
+
+    @Test
+    void unknownAndEmptyCodesAreMinusOne() {
+        assertEquals(-1, find(""));
+        assertEquals(-1, find("xcodelookup-unknown"));
+        assertEquals(-1, find("zzq"));
+        assertEquals(-1, find("zzq"));
+    }
+
+    @Test
+    void longAndNonAsciiCodesBypassThePackedKey() {
+        int longCode = CurrencyCodeIndex.idOf("xcodelookuplong");
+        int accented = CurrencyCodeIndex.idOf("xçl");
+
+        assertEquals(longCode, find("XCODELOOKUPLONG"));
+        assertEquals(accented, find("xçl"));
+    }
+
+    @Test
+    void keepsWorkingWhenTheTableIsFull() {
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(-1, find("q" + i));
+        }
+        int eur = CurrencyCodeIndex.idOf("eur");
+
+        assertEquals(eur, find("EUR"));
+        assertEquals(eur, find("eur"));
+    }
+
+    private int find(String code) {
+        return lookup.find(code.toCharArray(), 0, code.length());
+    }
+}
@@ -0,0 +1,41 @@
+package com.doviz.api.service;
+
+import com.doviz.api.model.CurrencyCodeIndex;
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateTable;
+import com.doviz.api.service.CrossRateEngine.PivotVector;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CrossRateEngineTest {
+
+    // usd'nin kuru tam 1.0: pivot gibi görünür ama pivot değildir
+    private final PivotVector vector = new PivotVector(new CurrencyRates("eur", LocalDate.of(2024, 3, 6),
+            RateTable.builder().put("usd", 1.0).put("try", 34.123456789).put("gbp", 0.85).build()));
+
+    @Test
+    void ratesFromThePivotAreUpstreamValues() {
+        assertEquals(34.123456789, rate("eur", "try", 4));
+        assertEquals(1.0, rate("try", "try", 4));
+    }
+
+    @Test
+    void otherBasesAreDerivedAndRoundedEvenAtParity() {
+        assertEquals(34.12, rate("usd", "try", 4));
+        assertEquals(0.02491, rate("try", "gbp", 4));
+        assertEquals(1.176, rate("gbp", "eur", 4));
+    }
+
+    @Test
+    void unknownCodesHaveNoRate() {
+        assertTrue(Double.isNaN(rate("eur", "xyz", 4)));
+    }
+
+    private double rate(String from, String to, int digits) {
+        return vector.rate(CurrencyCodeIndex.find(from), CurrencyCodeIndex.find(to), digits);
+    }
+}
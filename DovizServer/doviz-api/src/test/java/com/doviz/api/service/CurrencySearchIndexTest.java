@@ -0,0 +1,104 @@
+package com.doviz.api.service;
+
+import com.doviz.api.model.CurrencyCatalog;
+import com.doviz.api.model.CurrencyMatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CurrencySearchIndexTest {
+
+    private final CurrencySearchIndex index = new CurrencySearchIndex(new CurrencyCatalog(
+            new String[] { "usd", "eur", "try", "gbp", "jpy", "sek", "nok", "btc", "usdc", "xau" },
+            new String[] { "US Dollar", "Euro", "Türk Lirası", "British Pound", "Japanese Yen", "Swedish Krona",
+                    "Norwegian Krone", "Bitcoin", "USD Coin", "Gold Ounce" }));
+
+    @Test
+    void exactCodeComesFirst() {
+        List<CurrencyMatch> matches = index.search("USD", 5);
+
+        assertEquals("usd", matches.get(0).getCode());
+        assertEquals("code", matches.get(0).getMatchType());
+        assertEquals(1.0, matches.get(0).getScore());
+        assertEquals("usdc", matches.get(1).getCode());
+        assertEquals("prefix", matches.get(1).getMatchType());
+    }
+
+    @Test
+    void namesMatchWithoutAccents() {
+        List<CurrencyMatch> matches = index.search("turk lirasi", 3);
+
+        assertEquals("try", matches.get(0).getCode());
+        assertEquals("name", matches.get(0).getMatchType());
+    }
+
+    @Test
+    void wordPrefixesMatch() {
+        assertEquals("jpy", index.search("yen", 3).get(0).getCode());
+        assertEquals("xau", index.search("gol", 3).get(0).getCode());
+    }
+
+    @Test
+    void shortTyposAreFoundThroughDeletionNeighbours() {
+        assertEquals("usd", top("uds"));
+        assertEquals("eur", top("eru"));
+        assertEquals("gbp", top("gpb"));
+        assertEquals("eur", top("euor"));
+        assertEquals("btc", top("bct"));
+        assertEquals("fuzzy", index.search("uds", 1).get(0).getMatchType());
+    }
+
+    @Test
+    void shortTyposReachWordsAndNames() {
+        assertEquals("eur", top("eruo"));
+        assertEquals("jpy", top("yne"));
+    }
+
+    @Test
+    void unrelatedShortQueriesFindNothing() {
+        assertTrue(index.search("qqq", 5).isEmpty());
+        assertTrue(index.search("zx", 5).isEmpty());
+    }
+
+    @Test
+    void multiWordShortQueriesStillMatch() {
+        assertEquals("usd", top("us d"));
+    }
+
+    @Test
+    void longerTyposUseTrigrams() {
+        assertEquals("nok", top("norwegain krone"));
+        assertEquals("btc", top("bitcoim"));
+    }
+
+    @Test
+    void emptyQueriesAndLimits() {
+        assertTrue(index.search("  ", 5).isEmpty());
+        assertTrue(index.search("-", 5).isEmpty());
+        assertEquals(1, index.search("u", 1).size());
+    }
+
+    @Test
+    void editDistanceCountsAdjacentTranspositionsOnce() {
+        assertEquals(1, CurrencySearchIndex.editDistance("uds", "usd"));
+        assertEquals(1, CurrencySearchIndex.editDistance("eu", "eur"));
+        assertEquals(2, CurrencySearchIndex.editDistance("abcd", "badc"));
+        assertEquals(3, CurrencySearchIndex.editDistance("", "abc"));
+    }
+
+    @Test
+    void normalizeFoldsCaseAccentsAndPunctuation() {
+        assertEquals("turk lirasi", CurrencySearchIndex.normalize("Türk  Lirası!"));
+        assertEquals("norsk krone", CurrencySearchIndex.normalize(" Norsk-Krone "));
+        assertEquals("strasse", CurrencySearchIndex.normalize("Straße"));
+    }
+
+    private String top(String query) {
+        List<CurrencyMatch> matches = index.search(query, 1);
+        assertEquals(1, matches.size(), query);
+        return matches.get(0).getCode();
+    }
+}
@@ -0,0 +1,181 @@
+package com.doviz.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DecimalTextTest {
+
+    @Test
+    void parsesPlainDecimals() {
+        assertEquals(100.5, parse("100.5"));
+        assertEquals(-0.25, parse("-0.25"));
+        assertEquals(7.0, parse("+7"));
+        assertEquals(0.1, parse("0.1"));
+        assertEquals(123456789012.345, parse("123456789012.345"));
+    }
+
+    @Test
+    void rejectsMalformedAmounts() {
+        assertTrue(Double.isNaN(parse("")));
+        assertTrue(Double.isNaN(parse("-")));
+        assertTrue(Double.isNaN(parse("1O0")));
+        assertTrue(Double.isNaN(parse("1.2.3")));
+        assertTrue(Double.isNaN(parse("1e")));
+        assertTrue(Double.isNaN(parse("1e5d")));
+        assertTrue(Double.isNaN(parse("0x1p3")));
+        assertTrue(Double.isNaN(parse("1e400")));
+    }
+
+    @Test
+    void longAndExponentFormsTakeTheSlowPath() {
+        DecimalText.Decimal exact = new DecimalText.Decimal();
+
+        assertEquals(1.5e3, DecimalText.parse("1.5e3".toCharArray(), 0, 5, exact));
+        assertFalse(exact.exact);
+        assertEquals(1234567890123456.7, DecimalText.parse("1234567890123456.7".toCharArray(), 0, 18, exact));
+        assertFalse(exact.exact);
+    }
+
+    @Test
+    void exposesMantissaAndScale() {
+        DecimalText.Decimal exact = new DecimalText.Decimal();
+
+        DecimalText.parse("-002.6750".toCharArray(), 0, 9, exact);
+
+        assertTrue(exact.exact);
+        assertEquals(-26750, exact.mantissa);
+        assertEquals(4, exact.scale);
+    }
+
+    @Test
+    void roundsHalfEvenOnTheExactDecimal() {
+        // 2.675 double olarak 2.67499999... olduğundan double çarpım 2.67 verirdi
+        assertEquals(268, multiply("2.675", "1", 2));
+        assertEquals(-268, multiply("-2.675", "1", 2));
+        assertEquals(2, multiply("2.5", "1", 0));
+        assertEquals(4, multiply("3.5", "1", 0));
+        assertEquals(-2, multiply("-2.5", "1", 0));
+        assertEquals(12, multiply("0.125", "1", 2));
+        assertEquals(14, multiply("0.135", "1", 2));
+    }
+
+    @Test
+    void remainderBelowTheLastDivisionStepBreaksTies() {
+        // 0.500000000000001: ilk 10^9'luk adımdan kalan sıfır değil, son adımdaki yarı yukarı gider
+        assertEquals(1, DecimalText.multiply(500_000_000_000_001L, 15, 1, 0, 0));
+        assertEquals(0, DecimalText.multiply(500_000_000_000_000L, 15, 1, 0, 0));
+        assertEquals(2, DecimalText.multiply(1_500_000_000_000_000_000L, 18, 1, 0, 0));
+        // çarpım 64 biti aşar
+        assertEquals(1, DecimalText.multiply(500_000_000_000_001L, 15, 1_000_000_000_000_000_000L, 18, 0));
+        assertEquals(0, DecimalText.multiply(500_000_000_000_000L, 15, 1_000_000_000_000_000_000L, 18, 0));
+    }
+
+    @Test
+    void multipliesByTheRateAsWritten() {
+        assertEquals(3_456_790, multiply("100", "34.5679", 3));
+        assertEquals(108, multiply("1", "1.075", 2));
+        assertEquals(106, multiply("1", "1.065", 2));
+        assertEquals(123_457, multiply("1234567", "0.1", 0));
+        assertEquals(1_000_000_000, multiply("100", "1.0E7", 0));
+        assertEquals(0, multiply("1", "1.0E-9", 8));
+        assertEquals(1, multiply("1", "6.0E-9", 8));
+    }
+
+    @Test
+    void matchesBigDecimalOnAwkwardValues() {
+        String[] amounts = { "0.005", "1.005", "2.675", "999999999.995", "0.000000015", "123456.78901234",
+                "-7.77777777", "1" };
+        String[] rates = { "1", "0.5", "1.23456789", "0.000012345", "98765.4321", "1.0E-5", "3.0E7" };
+        for (String amount : amounts) {
+            for (String rate : rates) {
+                for (int scale = 0; scale <= DecimalText.MAX_SCALE; scale++) {
+                    BigInteger unscaled = new BigDecimal(amount).multiply(new BigDecimal(rate))
+                            .setScale(scale, RoundingMode.HALF_EVEN).unscaledValue();
+                    long expected = unscaled.abs().compareTo(BigInteger.valueOf(DecimalText.MAX_UNSCALED)) < 0
+                            ? unscaled.longValue()
+                            : DecimalText.OUT_OF_RANGE;
+                    assertEquals(expected, multiply(amount, rate, scale), amount + " x " + rate + " @" + scale);
+                }
+            }
+        }
+    }
+
+    @Test
+    void reportsResultsThatDoNotFitTheLimit() {
+        assertEquals(DecimalText.OUT_OF_RANGE, multiply("999999999999999", "10000", 0));
+        assertEquals(DecimalText.OUT_OF_RANGE, multiply("100000000000", "100000", 8));
+        assertEquals(DecimalText.OUT_OF_RANGE, DecimalText.multiply(1, 0, 1, -18, 0));
+        assertEquals(100_000_000_000_000_000L, DecimalText.multiply(1, 0, 1, -17, 0));
+        assertEquals(999_999_999_999_999_000L, DecimalText.multiply(999_999_999_999_999L, 0, 1_000, 0, 0));
+    }
+
+    @Test
+    void writesFixedPoint() {
+        assertEquals("123.45", fixed(12345, 2));
+        assertEquals("-0.05", fixed(-5, 2));
+        assertEquals("7", fixed(7, 0));
+        assertEquals("0.00000001", fixed(1, 8));
+    }
+
+    @Test
+    void writesAmountsAsJsonNumbersWithTheirDigits() {
+        assertEquals("0.10", json("0.10"));
+        assertEquals("1234567890123.4567", json("1234567890123.4567"));
+        assertEquals("7", json("+7"));
+        assertEquals("-0.5", json("-.5"));
+        assertEquals("5", json("5."));
+        assertEquals("10", json("0010"));
+        assertEquals("0.5", json("00.5"));
+        assertEquals("1e+5", json("1.e+5"));
+        assertEquals("0.25E3", json(".25E3"));
+    }
+
+    @Test
+    void parsesEpochDays() {
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), day("2024-02-29"));
+        assertEquals(LocalDate.of(1970, 1, 1).toEpochDay(), day("1970-01-01"));
+        assertEquals(LocalDate.of(1999, 12, 31).toEpochDay(), day("1999-12-31"));
+        assertEquals(DecimalText.INVALID_DAY, day("2023-02-29"));
+        assertEquals(DecimalText.INVALID_DAY, day("2024-13-01"));
+        assertEquals(DecimalText.INVALID_DAY, day("2024-3-01"));
+        assertEquals(DecimalText.INVALID_DAY, day("2024/03/01"));
+    }
+
+    private static double parse(String text) {
+        return DecimalText.parse(text.toCharArray(), 0, text.length());
+    }
+
+    private static long multiply(String amount, String rate, int scale) {
+        DecimalText.Decimal exact = new DecimalText.Decimal();
+        DecimalText.parse(amount.toCharArray(), 0, amount.length(), exact);
+        assertTrue(exact.exact, amount);
+        BigDecimal decimalRate = new BigDecimal(rate);
+        return DecimalText.multiply(exact.mantissa, exact.scale, decimalRate.unscaledValue().longValueExact(),
+                decimalRate.scale(), scale);
+    }
+
+    private static String fixed(long unscaled, int scale) {
+        StringBuilder out = new StringBuilder();
+        DecimalText.appendFixed(out, unscaled, scale);
+        return out.toString();
+    }
+
+    private static String json(String amount) {
+        assertFalse(Double.isNaN(parse(amount)), amount);
+        StringBuilder out = new StringBuilder();
+        DecimalText.appendJsonNumber(out, amount.toCharArray(), 0, amount.length());
+        return out.toString();
+    }
+
+    private static int day(String text) {
+        return DecimalText.parseEpochDay(text.toCharArray(), 0, text.length());
+    }
+}
@@ -0,0 +1,111 @@
+package com.doviz.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LttbDownsamplerTest {
+
+    @Test
+    void keepsEveryPointWhenThresholdCoversTheRange() {
+        LttbDownsampler downsampler = new LttbDownsampler(5, 10);
+        for (int slot = 0; slot < 5; slot++) {
+            downsampler.accept(slot, slot * 1.5);
+        }
+        downsampler.finish();
+
+        assertEquals(5, downsampler.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, downsampler.slotAt(i));
+            assertEquals(i * 1.5, downsampler.valueAt(i));
+        }
+    }
+
+    @Test
+    void reducesToThresholdAndKeepsFirstAndLastPoints() {
+        LttbDownsampler downsampler = run(1_000, 50, slot -> Math.sin(slot / 40.0));
+
+        assertEquals(50, downsampler.size());
+        assertEquals(0, downsampler.slotAt(0));
+        assertEquals(999, downsampler.slotAt(49));
+        assertEquals(Math.sin(999 / 40.0), downsampler.valueAt(49));
+        assertIncreasingSlots(downsampler);
+    }
+
+    @Test
+    void keepsIsolatedSpikes() {
+        LttbDownsampler downsampler = run(365, 20, slot -> slot == 200 ? 50.0 : slot == 90 ? -50.0 : 1.0);
+
+        assertTrue(containsSlot(downsampler, 200));
+        assertTrue(containsSlot(downsampler, 90));
+    }
+
+    @Test
+    void emitsOnePointPerBucket() {
+        int slots = 101;
+        int threshold = 12;
+        LttbDownsampler downsampler = run(slots, threshold, slot -> (slot * 7919 % 101) / 10.0);
+
+        boolean[] seen = new boolean[threshold - 2];
+        for (int i = 1; i < downsampler.size() - 1; i++) {
+            int bucket = (downsampler.slotAt(i) - 1) * (threshold - 2) / (slots - 2);
+            assertTrue(!seen[bucket], "two points from bucket " + bucket);
+            seen[bucket] = true;
+        }
+    }
+
+    @Test
+    void skipsEmptyBucketsLeftByMissingDays() {
+        LttbDownsampler downsampler = new LttbDownsampler(100, 10);
+        for (int slot = 0; slot < 100; slot++) {
+            if (slot < 30 || slot > 60) {
+                downsampler.accept(slot, slot);
+            }
+        }
+        downsampler.finish();
+
+        assertTrue(downsampler.size() < 10);
+        assertEquals(0, downsampler.slotAt(0));
+        assertEquals(99, downsampler.slotAt(downsampler.size() - 1));
+        for (int i = 0; i < downsampler.size(); i++) {
+            int slot = downsampler.slotAt(i);
+            assertTrue(slot < 30 || slot > 60, "slot " + slot + " was never accepted");
+        }
+        assertIncreasingSlots(downsampler);
+    }
+
+    @Test
+    void finishWithoutPointsIsEmpty() {
+        LttbDownsampler downsampler = new LttbDownsampler(30, 10);
+        downsampler.finish();
+
+        assertEquals(0, downsampler.size());
+    }
+
+    private static LttbDownsampler run(int slots, int threshold, IntToDoubleFunction value) {
+        LttbDownsampler downsampler = new LttbDownsampler(slots, threshold);
+        for (int slot = 0; slot < slots; slot++) {
+            downsampler.accept(slot, value.applyAsDouble(slot));
+        }
+        downsampler.finish();
+        return downsampler;
+    }
+
+    private static boolean containsSlot(LttbDownsampler downsampler, int slot) {
+        for (int i = 0; i < downsampler.size(); i++) {
+            if (downsampler.slotAt(i) == slot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertIncreasingSlots(LttbDownsampler downsampler) {
+        for (int i = 1; i < downsampler.size(); i++) {
+            assertTrue(downsampler.slotAt(i) > downsampler.slotAt(i - 1));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.doviz.api.service;
+
+import com.doviz.api.model.OhlcBucket;
+import com.doviz.api.model.RangeAnalytics;
+import com.doviz.api.model.RangeStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RangeAnalyzerTest {
+
+    // 2024-01-01 bir pazartesidir
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void computesStatisticsInOnePass() {
+        double[] values = { 2, 4, 4, 4, 5, 5, 7, 9 };
+        RangeAnalyzer analyzer = new RangeAnalyzer(MONDAY, MONDAY.plusDays(7), RangeAnalyzer.Interval.WEEK, 100);
+        for (int i = 0; i < values.length; i++) {
+            analyzer.accept(MONDAY.plusDays(i), values[i]);
+        }
+
+        RangeStatistics statistics = analyzer.finish("eur", "usd").getStatistics();
+
+        assertEquals(8, statistics.getCount());
+        assertEquals(5.0, statistics.getMean(), 1e-12);
+        assertEquals(Math.sqrt(32.0 / 7), statistics.getStdDev(), 1e-12);
+        assertEquals(2.0, statistics.getMin());
+        assertEquals(MONDAY, statistics.getMinDate());
+        assertEquals(9.0, statistics.getMax());
+        assertEquals(MONDAY.plusDays(7), statistics.getMaxDate());
+        assertEquals(2.0, statistics.getFirst());
+        assertEquals(9.0, statistics.getLast());
+        assertEquals(350.0, statistics.getChangePercent(), 1e-9);
+    }
+
+    @Test
+    void weeklyBucketsStartOnMonday() {
+        RangeAnalyzer analyzer = new RangeAnalyzer(MONDAY.plusDays(5), MONDAY.plusDays(15),
+                RangeAnalyzer.Interval.WEEK, 100);
+        for (int day = 5; day <= 15; day++) {
+            analyzer.accept(MONDAY.plusDays(day), day);
+        }
+
+        List<OhlcBucket> buckets = analyzer.finish("eur", "usd").getBuckets();
+
+        assertEquals(3, buckets.size());
+        assertBucket(buckets.get(0), MONDAY, 5, 6, 5, 6, 2);
+        assertBucket(buckets.get(1), MONDAY.plusDays(7), 7, 13, 7, 13, 7);
+        assertBucket(buckets.get(2), MONDAY.plusDays(14), 14, 15, 14, 15, 2);
+    }
+
+    @Test
+    void monthlyBucketsTrackHighAndLow() {
+        LocalDate start = LocalDate.of(2024, 1, 30);
+        RangeAnalyzer analyzer = new RangeAnalyzer(start, start.plusDays(3), RangeAnalyzer.Interval.MONTH, 100);
+        analyzer.accept(start, 1.0)
+                .accept(start.plusDays(1), 3.0)
+                .accept(start.plusDays(2), 0.5)
+                .accept(start.plusDays(3), 2.0);
+
+        List<OhlcBucket> buckets = analyzer.finish("eur", "usd").getBuckets();
+
+        assertEquals(2, buckets.size());
+        assertBucket(buckets.get(0), LocalDate.of(2024, 1, 1), 1.0, 3.0, 1.0, 3.0, 2);
+        assertBucket(buckets.get(1), LocalDate.of(2024, 2, 1), 0.5, 2.0, 0.5, 2.0, 2);
+    }
+
+    @Test
+    void reportsMissingDaysAndDownsampledSeries() {
+        LocalDate end = MONDAY.plusDays(99);
+        RangeAnalyzer analyzer = new RangeAnalyzer(MONDAY, end, RangeAnalyzer.Interval.MONTH, 10);
+        for (int day = 0; day < 100; day++) {
+            if (day % 10 != 3) {
+                analyzer.accept(MONDAY.plusDays(day), day);
+            }
+        }
+
+        RangeAnalytics analytics = analyzer.finish("eur", "usd");
+
+        assertEquals("EUR", analytics.getBase());
+        assertEquals("USD", analytics.getTarget());
+        assertEquals("month", analytics.getInterval());
+        assertEquals(100, analytics.getDays());
+        assertEquals(10, analytics.getMissingDays());
+        assertEquals(10, analytics.getSeries().getValues().length);
+        assertEquals(MONDAY, analytics.getSeries().getDates().get(0));
+        assertEquals(end, analytics.getSeries().getDates().get(9));
+    }
+
+    @Test
+    void emptyRangeHasNoStatistics() {
+        RangeAnalytics analytics = new RangeAnalyzer(MONDAY, MONDAY.plusDays(2), RangeAnalyzer.Interval.WEEK, 10)
+                .finish("eur", "usd");
+
+        assertNull(analytics.getStatistics());
+        assertEquals(3, analytics.getMissingDays());
+        assertEquals(0, analytics.getSeries().getValues().length);
+    }
+
+    @Test
+    void intervalDefaultsByRangeLength() {
+        assertEquals(RangeAnalyzer.Interval.WEEK, RangeAnalyzer.Interval.parse(null, 366));
+        assertEquals(RangeAnalyzer.Interval.MONTH, RangeAnalyzer.Interval.parse(" ", 367));
+        assertEquals(RangeAnalyzer.Interval.MONTH, RangeAnalyzer.Interval.parse("Month", 10));
+        assertThrows(IllegalArgumentException.class, () -> RangeAnalyzer.Interval.parse("day", 10));
+    }
+
+    private static void assertBucket(OhlcBucket bucket, LocalDate period, double open, double high, double low,
+            double close, int days) {
+        assertEquals(period, bucket.getPeriod());
+        assertEquals(open, bucket.getOpen());
+        assertEquals(high, bucket.getHigh());
+        assertEquals(low, bucket.getLow());
+        assertEquals(close, bucket.getClose());
+        assertEquals(days, bucket.getDays());
+    }
+}
@@ -0,0 +1,153 @@
+package com.doviz.api.service;
+
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateDelta;
+import com.doviz.api.model.RateTable;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotHistoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Test
+    void versionDependsOnlyOnTheContent() {
+        CurrencyRates first = rates(DAY, 1.08);
+        CurrencyRates reordered = new CurrencyRates("eur", DAY,
+                RateTable.builder().put("try", 34.9).put("usd", 1.08).build());
+
+        assertEquals(SnapshotHistory.versionOf(first), SnapshotHistory.versionOf(reordered));
+        assertEquals(DAY.toEpochDay(), SnapshotHistory.versionOf(first) >>> 32);
+        assertNotEquals(SnapshotHistory.versionOf(first), SnapshotHistory.versionOf(rates(DAY, 1.09)));
+        assertNotEquals(SnapshotHistory.versionOf(first), SnapshotHistory.versionOf(
+                new CurrencyRates("eur", DAY.plusDays(1), first.getRates())));
+    }
+
+    @Test
+    void nodesIngestingTheSameSnapshotsAgreeOnVersions() {
+        SnapshotHistory first = new SnapshotHistory(8);
+        SnapshotHistory second = new SnapshotHistory(8);
+
+        first.ingest(rates(DAY, 1.08));
+        first.ingest(rates(DAY, 1.09));
+        // ikinci düğüm ilk snapshot'ı hiç görmedi
+        second.ingest(rates(DAY, 1.09));
+
+        assertEquals(first.since(null).getVersion(), second.since(null).getVersion());
+        assertTrue(second.since(first.since(null).getVersion()).isEmpty());
+    }
+
+    @Test
+    void emptyHistoryHasNoDelta() {
+        assertNull(new SnapshotHistory(8).since(null));
+    }
+
+    @Test
+    void unknownOrMissingVersionGetsTheFullTable() {
+        SnapshotHistory history = new SnapshotHistory(8);
+        history.ingest(rates(DAY, 1.08));
+
+        RateDelta full = history.since(null);
+
+        assertTrue(full.isFull());
+        assertEquals(rates(DAY, 1.08).getRates(), full.getAdded());
+        assertEquals(SnapshotHistory.versionOf(rates(DAY, 1.08)), full.getVersion());
+        assertTrue(history.since(12345L).isFull());
+    }
+
+    @Test
+    void previousVersionGetsThePrecomputedChange() {
+        SnapshotHistory history = new SnapshotHistory(8);
+        history.ingest(rates(DAY, 1.08));
+        long before = history.since(null).getVersion();
+        history.ingest(new CurrencyRates("eur", DAY.plusDays(1),
+                RateTable.builder().put("usd", 1.09).put("gbp", 0.85).build()));
+
+        RateDelta delta = history.since(before);
+
+        assertFalse(delta.isFull());
+        assertEquals(Map.of("gbp", 0.85), delta.getAdded().toMap());
+        assertEquals(Map.of("usd", 1.09), delta.getChanged().toMap());
+        assertEquals(List.of("try"), delta.getRemoved());
+        assertEquals(history.since(null).getVersion(), delta.getVersion());
+    }
+
+    @Test
+    void olderVersionsAreDiffedAgainstTheLatest() {
+        SnapshotHistory history = new SnapshotHistory(8);
+        history.ingest(rates(DAY, 1.08));
+        long oldest = history.since(null).getVersion();
+        history.ingest(rates(DAY, 1.09));
+        history.ingest(rates(DAY, 1.10));
+
+        RateDelta delta = history.since(oldest);
+
+        assertEquals(Map.of("usd", 1.10), delta.getChanged().toMap());
+        assertTrue(delta.getAdded().isEmpty());
+    }
+
+    @Test
+    void upToDateClientGetsAnEmptyDelta() {
+        SnapshotHistory history = new SnapshotHistory(8);
+        history.ingest(rates(DAY, 1.08));
+        long latest = history.since(null).getVersion();
+
+        RateDelta delta = history.since(latest);
+
+        assertTrue(delta.isEmpty());
+        assertFalse(delta.isFull());
+        assertEquals(latest, delta.getVersion());
+    }
+
+    @Test
+    void sameContentDoesNotOpenAVersion() {
+        SnapshotHistory history = new SnapshotHistory(2);
+        history.ingest(rates(DAY, 1.08));
+        long first = history.since(null).getVersion();
+
+        history.ingest(rates(DAY, 1.08));
+        history.ingest(rates(DAY, 1.08));
+
+        assertEquals(first, history.since(null).getVersion());
+        assertFalse(history.since(first).isFull());
+    }
+
+    @Test
+    void droppedVersionsGetTheFullTable() {
+        SnapshotHistory history = new SnapshotHistory(2);
+        history.ingest(rates(DAY, 1.08));
+        long dropped = history.since(null).getVersion();
+        history.ingest(rates(DAY, 1.09));
+        history.ingest(rates(DAY, 1.10));
+
+        assertTrue(history.since(dropped).isFull());
+    }
+
+    @Test
+    void returningToEarlierContentReusesItsVersion() {
+        SnapshotHistory history = new SnapshotHistory(8);
+        history.ingest(rates(DAY, 1.08));
+        long original = history.since(null).getVersion();
+        history.ingest(rates(DAY, 1.09));
+        long corrected = history.since(null).getVersion();
+
+        history.ingest(rates(DAY, 1.08));
+
+        assertEquals(original, history.since(null).getVersion());
+        assertTrue(history.since(original).isEmpty());
+        assertEquals(Map.of("usd", 1.08), history.since(corrected).getChanged().toMap());
+    }
+
+    private static CurrencyRates rates(LocalDate date, double usd) {
+        return new CurrencyRates("eur", date, RateTable.builder().put("usd", usd).put("try", 34.9).build());
+    }
+}
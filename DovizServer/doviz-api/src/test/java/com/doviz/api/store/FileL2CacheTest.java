@@ -0,0 +1,98 @@
+package com.doviz.api.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileL2CacheTest {
+
+    private static final Duration POLL = Duration.ofMillis(50);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesRoundTripThroughTheFile() {
+        try (FileL2Cache l2 = new FileL2Cache(directory, POLL)) {
+            l2.putIfNewer("rates", "eur:2024-03-01",
+                    new L2Cache.Entry(19783, 4_102_444_800_000L, "a", new byte[] { 1, 2, 3 }));
+
+            L2Cache.Entry read = l2.get("rates", "eur:2024-03-01").orElseThrow();
+
+            assertEquals(19783, read.version());
+            assertEquals(4_102_444_800_000L, read.expiresAt());
+            assertEquals("a", read.origin());
+            assertArrayEquals(new byte[] { 1, 2, 3 }, read.payload());
+            assertTrue(l2.get("rates", "usd").isEmpty());
+        }
+    }
+
+    @Test
+    void onlyNewerVersionsReplaceAnEntry() {
+        try (FileL2Cache first = new FileL2Cache(directory, POLL);
+                FileL2Cache second = new FileL2Cache(directory, POLL)) {
+            first.putIfNewer("rates", "eur", entry(2, "first"));
+
+            L2Cache.Entry kept = second.putIfNewer("rates", "eur", entry(1, "second"));
+
+            assertEquals(2, kept.version());
+            assertEquals("first", kept.origin());
+            assertEquals(2, second.get("rates", "eur").orElseThrow().version());
+
+            L2Cache.Entry newer = entry(3, "second");
+            assertSame(newer, second.putIfNewer("rates", "eur", newer));
+            assertEquals("second", first.get("rates", "eur").orElseThrow().origin());
+        }
+    }
+
+    @Test
+    void evictAndClearRemoveFiles() {
+        try (FileL2Cache l2 = new FileL2Cache(directory, POLL)) {
+            l2.putIfNewer("rates", "eur", entry(1, "a"));
+            l2.putIfNewer("rates", "usd", entry(1, "a"));
+
+            l2.evict("rates", "eur");
+            assertTrue(l2.get("rates", "eur").isEmpty());
+            assertTrue(l2.get("rates", "usd").isPresent());
+
+            l2.clear("rates");
+            assertTrue(l2.get("rates", "usd").isEmpty());
+        }
+    }
+
+    @Test
+    void pollingReportsWritesFromOtherNodes() throws InterruptedException {
+        try (FileL2Cache writer = new FileL2Cache(directory, POLL);
+                FileL2Cache reader = new FileL2Cache(directory, POLL)) {
+            writer.putIfNewer("rates", "gbp", entry(1, "writer"));
+            BlockingQueue<String> seen = new LinkedBlockingQueue<>();
+            reader.subscribe((cache, key, version, origin) ->
+                    seen.add(cache + "/" + key + "@" + version + " by " + origin));
+
+            // abone olunmadan önce var olan girdiler bildirilmez
+            writer.putIfNewer("rates", "eur:2024-03-01", entry(5, "writer"));
+
+            assertEquals("rates/eur:2024-03-01@5 by writer", seen.poll(5, TimeUnit.SECONDS));
+            Thread.sleep(POLL.toMillis() * 4);
+            assertNull(seen.poll());
+
+            writer.putIfNewer("rates", "eur:2024-03-01", entry(6, "writer"));
+            assertEquals("rates/eur:2024-03-01@6 by writer", seen.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static L2Cache.Entry entry(long version, String origin) {
+        return new L2Cache.Entry(version, Long.MAX_VALUE, origin, new byte[] { (byte) version });
+    }
+}
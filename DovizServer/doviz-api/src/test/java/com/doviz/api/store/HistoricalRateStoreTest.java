@@ -0,0 +1,133 @@
+package com.doviz.api.store;
+
+import com.doviz.api.model.CurrencyRates;
+import com.doviz.api.model.RateTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoricalRateStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 6);
+
+    @TempDir
+    Path directory;
+
+    private HistoricalRateStore store;
+
+    @AfterEach
+    void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void appendedDaysReadBack() {
+        store = open();
+        store.append("eur", DAY, rates(DAY, 1.08));
+        // hafta sonu istenen gün, upstream'in döndüğü önceki günün snapshot'ıyla saklanır
+        store.append("EUR", DAY.plusDays(1), rates(DAY, 1.09));
+
+        assertEquals(rates(DAY, 1.08), store.find("eur", DAY).orElseThrow());
+        assertEquals(rates(DAY, 1.09), store.find("EUR", DAY.plusDays(1)).orElseThrow());
+    }
+
+    @Test
+    void daysSurviveARestart() {
+        store = open();
+        store.append("eur", DAY, rates(DAY, 1.08));
+        store.append("eur", DAY.plusDays(1), rates(DAY.plusDays(1), 1.09));
+        store.close();
+
+        store = open();
+
+        assertEquals(rates(DAY, 1.08), store.find("eur", DAY).orElseThrow());
+        assertEquals(rates(DAY.plusDays(1), 1.09), store.find("eur", DAY.plusDays(1)).orElseThrow());
+    }
+
+    @Test
+    void missingDaysAndBasesAreEmpty() {
+        store = open();
+        store.append("eur", DAY, rates(DAY, 1.08));
+
+        assertTrue(store.find("eur", DAY.minusDays(1)).isEmpty());
+        assertTrue(store.find("usd", DAY).isEmpty());
+        assertTrue(store.find("../eur", DAY).isEmpty());
+        assertFalse(Files.exists(directory.resolve("usd.bin")));
+    }
+
+    @Test
+    void onlyPastDaysWithRatesAreStored() {
+        store = open();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        store.append("eur", today, rates(today, 1.08));
+        store.append("eur", DAY, new CurrencyRates("eur", DAY, RateTable.EMPTY));
+
+        assertTrue(store.find("eur", today).isEmpty());
+        assertTrue(store.find("eur", DAY).isEmpty());
+    }
+
+    @Test
+    void firstWriteForADayWins() {
+        store = open();
+        store.append("eur", DAY, rates(DAY, 1.08));
+        store.append("eur", DAY, rates(DAY, 1.09));
+
+        assertEquals(rates(DAY, 1.08), store.find("eur", DAY).orElseThrow());
+    }
+
+    @Test
+    void truncatedLastRecordIsDroppedOnOpen() throws IOException {
+        store = open();
+        store.append("eur", DAY, rates(DAY, 1.08));
+        store.append("eur", DAY.plusDays(1), rates(DAY.plusDays(1), 1.09));
+        store.close();
+        Path file = directory.resolve("eur.bin");
+        long complete = Files.size(file);
+        // yazma sırasında kesilmiş kayıt: son kaydın birkaç baytı eksik
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(complete - 3);
+        }
+
+        store = open();
+
+        assertEquals(rates(DAY, 1.08), store.find("eur", DAY).orElseThrow());
+        assertTrue(store.find("eur", DAY.plusDays(1)).isEmpty());
+
+        // kesilen gün yeniden yazılabilir
+        store.append("eur", DAY.plusDays(1), rates(DAY.plusDays(1), 1.10));
+        assertEquals(rates(DAY.plusDays(1), 1.10), store.find("eur", DAY.plusDays(1)).orElseThrow());
+        assertEquals(complete, Files.size(file));
+    }
+
+    @Test
+    void disabledStoreKeepsNothing() {
+        store = new HistoricalRateStore(false, directory.toString());
+        store.append("eur", DAY, rates(DAY, 1.08));
+
+        assertTrue(store.find("eur", DAY).isEmpty());
+        assertFalse(Files.exists(directory.resolve("eur.bin")));
+    }
+
+    private HistoricalRateStore open() {
+        return new HistoricalRateStore(true, directory.toString());
+    }
+
+    private static CurrencyRates rates(LocalDate date, double usd) {
+        return new CurrencyRates("eur", date, RateTable.builder().put("usd", usd).put("try", 34.9).build());
+    }
+}
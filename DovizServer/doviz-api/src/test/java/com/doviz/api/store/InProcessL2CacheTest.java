@@ -0,0 +1,95 @@
+package com.doviz.api.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InProcessL2CacheTest {
+
+    // paylaşılan girdiler statik olduğu için her test kendi cache adını kullanır
+    private final String cache = "test-" + UUID.randomUUID();
+
+    @Test
+    void onlyNewerVersionsReplaceAnEntry() {
+        InProcessL2Cache l2 = new InProcessL2Cache();
+        L2Cache.Entry second = entry(2, "a");
+
+        assertSame(second, l2.putIfNewer(cache, "eur", second));
+        assertSame(second, l2.putIfNewer(cache, "eur", entry(1, "b")));
+        assertSame(second, l2.putIfNewer(cache, "eur", entry(2, "b")));
+        assertSame(second, l2.get(cache, "eur").orElseThrow());
+
+        L2Cache.Entry third = entry(3, "b");
+        assertSame(third, l2.putIfNewer(cache, "eur", third));
+        assertSame(third, l2.get(cache, "eur").orElseThrow());
+    }
+
+    @Test
+    void expiredEntriesCanBeReplacedByAnyVersion() {
+        InProcessL2Cache l2 = new InProcessL2Cache();
+        l2.putIfNewer(cache, "eur", new L2Cache.Entry(5, 0, "a", new byte[0]));
+
+        L2Cache.Entry older = entry(1, "b");
+
+        assertSame(older, l2.putIfNewer(cache, "eur", older));
+    }
+
+    @Test
+    void sharedNodesSeeEachOthersWrites() {
+        InProcessL2Cache first = InProcessL2Cache.joinShared();
+        InProcessL2Cache second = InProcessL2Cache.joinShared();
+        List<String> seen = new ArrayList<>();
+        second.subscribe((name, key, version, origin) ->
+                seen.add(name + "/" + key + "@" + version + " by " + origin));
+        try {
+            L2Cache.Entry entry = entry(7, "first");
+            first.putIfNewer(cache, "usd", entry);
+
+            assertSame(entry, second.get(cache, "usd").orElseThrow());
+            assertEquals(List.of(cache + "/usd@7 by first"), seen);
+
+            second.putIfNewer(cache, "usd", entry(6, "second"));
+            assertEquals(1, seen.size());
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    void closedNodesStopHearingWrites() {
+        InProcessL2Cache first = InProcessL2Cache.joinShared();
+        InProcessL2Cache second = InProcessL2Cache.joinShared();
+        List<Long> seen = new ArrayList<>();
+        second.subscribe((name, key, version, origin) -> seen.add(version));
+        second.close();
+        try {
+            first.putIfNewer(cache, "usd", entry(1, "first"));
+
+            assertTrue(seen.isEmpty());
+            assertTrue(second.get(cache, "usd").isPresent());
+        } finally {
+            first.close();
+        }
+    }
+
+    @Test
+    void privateInstancesDoNotShare() {
+        InProcessL2Cache first = new InProcessL2Cache();
+        InProcessL2Cache second = new InProcessL2Cache();
+
+        first.putIfNewer(cache, "usd", entry(1, "first"));
+
+        assertTrue(second.get(cache, "usd").isEmpty());
+    }
+
+    private static L2Cache.Entry entry(long version, String origin) {
+        return new L2Cache.Entry(version, Long.MAX_VALUE, origin, new byte[] { (byte) version });
+    }
+}